@@ -0,0 +1,245 @@
+package donation.example.donation.system.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process near-duplicate lookup over feature sets.
+ *
+ * Each set gets a {@value #HASHES}-value MinHash signature, split into {@value #BANDS} bands of
+ * {@value #ROWS} rows. Sets sharing any band land in the same LSH bucket and become candidates;
+ * candidates are then checked against their stored feature set, and the closest one at or above
+ * {@code threshold} Jaccard similarity wins. With these bands a pair at 0.8 similarity is a
+ * candidate more than 99.9% of the time, one at 0.3 about 12% of the time.
+ *
+ * Bounded like {@link BoundedTtlCache}: least recently matched entries go first, expired ones are
+ * dropped when a lookup runs into them.
+ */
+public class MinHashIndex<V> {
+
+    private static final int BANDS = 16;
+    private static final int ROWS = 4;
+    private static final int HASHES = BANDS * ROWS;
+
+    // Fixed so signatures are comparable across instances and restarts
+    private static final long[] SEEDS = new SplittableRandom(0x5eedL).longs(HASHES).toArray();
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final double threshold;
+
+    private final LinkedHashMap<Set<String>, Entry<V>> entries;
+    private final List<Map<Long, List<Entry<V>>>> buckets = new ArrayList<>(BANDS);
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder candidatesChecked = new LongAdder();
+
+    public MinHashIndex(int maxSize, Duration ttl, double threshold) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("threshold must be in (0, 1]");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.threshold = threshold;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    public record Match<V>(V value, double similarity) {
+    }
+
+    /**
+     * Returns the stored value whose feature set is most similar to {@code features}, if any
+     * reaches the threshold. An empty feature set never matches.
+     */
+    public Optional<Match<V>> findSimilar(Set<String> features) {
+        if (features.isEmpty()) {
+            return Optional.empty();
+        }
+        long[] bandKeys = bandKeys(signature(features));
+        long now = System.nanoTime();
+        lookups.increment();
+
+        synchronized (entries) {
+            Entry<V> best = null;
+            double bestSimilarity = 0;
+            Set<Entry<V>> seen = new HashSet<>();
+            List<Entry<V>> expired = new ArrayList<>();
+            for (int band = 0; band < BANDS; band++) {
+                List<Entry<V>> bucket = buckets.get(band).get(bandKeys[band]);
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry<V> candidate : bucket) {
+                    if (!seen.add(candidate)) {
+                        continue;
+                    }
+                    if (candidate.expiresAt - now <= 0) {
+                        expired.add(candidate);
+                        continue;
+                    }
+                    double similarity = jaccard(features, candidate.features);
+                    if (similarity >= threshold && similarity > bestSimilarity) {
+                        best = candidate;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+            expired.forEach(this::remove);
+            candidatesChecked.add(seen.size() - expired.size());
+            if (best == null) {
+                return Optional.empty();
+            }
+            entries.get(best.features);
+            hits.increment();
+            return Optional.of(new Match<>(best.value, bestSimilarity));
+        }
+    }
+
+    public void put(Set<String> features, V value) {
+        if (features.isEmpty()) {
+            return;
+        }
+        Set<String> key = Set.copyOf(features);
+        Entry<V> entry = new Entry<>(key, value, bandKeys(signature(key)), System.nanoTime() + ttlNanos);
+        synchronized (entries) {
+            Entry<V> replaced = entries.get(key);
+            if (replaced != null) {
+                remove(replaced);
+            }
+            entries.put(key, entry);
+            for (int band = 0; band < BANDS; band++) {
+                buckets.get(band).computeIfAbsent(entry.bandKeys[band], k -> new ArrayList<>(1)).add(entry);
+            }
+            if (entries.size() > maxSize) {
+                Iterator<Entry<V>> eldest = entries.values().iterator();
+                remove(eldest.next());
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long lookupCount() {
+        return lookups.sum();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Stored sets compared exactly across all lookups; divided by {@link #lookupCount()} it shows
+     * how much work the LSH buckets leave for verification.
+     */
+    public long candidatesChecked() {
+        return candidatesChecked.sum();
+    }
+
+    public static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() && b.isEmpty()) {
+            return 1;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int shared = 0;
+        for (String feature : smaller) {
+            if (larger.contains(feature)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    // Caller holds the lock
+    private void remove(Entry<V> entry) {
+        entries.remove(entry.features, entry);
+        for (int band = 0; band < BANDS; band++) {
+            Map<Long, List<Entry<V>>> bandBuckets = buckets.get(band);
+            List<Entry<V>> bucket = bandBuckets.get(entry.bandKeys[band]);
+            if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+                bandBuckets.remove(entry.bandKeys[band]);
+            }
+        }
+    }
+
+    private static long[] signature(Set<String> features) {
+        long[] minimums = new long[HASHES];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        for (String feature : features) {
+            long base = hash(feature);
+            for (int i = 0; i < HASHES; i++) {
+                long value = mix(base ^ SEEDS[i]);
+                if (value < minimums[i]) {
+                    minimums[i] = value;
+                }
+            }
+        }
+        return minimums;
+    }
+
+    private static long[] bandKeys(long[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS; row++) {
+                key = mix(key * 31 + signature[band * ROWS + row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    // 64-bit FNV-1a; String.hashCode is only 32 bits and collides too easily for short tokens
+    private static long hash(String feature) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Entry<V> {
+        private final Set<String> features;
+        private final V value;
+        private final long[] bandKeys;
+        private final long expiresAt;
+
+        private Entry(Set<String> features, V value, long[] bandKeys, long expiresAt) {
+            this.features = features;
+            this.value = value;
+            this.bandKeys = bandKeys;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -2,24 +2,44 @@ package donation.example.donation.system.controller;
 
 import donation.example.donation.system.dto.ai.*;
 import donation.example.donation.system.service.ai.AiContentService;
+import donation.example.donation.system.service.ai.AiGenerationCache;
+import donation.example.donation.system.service.ai.GeminiClient;
 import donation.example.donation.system.service.ai.GeminiService;
 import donation.example.donation.system.type.AiContentType;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/ai")
 public class AiController {
 
+    // Donations accepted by one thank-you batch request
+    private static final int MAX_THANK_YOU_BATCH = 50;
+    private static final int MAX_STATUS_BATCH = 500;
+    // How long a streamed generation may keep its event stream open
+    private static final long STREAM_TIMEOUT_MILLIS = 60_000;
+
     private final GeminiService geminiService;
     private final AiContentService aiContentService;
+    private final AiGenerationCache generationCache;
+    private final GeminiClient geminiClient;
 
-    public AiController(GeminiService geminiService, AiContentService aiContentService) {
+    public AiController(GeminiService geminiService, AiContentService aiContentService,
+                        AiGenerationCache generationCache, GeminiClient geminiClient) {
         this.geminiService = geminiService;
         this.aiContentService = aiContentService;
+        this.generationCache = generationCache;
+        this.geminiClient = geminiClient;
     }
 
     /**
@@ -27,13 +47,12 @@ public class AiController {
      * POST /api/ai/generate-description
      */
     @PostMapping("/generate-description")
-    public ResponseEntity<AiResponse> generateDescription(@RequestBody DescriptionRequest request) {
+    public CompletableFuture<ResponseEntity<AiResponse>> generateDescription(@RequestBody DescriptionRequest request) {
         if (request.getItems() == null || request.getItems().isEmpty()) {
-            return ResponseEntity.badRequest().body(AiResponse.error("Items list cannot be empty"));
+            return badRequest("Items list cannot be empty");
         }
 
-        AiResponse response = geminiService.generateDescription(request.getItems());
-        return ResponseEntity.ok(response);
+        return geminiService.generateDescription(request.getItems()).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -41,13 +60,12 @@ public class AiController {
      * POST /api/ai/food-tips
      */
     @PostMapping("/food-tips")
-    public ResponseEntity<AiResponse> getFoodTips(@RequestBody FoodTipsRequest request) {
+    public CompletableFuture<ResponseEntity<AiResponse>> getFoodTips(@RequestBody FoodTipsRequest request) {
         if (request.getItems() == null || request.getItems().isEmpty()) {
-            return ResponseEntity.badRequest().body(AiResponse.error("Items list cannot be empty"));
+            return badRequest("Items list cannot be empty");
         }
 
-        AiResponse response = geminiService.getFoodHandlingTips(request.getItems());
-        return ResponseEntity.ok(response);
+        return geminiService.getFoodHandlingTips(request.getItems()).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -55,16 +73,31 @@ public class AiController {
      * POST /api/ai/food-tips/save
      */
     @PostMapping("/food-tips/save")
-    public ResponseEntity<AiResponse> generateAndSaveFoodTips(@RequestBody FoodTipsGenerateRequest request) {
+    public CompletableFuture<ResponseEntity<AiResponse>> generateAndSaveFoodTips(@RequestBody FoodTipsGenerateRequest request) {
         if (request.getDonationId() == null) {
-            return ResponseEntity.badRequest().body(AiResponse.error("Donation ID is required"));
+            return badRequest("Donation ID is required");
         }
         if (request.getItems() == null || request.getItems().isEmpty()) {
-            return ResponseEntity.badRequest().body(AiResponse.error("Items list cannot be empty"));
+            return badRequest("Items list cannot be empty");
         }
 
-        AiResponse response = aiContentService.generateAndSaveFoodTips(request);
-        return ResponseEntity.ok(response);
+        return aiContentService.generateAndSaveFoodTips(request).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Generate and save food tips, streaming the text as it is written
+     * POST /api/ai/food-tips/stream (text/event-stream)
+     */
+    @PostMapping(value = "/food-tips/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAndSaveFoodTips(@RequestBody FoodTipsGenerateRequest request) {
+        if (request.getDonationId() == null) {
+            return rejected("Donation ID is required");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return rejected("Items list cannot be empty");
+        }
+
+        return relay(onChunk -> aiContentService.streamAndSaveFoodTips(request, onChunk));
     }
 
     /**
@@ -82,21 +115,20 @@ public class AiController {
      * POST /api/ai/thank-you
      */
     @PostMapping("/thank-you")
-    public ResponseEntity<AiResponse> generateThankYou(@RequestBody ThankYouRequest request) {
+    public CompletableFuture<ResponseEntity<AiResponse>> generateThankYou(@RequestBody ThankYouRequest request) {
         if (request.getDonorName() == null || request.getDonorName().isEmpty()) {
-            return ResponseEntity.badRequest().body(AiResponse.error("Donor name is required"));
+            return badRequest("Donor name is required");
         }
         if (request.getItems() == null || request.getItems().isEmpty()) {
-            return ResponseEntity.badRequest().body(AiResponse.error("Items list cannot be empty"));
+            return badRequest("Items list cannot be empty");
         }
 
         String date = request.getDate() != null ? request.getDate() : "today";
-        AiResponse response = geminiService.generateThankYouMessage(
+        return geminiService.generateThankYouMessage(
                 request.getDonorName(),
                 request.getItems(),
                 date
-        );
-        return ResponseEntity.ok(response);
+        ).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -105,19 +137,58 @@ public class AiController {
      */
     @PostMapping("/thank-you/save")
     @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
-    public ResponseEntity<AiResponse> generateAndSaveThankYou(@RequestBody ThankYouGenerateRequest request) {
+    public CompletableFuture<ResponseEntity<AiResponse>> generateAndSaveThankYou(@RequestBody ThankYouGenerateRequest request) {
         if (request.getDonationId() == null) {
-            return ResponseEntity.badRequest().body(AiResponse.error("Donation ID is required"));
+            return badRequest("Donation ID is required");
         }
         if (request.getDonorName() == null || request.getDonorName().isEmpty()) {
-            return ResponseEntity.badRequest().body(AiResponse.error("Donor name is required"));
+            return badRequest("Donor name is required");
         }
         if (request.getItems() == null || request.getItems().isEmpty()) {
-            return ResponseEntity.badRequest().body(AiResponse.error("Items list cannot be empty"));
+            return badRequest("Items list cannot be empty");
         }
 
-        AiResponse response = aiContentService.generateAndSaveThankYou(request);
-        return ResponseEntity.ok(response);
+        return aiContentService.generateAndSaveThankYou(request).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Generate and save thank you message, streaming the text as it is written - Staff/Admin only
+     * POST /api/ai/thank-you/stream (text/event-stream)
+     */
+    @PostMapping(value = "/thank-you/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public SseEmitter streamAndSaveThankYou(@RequestBody ThankYouGenerateRequest request) {
+        if (request.getDonationId() == null) {
+            return rejected("Donation ID is required");
+        }
+        if (request.getDonorName() == null || request.getDonorName().isEmpty()) {
+            return rejected("Donor name is required");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return rejected("Items list cannot be empty");
+        }
+
+        return relay(onChunk -> aiContentService.streamAndSaveThankYou(request, onChunk));
+    }
+
+    /**
+     * Generate and save thank you messages for many donations at once - Staff/Admin only
+     * POST /api/ai/thank-you/batch
+     */
+    @PostMapping("/thank-you/batch")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public CompletableFuture<ResponseEntity<?>> generateAndSaveThankYouBatch(@RequestBody ThankYouBatchRequest request) {
+        List<Long> donationIds = request.getDonationIds();
+        if (donationIds == null || donationIds.isEmpty() || donationIds.contains(null)) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(AiResponse.error("Donation IDs are required")));
+        }
+        if (donationIds.size() > MAX_THANK_YOU_BATCH) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(AiResponse.error("At most " + MAX_THANK_YOU_BATCH + " donations per batch")));
+        }
+
+        return aiContentService.generateAndSaveThankYouBatch(donationIds).thenApply(ResponseEntity::ok);
     }
 
     /**
@@ -157,4 +228,80 @@ public class AiController {
             return ResponseEntity.badRequest().body(false);
         }
     }
+
+    /**
+     * Saved content types, and optionally the content, for a list of donations - Staff/Admin only
+     * POST /api/ai/status
+     */
+    @PostMapping("/status")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> getContentStatus(@RequestBody AiContentStatusRequest request) {
+        List<Long> donationIds = request.getDonationIds();
+        if (donationIds == null || donationIds.isEmpty() || donationIds.contains(null)) {
+            return ResponseEntity.badRequest().body(AiResponse.error("Donation IDs are required"));
+        }
+        if (donationIds.size() > MAX_STATUS_BATCH) {
+            return ResponseEntity.badRequest()
+                    .body(AiResponse.error("At most " + MAX_STATUS_BATCH + " donations per request"));
+        }
+
+        return ResponseEntity.ok(aiContentService.getContentStatus(donationIds, request.isIncludeContent()));
+    }
+
+    /**
+     * Hit ratio, evictions and latency of the description/food-tips generation cache
+     * GET /api/ai/cache/stats
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<AiCacheStats> getCacheStats() {
+        return ResponseEntity.ok(generationCache.stats());
+    }
+
+    /**
+     * Circuit breaker state, upstream latency and hedging activity
+     * GET /api/ai/upstream/stats
+     */
+    @GetMapping("/upstream/stats")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<AiUpstreamStats> getUpstreamStats() {
+        return ResponseEntity.ok(geminiClient.stats());
+    }
+
+    /**
+     * Sends each generated piece as a {@code chunk} event ({"text": ...}), then one {@code done} event
+     * with the saved content or an {@code error} event. A client that disconnects does not stop the
+     * generation, so the content is still saved.
+     */
+    private static SseEmitter relay(Function<Consumer<String>, CompletableFuture<AiResponse>> generation) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        generation.apply(chunk -> send(emitter, SseEmitter.event().name("chunk")
+                        .data(Map.of("text", chunk), MediaType.APPLICATION_JSON)))
+                .whenComplete((response, error) -> {
+                    AiResponse result = error == null ? response : AiResponse.error("Failed to generate content");
+                    send(emitter, SseEmitter.event().name(result.isSuccess() ? "done" : "error")
+                            .data(result, MediaType.APPLICATION_JSON));
+                    emitter.complete();
+                });
+        return emitter;
+    }
+
+    private static SseEmitter rejected(String message) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        send(emitter, SseEmitter.event().name("error").data(AiResponse.error(message), MediaType.APPLICATION_JSON));
+        emitter.complete();
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the stream timed out; nothing left to tell it
+        }
+    }
+
+    private static CompletableFuture<ResponseEntity<AiResponse>> badRequest(String message) {
+        return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(AiResponse.error(message)));
+    }
 }
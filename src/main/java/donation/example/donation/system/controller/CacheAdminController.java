@@ -0,0 +1,41 @@
+package donation.example.donation.system.controller;
+
+import donation.example.donation.system.dto.CacheRegionStatsDTO;
+import donation.example.donation.system.service.cache.CacheAdminService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@PreAuthorize("hasRole('ADMIN')")
+public class CacheAdminController {
+
+    private final CacheAdminService cacheAdminService;
+
+    public CacheAdminController(CacheAdminService cacheAdminService) {
+        this.cacheAdminService = cacheAdminService;
+    }
+
+    // Hits, misses and size per second-level cache region
+    @GetMapping
+    public List<CacheRegionStatsDTO> getRegionStats() {
+        return cacheAdminService.regionStats();
+    }
+
+    // Drop one region, e.g. after editing its table by hand
+    @DeleteMapping("/{region}")
+    public ResponseEntity<Void> evictRegion(@PathVariable String region) {
+        return cacheAdminService.evict(region)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> evictAll() {
+        cacheAdminService.evictAll();
+        return ResponseEntity.ok().build();
+    }
+}
@@ -1,234 +1,166 @@
 package donation.example.donation.system.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import donation.example.donation.system.dto.CreateDeliveryRequest;
 import donation.example.donation.system.dto.DeliveryDTO;
-import donation.example.donation.system.mapper.DeliveryMapper;
-import donation.example.donation.system.model.entity.*;
+import donation.example.donation.system.dto.DispatchSummaryDTO;
 import donation.example.donation.system.type.DeliveryStatus;
-import donation.example.donation.system.type.DonationStatus;
-import donation.example.donation.system.repository.*;
+import donation.example.donation.system.security.CurrentActor;
+import donation.example.donation.system.service.delivery.DeliveryLifecycleService;
+import donation.example.donation.system.service.delivery.DeliveryQueryService;
+import donation.example.donation.system.service.delivery.DeliveryTransition;
+import donation.example.donation.system.service.dispatch.DispatchService;
+import donation.example.donation.system.service.export.ExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/deliveries")
 public class DeliveryController {
 
-    private final DeliveryRepository deliveryRepository;
-    private final DonationRepository donationRepository;
-    private final CollectionCenterRepository centerRepository;
-    private final DeliveryPartnerRepository driverRepository;
-    private final RecipientRepository recipientRepository;
-    private final DeliveryMapper deliveryMapper;
-
-    public DeliveryController(DeliveryRepository deliveryRepository,
-                              DonationRepository donationRepository,
-                              CollectionCenterRepository centerRepository,
-                              DeliveryPartnerRepository driverRepository,
-                              RecipientRepository recipientRepository,
-                              DeliveryMapper deliveryMapper) {
-        this.deliveryRepository = deliveryRepository;
-        this.donationRepository = donationRepository;
-        this.centerRepository = centerRepository;
-        this.driverRepository = driverRepository;
-        this.recipientRepository = recipientRepository;
-        this.deliveryMapper = deliveryMapper;
+    private static final int MAX_DISPATCH_BATCH = 1000;
+
+    private final DeliveryQueryService deliveryQueryService;
+    private final ExportService exportService;
+    private final CurrentActor currentActor;
+    private final DeliveryLifecycleService lifecycleService;
+    private final DispatchService dispatchService;
+    private final ObjectMapper objectMapper;
+
+    public DeliveryController(DeliveryQueryService deliveryQueryService,
+                              ExportService exportService,
+                              CurrentActor currentActor,
+                              DeliveryLifecycleService lifecycleService,
+                              DispatchService dispatchService,
+                              ObjectMapper objectMapper) {
+        this.deliveryQueryService = deliveryQueryService;
+        this.exportService = exportService;
+        this.currentActor = currentActor;
+        this.lifecycleService = lifecycleService;
+        this.dispatchService = dispatchService;
+        this.objectMapper = objectMapper;
     }
 
+    // List endpoints take ?view=summary|full (default full) and ?fields=a,b to trim each row
+
     // Get all deliveries
     @GetMapping
-    public List<DeliveryDTO> getAllDeliveries() {
-        return deliveryRepository.findAll().stream()
-                .map(deliveryMapper::toDTO)
-                .collect(Collectors.toList());
+    public List<?> getAllDeliveries(@RequestParam(required = false) String view,
+                                    @RequestParam(required = false) String fields) {
+        return SparseFields.apply(objectMapper, ListView.parse(view) == ListView.SUMMARY
+                ? deliveryQueryService.findAllSummaries()
+                : deliveryQueryService.findAll(), fields);
+    }
+
+    // Export all deliveries as newline-delimited JSON, streamed row by row (Admin only)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportDeliveries() {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"deliveries.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::writeDeliveries);
     }
 
     // Get delivery by ID
     @GetMapping("/{id}")
     public ResponseEntity<DeliveryDTO> getDeliveryById(@PathVariable Long id) {
-        return deliveryRepository.findById(id)
-                .map(delivery -> ResponseEntity.ok(deliveryMapper.toDTO(delivery)))
+        return deliveryQueryService.findById(id)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Get deliveries for current driver
     @GetMapping("/my")
-    public ResponseEntity<List<DeliveryDTO>> getMyDeliveries() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        return driverRepository.findByUserUsername(username)
-                .map(driver -> {
-                    List<DeliveryDTO> deliveries = deliveryRepository.findByDriverId(driver.getId())
-                            .stream()
-                            .map(deliveryMapper::toDTO)
-                            .collect(Collectors.toList());
-                    return ResponseEntity.ok(deliveries);
-                })
+    public ResponseEntity<List<?>> getMyDeliveries(@RequestParam(required = false) String view,
+                                                   @RequestParam(required = false) String fields) {
+        return currentActor.driverId()
+                .<ResponseEntity<List<?>>>map(driverId -> ResponseEntity.ok(SparseFields.apply(objectMapper,
+                        ListView.parse(view) == ListView.SUMMARY
+                                ? deliveryQueryService.findSummariesByDriver(driverId)
+                                : deliveryQueryService.findByDriver(driverId), fields)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Get pending/assigned deliveries for current driver
     @GetMapping("/my/pending")
-    public ResponseEntity<List<DeliveryDTO>> getMyPendingDeliveries() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        return driverRepository.findByUserUsername(username)
-                .map(driver -> {
-                    List<DeliveryDTO> deliveries = deliveryRepository
-                            .findByDriverIdAndStatus(driver.getId(), DeliveryStatus.ASSIGNED)
-                            .stream()
-                            .map(deliveryMapper::toDTO)
-                            .collect(Collectors.toList());
-                    return ResponseEntity.ok(deliveries);
-                })
+    public ResponseEntity<List<?>> getMyPendingDeliveries(@RequestParam(required = false) String view,
+                                                          @RequestParam(required = false) String fields) {
+        return currentActor.driverId()
+                .<ResponseEntity<List<?>>>map(driverId -> ResponseEntity.ok(SparseFields.apply(objectMapper,
+                        ListView.parse(view) == ListView.SUMMARY
+                                ? deliveryQueryService.findSummariesByDriverAndStatus(driverId, DeliveryStatus.ASSIGNED)
+                                : deliveryQueryService.findByDriverAndStatus(driverId, DeliveryStatus.ASSIGNED),
+                        fields)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Get deliveries for a center
     @GetMapping("/center/{centerId}")
-    public List<DeliveryDTO> getDeliveriesForCenter(@PathVariable Long centerId) {
-        return deliveryRepository.findByFromCenterId(centerId).stream()
-                .map(deliveryMapper::toDTO)
-                .collect(Collectors.toList());
+    public List<?> getDeliveriesForCenter(@PathVariable Long centerId,
+                                          @RequestParam(required = false) String view,
+                                          @RequestParam(required = false) String fields) {
+        return SparseFields.apply(objectMapper, ListView.parse(view) == ListView.SUMMARY
+                ? deliveryQueryService.findSummariesByCenter(centerId)
+                : deliveryQueryService.findByCenter(centerId), fields);
     }
 
-    // Create new delivery (Staff assigns driver and recipient)
+    // Create new delivery (Staff assigns driver and recipient; 409 if either is already taken)
     @PostMapping
     public ResponseEntity<DeliveryDTO> createDelivery(@RequestBody CreateDeliveryRequest request) {
-        // Get donation
-        Donation donation = donationRepository.findById(request.getDonationId())
-                .orElseThrow(() -> new RuntimeException("Donation not found"));
-
-        // Verify donation is in COLLECTED status
-        if (donation.getStatus() != DonationStatus.COLLECTED) {
-            throw new RuntimeException("Donation must be in COLLECTED status to create delivery");
-        }
-
-        // Get driver
-        DeliveryPartner driver = driverRepository.findById(request.getDriverId())
-                .orElseThrow(() -> new RuntimeException("Driver not found"));
-
-        // Get recipient
-        Recipient recipient = recipientRepository.findById(request.getRecipientId())
-                .orElseThrow(() -> new RuntimeException("Recipient not found"));
-
-        // Create delivery
-        Delivery delivery = new Delivery();
-        delivery.setDonation(donation);
-        delivery.setFromCenter(donation.getCollectionCenter());
-        delivery.setDriver(driver);
-        delivery.setRecipient(recipient);
-        delivery.setStatus(DeliveryStatus.ASSIGNED);
-        delivery.setScheduledPickupTime(request.getScheduledPickupTime());
-        delivery.setNotes(request.getNotes());
-        delivery.setCreatedAt(LocalDateTime.now());
-
-        Delivery saved = deliveryRepository.save(delivery);
-
-        // Update donation status to ASSIGNED
-        donation.setStatus(DonationStatus.ASSIGNED);
-        donationRepository.save(donation);
-
-        return ResponseEntity.ok(deliveryMapper.toDTO(saved));
+        return ResponseEntity.ok(lifecycleService.create(request));
+    }
+
+    // Assign waiting COLLECTED donations to idle drivers, oldest first (Staff/Admin)
+    @PostMapping("/dispatch")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public DispatchSummaryDTO dispatchPending(@RequestParam(required = false) Long centerId,
+                                              @RequestParam(defaultValue = "100") int limit) {
+        return dispatchService.dispatchPending(centerId, Math.max(1, Math.min(limit, MAX_DISPATCH_BATCH)));
     }
 
     // Driver picks up the delivery
     @PutMapping("/{id}/pickup")
     public ResponseEntity<DeliveryDTO> pickupDelivery(@PathVariable Long id) {
-        return deliveryRepository.findById(id).map(delivery -> {
-            if (delivery.getStatus() != DeliveryStatus.ASSIGNED) {
-                throw new RuntimeException("Delivery must be in ASSIGNED status to pick up");
-            }
-
-            delivery.setStatus(DeliveryStatus.PICKED_UP);
-            delivery.setActualPickupTime(LocalDateTime.now());
-            Delivery saved = deliveryRepository.save(delivery);
-
-            // Update donation status
-            Donation donation = delivery.getDonation();
-            donation.setStatus(DonationStatus.IN_TRANSIT);
-            donationRepository.save(donation);
-
-            return ResponseEntity.ok(deliveryMapper.toDTO(saved));
-        }).orElse(ResponseEntity.notFound().build());
+        return transition(id, DeliveryTransition.PICK_UP);
     }
 
     // Driver marks as in transit
     @PutMapping("/{id}/in-transit")
     public ResponseEntity<DeliveryDTO> markInTransit(@PathVariable Long id) {
-        return deliveryRepository.findById(id).map(delivery -> {
-            delivery.setStatus(DeliveryStatus.IN_TRANSIT);
-            Delivery saved = deliveryRepository.save(delivery);
-            return ResponseEntity.ok(deliveryMapper.toDTO(saved));
-        }).orElse(ResponseEntity.notFound().build());
+        return transition(id, DeliveryTransition.START_TRANSIT);
     }
 
-    // Driver completes delivery
+    // Driver completes delivery (driver becomes available again)
     @PutMapping("/{id}/complete")
     public ResponseEntity<DeliveryDTO> completeDelivery(@PathVariable Long id) {
-        return deliveryRepository.findById(id).map(delivery -> {
-            delivery.setStatus(DeliveryStatus.DELIVERED);
-            delivery.setDeliveredTime(LocalDateTime.now());
-            Delivery saved = deliveryRepository.save(delivery);
-
-            // Update donation status
-            Donation donation = delivery.getDonation();
-            donation.setStatus(DonationStatus.DELIVERED);
-            donationRepository.save(donation);
-
-            // Mark driver as available again
-            DeliveryPartner driver = delivery.getDriver();
-            if (driver != null) {
-                driver.setIsAvailable(true);
-                driverRepository.save(driver);
-            }
-
-            return ResponseEntity.ok(deliveryMapper.toDTO(saved));
-        }).orElse(ResponseEntity.notFound().build());
+        return transition(id, DeliveryTransition.COMPLETE);
     }
 
-    // Cancel delivery
+    // Cancel delivery (donation goes back to COLLECTED, driver becomes available)
     @PutMapping("/{id}/cancel")
     public ResponseEntity<DeliveryDTO> cancelDelivery(@PathVariable Long id) {
-        return deliveryRepository.findById(id).map(delivery -> {
-            delivery.setStatus(DeliveryStatus.CANCELLED);
-            Delivery saved = deliveryRepository.save(delivery);
-
-            // Revert donation status to COLLECTED
-            Donation donation = delivery.getDonation();
-            donation.setStatus(DonationStatus.COLLECTED);
-            donationRepository.save(donation);
-
-            // Mark driver as available
-            DeliveryPartner driver = delivery.getDriver();
-            if (driver != null) {
-                driver.setIsAvailable(true);
-                driverRepository.save(driver);
-            }
-
-            return ResponseEntity.ok(deliveryMapper.toDTO(saved));
-        }).orElse(ResponseEntity.notFound().build());
+        return transition(id, DeliveryTransition.CANCEL);
     }
 
-    // Delete delivery
+    // Delete delivery (donation goes back to COLLECTED, an unfinished delivery frees its driver)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteDelivery(@PathVariable Long id) {
-        return deliveryRepository.findById(id).map(delivery -> {
-            // Revert donation status
-            Donation donation = delivery.getDonation();
-            donation.setStatus(DonationStatus.COLLECTED);
-            donationRepository.save(donation);
-
-            deliveryRepository.delete(delivery);
-            return ResponseEntity.ok().<Void>build();
-        }).orElse(ResponseEntity.notFound().build());
+        return lifecycleService.delete(id)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // 404 if the delivery does not exist, 409 if its current status does not allow the move
+    private ResponseEntity<DeliveryDTO> transition(Long id, DeliveryTransition transition) {
+        return lifecycleService.apply(id, transition)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 }
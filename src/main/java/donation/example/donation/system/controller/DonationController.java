@@ -1,111 +1,118 @@
 package donation.example.donation.system.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import donation.example.donation.system.dto.CursorPage;
 import donation.example.donation.system.dto.DonationDTO;
 import donation.example.donation.system.dto.DonationRequestDTO;
-import donation.example.donation.system.mapper.DonationMapper;
-import donation.example.donation.system.model.entity.CollectionCenter;
-import donation.example.donation.system.model.entity.Donation;
 import donation.example.donation.system.type.DonationStatus;
-import donation.example.donation.system.repository.CollectionCenterRepository;
-import donation.example.donation.system.repository.DonationRepository;
-import donation.example.donation.system.repository.DonorRepository;
+import donation.example.donation.system.security.CurrentActor;
+import donation.example.donation.system.service.donation.DonationService;
+import donation.example.donation.system.service.export.ExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/donations")
 public class DonationController {
 
-    private final DonationRepository donationRepository;
-    private final DonorRepository donorRepository;
-    private final CollectionCenterRepository centerRepository;
-    private final DonationMapper donationMapper;
-
-    public DonationController(DonationRepository donationRepository,
-                              DonorRepository donorRepository,
-                              CollectionCenterRepository centerRepository,
-                              DonationMapper donationMapper) {
-        this.donationRepository = donationRepository;
-        this.donorRepository = donorRepository;
-        this.centerRepository = centerRepository;
-        this.donationMapper = donationMapper;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final DonationService donationService;
+    private final ExportService exportService;
+    private final CurrentActor currentActor;
+    private final ObjectMapper objectMapper;
+
+    public DonationController(DonationService donationService,
+                              ExportService exportService,
+                              CurrentActor currentActor,
+                              ObjectMapper objectMapper) {
+        this.donationService = donationService;
+        this.exportService = exportService;
+        this.currentActor = currentActor;
+        this.objectMapper = objectMapper;
     }
 
+    // List endpoints take ?view=summary|full (default full) and ?fields=a,b to trim each row
+
     // Get all donations
     @GetMapping
-    public List<DonationDTO> getAllDonations() {
-        return donationRepository.findAll().stream()
-                .map(donationMapper::donationToDonationDTO)
-                .collect(Collectors.toList());
+    public List<?> getAllDonations(@RequestParam(required = false) String view,
+                                   @RequestParam(required = false) String fields) {
+        return SparseFields.apply(objectMapper, ListView.parse(view) == ListView.SUMMARY
+                ? donationService.findAllSummaries()
+                : donationService.findAll(), fields);
+    }
+
+    // Get one page of donations, newest first (optionally filtered by status)
+    @GetMapping("/page")
+    public CursorPage<?> getDonationPage(@RequestParam(required = false) DonationStatus status,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                         @RequestParam(required = false) String view,
+                                         @RequestParam(required = false) String fields) {
+        return SparseFields.apply(objectMapper, ListView.parse(view) == ListView.SUMMARY
+                ? donationService.findSummaryPage(status, cursor, size)
+                : donationService.findPage(status, cursor, size), fields);
+    }
+
+    // Export all donations as newline-delimited JSON, streamed row by row (Admin only)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportDonations() {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"donations.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::writeDonations);
     }
 
     // Get donation by ID
     @GetMapping("/{id}")
     public ResponseEntity<DonationDTO> getDonationById(@PathVariable Long id) {
-        return donationRepository.findById(id)
-                .map(donation -> ResponseEntity.ok(donationMapper.donationToDonationDTO(donation)))
+        return donationService.findById(id)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Get donations by status
     @GetMapping("/status/{status}")
-    public List<DonationDTO> getDonationsByStatus(@PathVariable DonationStatus status) {
-        return donationRepository.findByStatus(status).stream()
-                .map(donationMapper::donationToDonationDTO)
-                .collect(Collectors.toList());
+    public List<?> getDonationsByStatus(@PathVariable DonationStatus status,
+                                        @RequestParam(required = false) String view,
+                                        @RequestParam(required = false) String fields) {
+        return SparseFields.apply(objectMapper, ListView.parse(view) == ListView.SUMMARY
+                ? donationService.findAllSummariesByStatus(status)
+                : donationService.findAllByStatus(status), fields);
     }
 
     // Get donations by donor ID
     @GetMapping("/donor/{donorId}")
-    public List<DonationDTO> getDonationsByDonor(@PathVariable Long donorId) {
-        return donationRepository.findByDonorId(donorId).stream()
-                .map(donationMapper::donationToDonationDTO)
-                .collect(Collectors.toList());
+    public List<?> getDonationsByDonor(@PathVariable Long donorId,
+                                       @RequestParam(required = false) String view,
+                                       @RequestParam(required = false) String fields) {
+        return donorDonations(donorId, view, fields);
     }
 
     // ==================== DONOR ENDPOINTS ====================
 
     // Get current donor's donations (for logged-in donor)
     @GetMapping("/my")
-    public ResponseEntity<List<DonationDTO>> getMyDonations() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        return donorRepository.findByUserUsername(username)
-                .map(donor -> {
-                    List<DonationDTO> donations = donationRepository.findByDonorId(donor.getId())
-                            .stream()
-                            .map(donationMapper::donationToDonationDTO)
-                            .collect(Collectors.toList());
-                    return ResponseEntity.ok(donations);
-                })
+    public ResponseEntity<List<?>> getMyDonations(@RequestParam(required = false) String view,
+                                                  @RequestParam(required = false) String fields) {
+        return currentActor.donorId()
+                .<ResponseEntity<List<?>>>map(donorId -> ResponseEntity.ok(donorDonations(donorId, view, fields)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // Create donation for current logged-in donor
     @PostMapping("/my")
     public ResponseEntity<DonationDTO> createMyDonation(@RequestBody DonationRequestDTO request) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        return donorRepository.findByUserUsername(username)
-                .map(donor -> {
-                    CollectionCenter center = centerRepository.findById(request.getCollectionCenterId())
-                            .orElseThrow(() -> new RuntimeException("Collection Center not found"));
-
-                    Donation donation = new Donation();
-                    donation.setName(request.getName());
-                    donation.setDonor(donor);
-                    donation.setCollectionCenter(center);
-                    donation.setStatus(DonationStatus.PENDING);
-
-                    return ResponseEntity.ok(donationMapper.donationToDonationDTO(donationRepository.save(donation)));
-                })
+        return currentActor.donorId()
+                .map(donorId -> ResponseEntity.ok(donationService.createForDonor(donorId, request)))
                 .orElseThrow(() -> new RuntimeException("Donor profile not found. Please create a donor profile first."));
     }
 
@@ -113,129 +120,86 @@ public class DonationController {
     @PostMapping("/donor/{donorId}")
     public ResponseEntity<DonationDTO> createDonation(@PathVariable Long donorId,
                                                        @RequestBody DonationRequestDTO request) {
-        return donorRepository.findById(donorId).map(donor -> {
-            // Find the collection center
-            CollectionCenter center = centerRepository.findById(request.getCollectionCenterId())
-                    .orElseThrow(() -> new RuntimeException("Collection Center not found"));
-
-            // Create donation with PENDING status
-            Donation donation = new Donation();
-            donation.setName(request.getName());
-            donation.setDonor(donor);
-            donation.setCollectionCenter(center);
-            donation.setStatus(DonationStatus.PENDING);
-
-            return ResponseEntity.ok(donationMapper.donationToDonationDTO(donationRepository.save(donation)));
-        }).orElse(ResponseEntity.notFound().build());
+        return donationService.create(donorId, request)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     // Update donation status
     @PutMapping("/{id}/status")
     public ResponseEntity<DonationDTO> updateDonationStatus(@PathVariable Long id, @RequestBody DonationStatus status) {
-        return donationRepository.findById(id).map(donation -> {
-            donation.setStatus(status);
-            return ResponseEntity.ok(donationMapper.donationToDonationDTO(donationRepository.save(donation)));
-        }).orElse(ResponseEntity.notFound().build());
+        return donationService.updateStatus(id, status)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     // ==================== STAFF ENDPOINTS ====================
 
     // Get pending donations for current staff's collection center
     @GetMapping("/center/pending")
-    public ResponseEntity<List<DonationDTO>> getPendingDonationsForMyCenter() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        CollectionCenter center = centerRepository.findByUserUsername(username)
-                .orElseThrow(() -> new RuntimeException("No collection center assigned to this user"));
-
-        List<DonationDTO> pendingDonations = donationRepository
-                .findByCollectionCenterIdAndStatus(center.getId(), DonationStatus.PENDING)
-                .stream()
-                .map(donationMapper::donationToDonationDTO)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(pendingDonations);
+    public ResponseEntity<List<?>> getPendingDonationsForMyCenter(@RequestParam(required = false) String view,
+                                                                  @RequestParam(required = false) String fields) {
+        Long centerId = myCenterId();
+        return ResponseEntity.ok(SparseFields.apply(objectMapper, ListView.parse(view) == ListView.SUMMARY
+                ? donationService.findSummariesByCenterAndStatus(centerId, DonationStatus.PENDING)
+                : donationService.findByCenterAndStatus(centerId, DonationStatus.PENDING), fields));
     }
 
     // Get all donations for current staff's collection center
     @GetMapping("/center/all")
-    public ResponseEntity<List<DonationDTO>> getAllDonationsForMyCenter() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        CollectionCenter center = centerRepository.findByUserUsername(username)
-                .orElseThrow(() -> new RuntimeException("No collection center assigned to this user"));
-
-        List<DonationDTO> donations = donationRepository
-                .findByCollectionCenterId(center.getId())
-                .stream()
-                .map(donationMapper::donationToDonationDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<?>> getAllDonationsForMyCenter(@RequestParam(required = false) String view,
+                                                              @RequestParam(required = false) String fields) {
+        Long centerId = myCenterId();
+        return ResponseEntity.ok(SparseFields.apply(objectMapper, ListView.parse(view) == ListView.SUMMARY
+                ? donationService.findAllSummariesForCenter(centerId)
+                : donationService.findAllForCenter(centerId), fields));
+    }
 
-        return ResponseEntity.ok(donations);
+    // Get one page of donations for current staff's collection center, newest first
+    @GetMapping("/center/all/page")
+    public CursorPage<?> getDonationPageForMyCenter(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                                    @RequestParam(required = false) String view,
+                                                    @RequestParam(required = false) String fields) {
+        Long centerId = myCenterId();
+        return SparseFields.apply(objectMapper, ListView.parse(view) == ListView.SUMMARY
+                ? donationService.findSummaryPageForCenter(centerId, cursor, size)
+                : donationService.findPageForCenter(centerId, cursor, size), fields);
     }
 
-    // Staff accepts a donation - changes status to COLLECTED
+    // Staff accepts a donation - changes status to COLLECTED (409 if the center is full)
     @PutMapping("/{id}/accept")
     public ResponseEntity<DonationDTO> acceptDonation(@PathVariable Long id) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        // Get the staff's collection center
-        CollectionCenter staffCenter = centerRepository.findByUserUsername(username)
-                .orElseThrow(() -> new RuntimeException("No collection center assigned to this user"));
-
-        return donationRepository.findById(id).map(donation -> {
-            // Verify donation belongs to staff's center
-            if (donation.getCollectionCenter() == null ||
-                !donation.getCollectionCenter().getId().equals(staffCenter.getId())) {
-                throw new RuntimeException("Donation does not belong to your collection center");
-            }
-
-            // Verify donation is in PENDING status
-            if (donation.getStatus() != DonationStatus.PENDING) {
-                throw new RuntimeException("Can only accept donations with PENDING status");
-            }
-
-            donation.setStatus(DonationStatus.COLLECTED);
-            return ResponseEntity.ok(donationMapper.donationToDonationDTO(donationRepository.save(donation)));
-        }).orElse(ResponseEntity.notFound().build());
+        return donationService.accept(id, myCenterId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     // Staff rejects a donation
     @PutMapping("/{id}/reject")
     public ResponseEntity<DonationDTO> rejectDonation(@PathVariable Long id) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-
-        // Get the staff's collection center
-        CollectionCenter staffCenter = centerRepository.findByUserUsername(username)
-                .orElseThrow(() -> new RuntimeException("No collection center assigned to this user"));
-
-        return donationRepository.findById(id).map(donation -> {
-            // Verify donation belongs to staff's center
-            if (donation.getCollectionCenter() == null ||
-                !donation.getCollectionCenter().getId().equals(staffCenter.getId())) {
-                throw new RuntimeException("Donation does not belong to your collection center");
-            }
-
-            // Verify donation is in PENDING status
-            if (donation.getStatus() != DonationStatus.PENDING) {
-                throw new RuntimeException("Can only reject donations with PENDING status");
-            }
-
-            donation.setStatus(DonationStatus.REJECTED);
-            return ResponseEntity.ok(donationMapper.donationToDonationDTO(donationRepository.save(donation)));
-        }).orElse(ResponseEntity.notFound().build());
+        return donationService.reject(id, myCenterId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     // Delete donation
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteDonation(@PathVariable Long id) {
-        return donationRepository.findById(id).map(donation -> {
-            donationRepository.delete(donation);
-            return ResponseEntity.ok().<Void>build();
-        }).orElse(ResponseEntity.notFound().build());
+        return donationService.delete(id)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private List<?> donorDonations(Long donorId, String view, String fields) {
+        return SparseFields.apply(objectMapper, ListView.parse(view) == ListView.SUMMARY
+                ? donationService.findSummariesByDonor(donorId)
+                : donationService.findByDonor(donorId), fields);
+    }
+
+    // The staff member's collection center, taken from their token
+    private Long myCenterId() {
+        return currentActor.centerId()
+                .orElseThrow(() -> new RuntimeException("No collection center assigned to this user"));
     }
 }
@@ -0,0 +1,25 @@
+package donation.example.donation.system.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Shape of the rows a list endpoint returns, chosen with {@code ?view=}.
+ * FULL keeps the nested DTOs the endpoints always returned; SUMMARY serves flat projection rows.
+ */
+enum ListView {
+    SUMMARY,
+    FULL;
+
+    static ListView parse(String view) {
+        if (view == null || view.isBlank()) {
+            return FULL;
+        }
+        for (ListView value : values()) {
+            if (value.name().equalsIgnoreCase(view.trim())) {
+                return value;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "view must be summary or full");
+    }
+}
@@ -0,0 +1,47 @@
+package donation.example.donation.system.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import donation.example.donation.system.dto.CursorPage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies {@code ?fields=id,name,...} to list responses by keeping only the named top-level
+ * properties of each row. Without the parameter the rows are returned untouched.
+ */
+final class SparseFields {
+
+    private SparseFields() {
+    }
+
+    static List<?> apply(ObjectMapper objectMapper, List<?> rows, String fields) {
+        Set<String> keep = parse(fields);
+        if (keep.isEmpty()) {
+            return rows;
+        }
+        return rows.stream()
+                .map(row -> objectMapper.<ObjectNode>valueToTree(row).retain(keep))
+                .collect(Collectors.toList());
+    }
+
+    static CursorPage<?> apply(ObjectMapper objectMapper, CursorPage<?> page, String fields) {
+        if (parse(fields).isEmpty()) {
+            return page;
+        }
+        return new CursorPage<>(apply(objectMapper, page.getItems(), fields), page.getNextCursor(), page.isHasMore());
+    }
+
+    private static Set<String> parse(String fields) {
+        if (fields == null) {
+            return Set.of();
+        }
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+    }
+}
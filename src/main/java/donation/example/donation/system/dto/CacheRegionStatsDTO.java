@@ -0,0 +1,17 @@
+package donation.example.donation.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long entries;         // -1 if the provider does not report it
+    private double hitRatio;
+}
@@ -0,0 +1,16 @@
+package donation.example.donation.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;  // Pass back as ?cursor= to fetch the next page, null on the last page
+    private boolean hasMore;
+}
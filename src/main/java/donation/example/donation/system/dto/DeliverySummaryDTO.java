@@ -0,0 +1,26 @@
+package donation.example.donation.system.dto;
+
+import donation.example.donation.system.type.DeliveryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Delivery list row for view=summary: who and what, without contact details, notes or the
+ * pickup/delivery timestamps. Built by a constructor projection in DeliveryRepository.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliverySummaryDTO {
+    private Long id;
+    private DeliveryStatus status;
+    private Long donationId;
+    private String donationName;
+    private String fromCenterName;
+    private String driverName;
+    private String recipientName;
+    private LocalDateTime createdAt;
+}
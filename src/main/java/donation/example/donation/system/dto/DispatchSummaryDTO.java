@@ -0,0 +1,16 @@
+package donation.example.donation.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchSummaryDTO {
+    private int assigned;
+    private int unassigned;       // Left COLLECTED, e.g. no idle driver at their center
+    private List<Long> deliveryIds;
+}
@@ -15,6 +15,8 @@ public class DonationDTO {
     private String name;
     private LocalDateTime donationDate;
     private String status;
+    private Long deliveryId;         // null until a delivery is created
+    private String deliveryStatus;
     private DonorDTO donor;
     private CollectionCenterDTO collectionCenter;
     private List<DonationItemDTO> donationItems;
@@ -0,0 +1,29 @@
+package donation.example.donation.system.dto;
+
+import donation.example.donation.system.type.DeliveryStatus;
+import donation.example.donation.system.type.DonationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Donation list row for view=summary: donor and center reduced to id and name, no items.
+ * Built by a constructor projection in DonationRepository, so only these columns are selected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DonationSummaryDTO {
+    private Long id;
+    private String name;
+    private LocalDateTime donationDate;
+    private DonationStatus status;
+    private Long donorId;
+    private String donorName;
+    private Long collectionCenterId;
+    private String collectionCenterName;
+    private Long deliveryId;
+    private DeliveryStatus deliveryStatus;
+}
@@ -0,0 +1,34 @@
+package donation.example.donation.system.dto.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiCacheStats {
+    private long memoryHits;
+    private long databaseHits;
+    private long similarHits;      // Served from a near-duplicate item list
+    private long geminiCalls;      // Misses in every tier
+    private double hitRatio;
+    private double similarHitRatio;  // Of the lookups that reached the near-duplicate tier
+    private int memoryEntries;
+    private long memoryEvictions;  // LRU overflow plus expired entries
+    private int similarEntries;
+    private double similarCandidatesPerLookup;  // Stored lists compared exactly after LSH bucketing
+
+    // Request latency by where the answer came from, over recent requests
+    private double memoryP50Ms;
+    private double databaseP50Ms;
+    private double similarP50Ms;
+
+    // Cost of the near-duplicate lookup itself, hit or miss
+    private double similarLookupP50Ms;
+    private double similarLookupP99Ms;
+
+    private double geminiP50Ms;
+    private double geminiP95Ms;
+    private double overallP50Ms;
+}
@@ -0,0 +1,18 @@
+package donation.example.donation.system.dto.ai;
+
+import donation.example.donation.system.type.AiContentType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiContentStatus {
+    private Long donationId;
+    private Set<AiContentType> contentTypes;                  // Types saved for this donation
+    private Map<AiContentType, SavedContentResponse> content; // Only when includeContent was requested
+}
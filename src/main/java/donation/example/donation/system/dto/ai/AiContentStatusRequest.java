@@ -0,0 +1,15 @@
+package donation.example.donation.system.dto.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiContentStatusRequest {
+    private List<Long> donationIds;
+    private boolean includeContent;
+}
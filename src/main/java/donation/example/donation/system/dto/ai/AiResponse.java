@@ -4,6 +4,8 @@ public class AiResponse {
     private String content;
     private boolean success;
     private String error;
+    // Content came from a local template because Gemini was unavailable; it is not saved
+    private boolean fallback;
 
     public AiResponse() {}
 
@@ -26,6 +28,12 @@ public class AiResponse {
         return new AiResponse(null, false, error);
     }
 
+    public static AiResponse fallback(String content) {
+        AiResponse response = new AiResponse(content, true);
+        response.setFallback(true);
+        return response;
+    }
+
     public String getContent() {
         return content;
     }
@@ -49,4 +57,12 @@ public class AiResponse {
     public void setError(String error) {
         this.error = error;
     }
+
+    public boolean isFallback() {
+        return fallback;
+    }
+
+    public void setFallback(boolean fallback) {
+        this.fallback = fallback;
+    }
 }
@@ -0,0 +1,18 @@
+package donation.example.donation.system.dto.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiUpstreamStats {
+    private String breakerState;      // CLOSED, OPEN or HALF_OPEN
+    private int failureRatePercent;   // Over the breaker's rolling window
+    private long successfulCalls;
+    private double p50Millis;         // Over recent successful calls
+    private double p99Millis;
+    private long hedgeDelayMillis;    // Current wait before a hedged request is sent
+    private long hedgesSent;
+}
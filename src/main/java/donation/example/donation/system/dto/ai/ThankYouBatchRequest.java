@@ -0,0 +1,14 @@
+package donation.example.donation.system.dto.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThankYouBatchRequest {
+    private List<Long> donationIds;
+}
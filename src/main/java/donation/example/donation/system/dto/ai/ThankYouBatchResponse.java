@@ -0,0 +1,18 @@
+package donation.example.donation.system.dto.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThankYouBatchResponse {
+    private int generated;  // New messages saved by this run
+    private int existing;   // Donations that already had a message, returned unchanged
+    private int fallback;   // Gemini unavailable: rendered from the local template and not saved
+    private int failed;
+    private List<ThankYouBatchResult> results;
+}
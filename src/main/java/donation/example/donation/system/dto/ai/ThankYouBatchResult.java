@@ -0,0 +1,16 @@
+package donation.example.donation.system.dto.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThankYouBatchResult {
+    private Long donationId;
+    private boolean success;
+    private String content;
+    private String error;
+    private boolean fallback;  // Rendered from the local template, not saved
+}
@@ -0,0 +1,17 @@
+package donation.example.donation.system.event;
+
+import donation.example.donation.system.type.DonationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a donation moves to a new status. Listeners should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+@Getter
+@AllArgsConstructor
+public class DonationStatusChangedEvent {
+    private final Long donationId;
+    private final Long centerId;
+    private final DonationStatus status;
+}
@@ -0,0 +1,15 @@
+package donation.example.donation.system.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a driver becomes available for dispatch at a center. The driver pool picks it
+ * up after commit, so a rolled-back change never offers the driver.
+ */
+@Getter
+@AllArgsConstructor
+public class DriverAvailableEvent {
+    private final Long centerId;
+    private final Long driverId;
+}
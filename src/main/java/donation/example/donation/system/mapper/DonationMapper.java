@@ -12,6 +12,8 @@ public interface DonationMapper {
     DonationDTO donationToDonationDTO(Donation donation);
 
     @Mapping(target = "donationItems", ignore = true)
-    @Mapping(target = "delivery", ignore = true)
+    @Mapping(target = "deliveryId", ignore = true)
+    @Mapping(target = "deliveryStatus", ignore = true)
+    @Mapping(target = "reservedUnits", ignore = true)
     Donation donationDTOtoDonation(DonationDTO donationDTO);
 }
@@ -0,0 +1,31 @@
+package donation.example.donation.system.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the AI generation cache, keyed by the SHA-256 of prompt, items and model settings.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "ai_cache_entry")
+public class AiCacheEntry {
+
+    @Id
+    @Column(length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false)
+    private String promptName;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String content;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "ai_generated_content")
+// One generation per donation and type, even when several nodes race to create it
+@Table(name = "ai_generated_content",
+       uniqueConstraints = @UniqueConstraint(name = "uk_ai_content_donation_type",
+                                         columnNames = {"donation_id", "content_type"}))
 public class AiGeneratedContent {
 
     @Id
@@ -26,7 +29,16 @@ public class AiGeneratedContent {
     @Column(nullable = false)
     private AiContentType contentType;
 
-    @Column(columnDefinition = "TEXT", nullable = false)
+    // SHA-256 of the body in content_blob; donations with identical text share one blob
+    @Column(length = 64)
+    private String contentHash;
+
+    // Body of rows saved before content moved to content_blob, null for newer rows
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String legacyContent;
+
+    // Resolved body, filled in by AiContentService when the row is read
+    @Transient
     private String content;
 
     // For thank you messages - the donor who should see it
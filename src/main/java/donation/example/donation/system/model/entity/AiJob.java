@@ -0,0 +1,55 @@
+package donation.example.donation.system.model.entity;
+
+import donation.example.donation.system.type.AiContentType;
+import donation.example.donation.system.type.AiJobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queued background generation of one piece of AI content for a donation. Workers on any node
+ * claim due rows with FOR UPDATE SKIP LOCKED and hold them for a lease while Gemini runs.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "ai_job",
+       uniqueConstraints = @UniqueConstraint(name = "uk_ai_job_donation_type",
+                                         columnNames = {"donation_id", "content_type"}),
+       indexes = @Index(name = "idx_ai_job_status_run_after", columnList = "status, run_after"))
+public class AiJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long donationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AiContentType contentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AiJobStatus status = AiJobStatus.PENDING;
+
+    private int attempts;
+
+    // Not picked up before this time; pushed back after each failed attempt
+    @Column(nullable = false)
+    private LocalDateTime runAfter = LocalDateTime.now();
+
+    // A RUNNING job whose lease has passed is assumed abandoned and claimed again
+    private LocalDateTime lockedUntil;
+
+    private String lastError;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime completedAt;
+}
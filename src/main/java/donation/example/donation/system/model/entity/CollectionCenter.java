@@ -3,6 +3,9 @@ package donation.example.donation.system.model.entity;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -10,7 +13,13 @@ import lombok.AllArgsConstructor;
 import java.util.ArrayList;
 import java.util.List;
 
+// currentLoad is maintained by CapacityService's conditional updates; @DynamicUpdate writes
+// only dirty columns so profile edits never overwrite it with a stale value. Those bulk
+// updates also evict the cached centers, so a cached load is never older than the last one.
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "collection-center")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
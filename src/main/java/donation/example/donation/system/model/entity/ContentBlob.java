@@ -0,0 +1,32 @@
+package donation.example.donation.system.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable body of generated content, stored once per distinct text and keyed by its SHA-256.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "content_blob")
+public class ContentBlob {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    // zlib-deflated UTF-8; most bodies are below the size at which Postgres would compress them itself
+    @Column(nullable = false, length = 1 << 20)
+    private byte[] body;
+
+    @Column(nullable = false)
+    private int originalSize;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -3,8 +3,10 @@ package donation.example.donation.system.model.entity;
 import com.fasterxml.jackson.annotation.JsonBackReference; // Import this
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import donation.example.donation.system.type.DeliveryStatus;
 import donation.example.donation.system.type.DonationStatus;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -14,6 +16,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,6 +28,8 @@ public class Donation {
 
     private String name;
 
+    // Never null: keyset pages compare on it, see DonationRepository#findPage
+    @Column(nullable = false)
     private LocalDateTime donationDate = LocalDateTime.now();
 
     @Enumerated(EnumType.STRING)
@@ -40,8 +45,17 @@ public class Donation {
     @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
     private CollectionCenter collectionCenter;
 
-    @OneToOne(mappedBy = "donation", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Delivery delivery;
+    // Capacity units currently held at the collection center for this donation.
+    // Written only by CapacityService bulk updates; @DynamicUpdate keeps status saves from resetting it.
+    private Integer reservedUnits = 0;
+
+    // Copied from the donation's delivery by DeliveryLifecycleService. Mapping the inverse
+    // @OneToOne instead cost one delivery select per loaded donation, since Hibernate cannot
+    // proxy the side without the foreign key.
+    private Long deliveryId;
+
+    @Enumerated(EnumType.STRING)
+    private DeliveryStatus deliveryStatus;
 
     @OneToMany(mappedBy = "donation", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<DonationItem> donationItems = new ArrayList<>();
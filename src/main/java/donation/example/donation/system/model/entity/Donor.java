@@ -2,6 +2,8 @@ package donation.example.donation.system.model.entity;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference; // Import this
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -10,6 +12,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "donor")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
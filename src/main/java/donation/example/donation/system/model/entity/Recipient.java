@@ -2,6 +2,8 @@ package donation.example.donation.system.model.entity;
 
 import donation.example.donation.system.type.RecipientType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +12,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipient")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
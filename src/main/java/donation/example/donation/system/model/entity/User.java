@@ -30,11 +30,9 @@ public class User {
     @Enumerated(EnumType.STRING)
     private Set<Role> roles = new HashSet<>();
 
-    @OneToOne(mappedBy = "user")
-    private Donor donor;
-
-    @OneToOne(mappedBy = "user")
-    private CollectionCenter collectionCenter;
+    // No inverse mappings to the donor/center profiles: like Donation.delivery they would be
+    // loaded with a select of their own for every user. UserRepository#findActorProfiles reads
+    // the profile ids instead.
 
     public User(String username, String email, String password) {
         this.username = username;
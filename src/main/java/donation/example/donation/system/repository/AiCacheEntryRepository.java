@@ -0,0 +1,18 @@
+package donation.example.donation.system.repository;
+
+import donation.example.donation.system.model.entity.AiCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AiCacheEntryRepository extends JpaRepository<AiCacheEntry, String> {
+
+    // Entries older than the persistent TTL are treated as absent and overwritten on the next miss
+    @Query("SELECT e.content FROM AiCacheEntry e WHERE e.cacheKey = :key AND e.createdAt > :since")
+    Optional<String> findContent(@Param("key") String key, @Param("since") LocalDateTime since);
+}
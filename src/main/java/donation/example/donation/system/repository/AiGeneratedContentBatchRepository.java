@@ -0,0 +1,14 @@
+package donation.example.donation.system.repository;
+
+import donation.example.donation.system.model.entity.AiGeneratedContent;
+
+import java.util.List;
+
+public interface AiGeneratedContentBatchRepository {
+
+    /**
+     * Inserts the rows in one JDBC batch, skipping any donation and type that already has content.
+     * Returns the donation ids that were actually inserted. Bodies must already be in content_blob.
+     */
+    List<Long> insertMissing(List<AiGeneratedContent> contents);
+}
@@ -0,0 +1,61 @@
+package donation.example.donation.system.repository;
+
+import donation.example.donation.system.model.entity.AiGeneratedContent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain JDBC so the rows go out as a single batch; Hibernate cannot batch inserts of
+ * IDENTITY-keyed entities.
+ */
+class AiGeneratedContentBatchRepositoryImpl implements AiGeneratedContentBatchRepository {
+
+    // The NOT EXISTS guard skips rows saved earlier; a row inserted concurrently is still
+    // rejected by uk_ai_content_donation_type. The timestamp is cast because a bare parameter
+    // in a select list is otherwise typed as text on Postgres.
+    private static final String INSERT_MISSING =
+            "INSERT INTO ai_generated_content (donation_id, content_type, content_hash, recipient_user_id, " +
+            "generated_by_user_id, generated_by_username, center_name, generated_at, donation_name) " +
+            "SELECT ?, ?, ?, ?, ?, ?, ?, CAST(? AS TIMESTAMP), ? WHERE NOT EXISTS " +
+            "(SELECT 1 FROM ai_generated_content WHERE donation_id = ? AND content_type = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    AiGeneratedContentBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> insertMissing(List<AiGeneratedContent> contents) {
+        if (contents.isEmpty()) {
+            return List.of();
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_MISSING, contents, contents.size(), (ps, c) -> {
+            ps.setLong(1, c.getDonationId());
+            ps.setString(2, c.getContentType().name());
+            ps.setString(3, c.getContentHash());
+            ps.setObject(4, c.getRecipientUserId(), Types.BIGINT);
+            ps.setObject(5, c.getGeneratedByUserId(), Types.BIGINT);
+            ps.setString(6, c.getGeneratedByUsername());
+            ps.setString(7, c.getCenterName());
+            ps.setTimestamp(8, Timestamp.valueOf(c.getGeneratedAt()));
+            ps.setString(9, c.getDonationName());
+            ps.setLong(10, c.getDonationId());
+            ps.setString(11, c.getContentType().name());
+        });
+
+        List<Long> inserted = new ArrayList<>(contents.size());
+        int[] rows = counts[0];
+        for (int i = 0; i < rows.length; i++) {
+            // Some drivers only report SUCCESS_NO_INFO (-2) for batched statements
+            if (rows[i] != 0) {
+                inserted.add(contents.get(i).getDonationId());
+            }
+        }
+        return inserted;
+    }
+}
@@ -1,22 +1,37 @@
 package donation.example.donation.system.repository;
 
 import donation.example.donation.system.model.entity.AiGeneratedContent;
+import donation.example.donation.system.service.ai.AiContentKey;
 import donation.example.donation.system.type.AiContentType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AiGeneratedContentRepository extends JpaRepository<AiGeneratedContent, Long> {
+public interface AiGeneratedContentRepository extends JpaRepository<AiGeneratedContent, Long>,
+        AiGeneratedContentBatchRepository {
 
     // Find content by donation and type
     Optional<AiGeneratedContent> findByDonationIdAndContentType(Long donationId, AiContentType contentType);
 
+    List<AiGeneratedContent> findByDonationIdInAndContentType(Collection<Long> donationIds, AiContentType contentType);
+
     // Find all content for a donation
     List<AiGeneratedContent> findByDonationId(Long donationId);
 
+    // Bulk status for a list page; both use the (donation_id, content_type) unique index
+
+    List<AiGeneratedContent> findByDonationIdIn(Collection<Long> donationIds);
+
+    @Query("SELECT new donation.example.donation.system.service.ai.AiContentKey(c.donationId, c.contentType) " +
+           "FROM AiGeneratedContent c WHERE c.donationId IN :ids")
+    List<AiContentKey> findKeysByDonationIdIn(@Param("ids") Collection<Long> donationIds);
+
     // Find thank you messages for a specific donor (recipient)
     List<AiGeneratedContent> findByRecipientUserIdAndContentTypeOrderByGeneratedAtDesc(
             Long recipientUserId, AiContentType contentType);
@@ -0,0 +1,54 @@
+package donation.example.donation.system.repository;
+
+import donation.example.donation.system.model.entity.AiJob;
+import donation.example.donation.system.type.AiJobStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AiJobRepository extends JpaRepository<AiJob, Long> {
+
+    // At most one job per donation and content type; returns 0 if it was already queued.
+    // Native writes evict every second-level cache region unless told which table they touch.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ai_job"))
+    @Query(value = "INSERT INTO ai_job (donation_id, content_type, status, attempts, run_after, created_at) " +
+                   "SELECT :donationId, :contentType, 'PENDING', 0, :now, :now WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM ai_job WHERE donation_id = :donationId AND content_type = :contentType)",
+           nativeQuery = true)
+    int enqueue(@Param("donationId") Long donationId, @Param("contentType") String contentType,
+                @Param("now") LocalDateTime now);
+
+    // Due jobs plus RUNNING ones whose lease ran out. Rows locked by another worker's claim are
+    // skipped rather than waited on, so concurrent claims never block or overlap.
+    @Query(value = "SELECT * FROM ai_job " +
+                   "WHERE (status = 'PENDING' AND run_after <= :now) OR (status = 'RUNNING' AND locked_until < :now) " +
+                   "ORDER BY run_after, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<AiJob> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Both updates only apply for the latest claim, so a worker that overran its lease cannot
+    // overwrite the outcome of the worker that took the job over
+
+    @Modifying
+    @Query("UPDATE AiJob j SET j.status = :status, j.completedAt = :now, j.lockedUntil = NULL, j.lastError = :error " +
+           "WHERE j.id = :id AND j.attempts = :attempt")
+    int finish(@Param("id") Long id, @Param("attempt") int attempt, @Param("status") AiJobStatus status,
+               @Param("error") String error, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE AiJob j SET j.status = donation.example.donation.system.type.AiJobStatus.PENDING, " +
+           "j.runAfter = :runAfter, j.lockedUntil = NULL, j.lastError = :error " +
+           "WHERE j.id = :id AND j.attempts = :attempt")
+    int reschedule(@Param("id") Long id, @Param("attempt") int attempt,
+                   @Param("runAfter") LocalDateTime runAfter, @Param("error") String error);
+}
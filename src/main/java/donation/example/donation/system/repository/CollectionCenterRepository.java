@@ -2,10 +2,27 @@ package donation.example.donation.system.repository;
 
 import donation.example.donation.system.model.entity.CollectionCenter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface CollectionCenterRepository extends JpaRepository<CollectionCenter, Long> {
     Optional<CollectionCenter> findByUserId(Long userId);
     Optional<CollectionCenter> findByUserUsername(String username);
+
+    // Atomic check-and-add: updates nothing when the center would go over maxCapacity
+    // (a null maxCapacity means the center is unbounded)
+    @Modifying
+    @Query("UPDATE CollectionCenter c SET c.currentLoad = COALESCE(c.currentLoad, 0) + :units " +
+           "WHERE c.id = :centerId " +
+           "AND (c.maxCapacity IS NULL OR COALESCE(c.currentLoad, 0) + :units <= c.maxCapacity)")
+    int tryReserve(@Param("centerId") Long centerId, @Param("units") int units);
+
+    @Modifying
+    @Query("UPDATE CollectionCenter c SET c.currentLoad = " +
+           "CASE WHEN COALESCE(c.currentLoad, 0) > :units THEN COALESCE(c.currentLoad, 0) - :units ELSE 0 END " +
+           "WHERE c.id = :centerId")
+    int release(@Param("centerId") Long centerId, @Param("units") int units);
 }
@@ -0,0 +1,13 @@
+package donation.example.donation.system.repository;
+
+import donation.example.donation.system.model.entity.ContentBlob;
+
+import java.util.List;
+
+public interface ContentBlobBatchRepository {
+
+    /**
+     * Inserts the blobs in one JDBC batch, skipping hashes that are already stored.
+     */
+    void insertMissing(List<ContentBlob> blobs);
+}
@@ -0,0 +1,37 @@
+package donation.example.donation.system.repository;
+
+import donation.example.donation.system.model.entity.ContentBlob;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+class ContentBlobBatchRepositoryImpl implements ContentBlobBatchRepository {
+
+    // Same guarded insert as AiGeneratedContentBatchRepositoryImpl; a blob written concurrently
+    // still trips the primary key
+    private static final String INSERT_MISSING =
+            "INSERT INTO content_blob (hash, body, original_size, created_at) " +
+            "SELECT ?, ?, ?, CAST(? AS TIMESTAMP) WHERE NOT EXISTS " +
+            "(SELECT 1 FROM content_blob WHERE hash = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ContentBlobBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertMissing(List<ContentBlob> blobs) {
+        if (blobs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_MISSING, blobs, blobs.size(), (ps, blob) -> {
+            ps.setString(1, blob.getHash());
+            ps.setBytes(2, blob.getBody());
+            ps.setInt(3, blob.getOriginalSize());
+            ps.setTimestamp(4, Timestamp.valueOf(blob.getCreatedAt()));
+            ps.setString(5, blob.getHash());
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package donation.example.donation.system.repository;
+
+import donation.example.donation.system.model.entity.ContentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String>, ContentBlobBatchRepository {
+}
@@ -1,7 +1,14 @@
 package donation.example.donation.system.repository;
 
 import donation.example.donation.system.model.entity.DeliveryPartner;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,7 +17,44 @@ import java.util.Optional;
 @Repository
 public interface DeliveryPartnerRepository extends JpaRepository<DeliveryPartner, Long> {
     Optional<DeliveryPartner> findByUserUsername(String username);
-    List<DeliveryPartner> findByCollectionCenterId(Long centerId);
+    Optional<DeliveryPartner> findByUserId(Long userId);
     List<DeliveryPartner> findByIsAvailableTrue();
+
+    // Fetch plans for DriverService: center and user come with the driver
+
+    @EntityGraph(attributePaths = {"collectionCenter", "user"})
+    @Query("SELECT p FROM DeliveryPartner p ORDER BY p.id")
+    List<DeliveryPartner> findAllDetailed();
+
+    @EntityGraph(attributePaths = {"collectionCenter", "user"})
+    @Query("SELECT p FROM DeliveryPartner p WHERE p.id = :id")
+    Optional<DeliveryPartner> findDetailedById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"collectionCenter", "user"})
+    List<DeliveryPartner> findByCollectionCenterId(Long centerId);
+
+    // Query-cached like the active recipients; claims and availability changes invalidate it
+    @EntityGraph(attributePaths = {"collectionCenter", "user"})
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     List<DeliveryPartner> findByCollectionCenterIdAndIsAvailableTrue(Long centerId);
+
+    @Query("SELECT p.id FROM DeliveryPartner p WHERE p.collectionCenter.id = :centerId AND p.isAvailable = true " +
+           "ORDER BY p.id")
+    List<Long> findAvailableIdsByCenterId(@Param("centerId") Long centerId);
+
+    @Modifying
+    @Query("UPDATE DeliveryPartner p SET p.isAvailable = :available WHERE p.id = :id")
+    int updateAvailability(@Param("id") Long id, @Param("available") boolean available);
+
+    // Takes an available driver off duty; 0 rows means someone else got them first
+
+    @Modifying
+    @Query("UPDATE DeliveryPartner p SET p.isAvailable = false WHERE p.id = :id AND p.isAvailable = true")
+    int claim(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE DeliveryPartner p SET p.isAvailable = false " +
+           "WHERE p.id = :id AND p.isAvailable = true AND p.collectionCenter.id = :centerId")
+    int claimAtCenter(@Param("id") Long id, @Param("centerId") Long centerId);
 }
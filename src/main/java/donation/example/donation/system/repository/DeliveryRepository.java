@@ -1,19 +1,114 @@
 package donation.example.donation.system.repository;
 
+import donation.example.donation.system.dto.DeliveryDTO;
+import donation.example.donation.system.dto.DeliverySummaryDTO;
 import donation.example.donation.system.model.entity.Delivery;
+import donation.example.donation.system.service.delivery.DeliveryRefs;
 import donation.example.donation.system.type.DeliveryStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
-    List<Delivery> findByDriverId(Long driverId);
-    List<Delivery> findByDriverIdAndStatus(Long driverId, DeliveryStatus status);
-    List<Delivery> findByFromCenterId(Long centerId);
+
+    // The delivery with the donation, center, driver and recipient it names, aliased dn, c, dr and r
+    String JOINED = "FROM Delivery d LEFT JOIN d.donation dn LEFT JOIN d.fromCenter c " +
+                    "LEFT JOIN d.driver dr LEFT JOIN d.recipient r ";
+
+    // Select list of DeliveryDTO; the columns DeliveryMapper.toDTO would read from the entities
+    String DETAIL = "SELECT new donation.example.donation.system.dto.DeliveryDTO(" +
+                    "d.id, dn.id, dn.name, c.id, c.name, dr.id, dr.name, dr.phone, r.id, r.name, r.address, " +
+                    "d.status, d.notes, d.createdAt, d.scheduledPickupTime, d.actualPickupTime, d.deliveredTime) " +
+                    JOINED;
+
+    // Select list of the view=summary rows
+    String SUMMARY = "SELECT new donation.example.donation.system.dto.DeliverySummaryDTO(" +
+                     "d.id, d.status, dn.id, dn.name, c.name, dr.name, r.name, d.createdAt) " +
+                     JOINED;
+
+    // DeliveryDTO rows projected in one select, no entities or associations loaded
+
+    @Query(DETAIL + "ORDER BY d.id")
+    List<DeliveryDTO> findAllDTOs();
+
+    @Query(DETAIL + "WHERE d.id = :id")
+    Optional<DeliveryDTO> findDTOById(@Param("id") Long id);
+
+    @Query(DETAIL + "WHERE dr.id = :driverId ORDER BY d.id")
+    List<DeliveryDTO> findDTOsByDriverId(@Param("driverId") Long driverId);
+
+    @Query(DETAIL + "WHERE dr.id = :driverId AND d.status = :status ORDER BY d.id")
+    List<DeliveryDTO> findDTOsByDriverIdAndStatus(@Param("driverId") Long driverId,
+                                                 @Param("status") DeliveryStatus status);
+
+    @Query(DETAIL + "WHERE c.id = :centerId ORDER BY d.id")
+    List<DeliveryDTO> findDTOsByFromCenterId(@Param("centerId") Long centerId);
+
+    // view=summary counterparts of the lists above
+
+    @Query(SUMMARY + "ORDER BY d.id")
+    List<DeliverySummaryDTO> findAllSummaries();
+
+    @Query(SUMMARY + "WHERE dr.id = :driverId ORDER BY d.id")
+    List<DeliverySummaryDTO> findSummariesByDriverId(@Param("driverId") Long driverId);
+
+    @Query(SUMMARY + "WHERE dr.id = :driverId AND d.status = :status ORDER BY d.id")
+    List<DeliverySummaryDTO> findSummariesByDriverIdAndStatus(@Param("driverId") Long driverId,
+                                                              @Param("status") DeliveryStatus status);
+
+    @Query(SUMMARY + "WHERE c.id = :centerId ORDER BY d.id")
+    List<DeliverySummaryDTO> findSummariesByFromCenterId(@Param("centerId") Long centerId);
+
     List<Delivery> findByRecipientId(Long recipientId);
     List<Delivery> findByStatus(DeliveryStatus status);
     Optional<Delivery> findByDonationId(Long donationId);
-}
\ No newline at end of file
+
+    // Full export cursor; must be consumed inside a transaction so the JDBC fetch size applies
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT d FROM Delivery d JOIN FETCH d.donation JOIN FETCH d.fromCenter " +
+           "LEFT JOIN FETCH d.driver LEFT JOIN FETCH d.recipient " +
+           "ORDER BY d.id")
+    Stream<Delivery> streamAllForExport();
+
+    // Lifecycle transitions guarded on the current status; 0 rows means the delivery is missing
+    // or another request moved it first. See DeliveryLifecycleService.
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Delivery d SET d.status = :to WHERE d.id = :id AND d.status IN :from")
+    int transition(@Param("id") Long id, @Param("from") Collection<DeliveryStatus> from,
+                   @Param("to") DeliveryStatus to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Delivery d SET d.status = :to, d.actualPickupTime = :at WHERE d.id = :id AND d.status IN :from")
+    int transitionPickedUp(@Param("id") Long id, @Param("from") Collection<DeliveryStatus> from,
+                           @Param("to") DeliveryStatus to, @Param("at") LocalDateTime at);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Delivery d SET d.status = :to, d.deliveredTime = :at WHERE d.id = :id AND d.status IN :from")
+    int transitionDelivered(@Param("id") Long id, @Param("from") Collection<DeliveryStatus> from,
+                            @Param("to") DeliveryStatus to, @Param("at") LocalDateTime at);
+
+    @Query("SELECT d.id FROM Delivery d WHERE d.donation.id = :donationId")
+    Optional<Long> findIdByDonationId(@Param("donationId") Long donationId);
+
+    @Query("SELECT d.status FROM Delivery d WHERE d.id = :id")
+    DeliveryStatus findStatusById(@Param("id") Long id);
+
+    @Query("SELECT new donation.example.donation.system.service.delivery.DeliveryRefs(" +
+           "d.donation.id, d.fromCenter.id, dr.id, dc.id) " +
+           "FROM Delivery d LEFT JOIN d.driver dr LEFT JOIN dr.collectionCenter dc WHERE d.id = :id")
+    Optional<DeliveryRefs> findRefsById(@Param("id") Long id);
+}
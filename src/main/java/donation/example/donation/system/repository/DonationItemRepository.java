@@ -3,9 +3,11 @@ package donation.example.donation.system.repository;
 import donation.example.donation.system.model.entity.DonationItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DonationItemRepository extends JpaRepository<DonationItem, Long> {
     List<DonationItem> findByCollectionCenterId(Long centerId);
     List<DonationItem> findByDonationId(Long donationId);
+    List<DonationItem> findByDonationIdIn(Collection<Long> donationIds);
 }
\ No newline at end of file
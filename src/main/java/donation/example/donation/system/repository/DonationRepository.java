@@ -1,16 +1,175 @@
 package donation.example.donation.system.repository;
 
+import donation.example.donation.system.dto.DonationSummaryDTO;
+import donation.example.donation.system.model.entity.CollectionCenter;
 import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.service.ai.AiDonationDetails;
+import donation.example.donation.system.service.ai.ThankYouCandidate;
+import donation.example.donation.system.service.dispatch.DispatchCandidate;
+import donation.example.donation.system.type.DeliveryStatus;
 import donation.example.donation.system.type.DonationStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DonationRepository extends JpaRepository<Donation, Long> {
-    List<Donation> findByStatus(DonationStatus status);
+
+    // Select list of the view=summary rows: donation columns plus donor and center names
+    String SUMMARY = "SELECT new donation.example.donation.system.dto.DonationSummaryDTO(" +
+                     "d.id, d.name, d.donationDate, d.status, dn.id, dn.name, c.id, c.name, " +
+                     "d.deliveryId, d.deliveryStatus) " +
+                     "FROM Donation d LEFT JOIN d.donor dn LEFT JOIN d.collectionCenter c ";
+
+    // Fetch plans for DonationService: the to-one associations its DTOs need come in the same
+    // select, so mapping never depends on a session outliving the transaction
+
+    @EntityGraph(attributePaths = {"donor", "donor.user", "collectionCenter", "collectionCenter.user"})
+    @Query("SELECT d FROM Donation d WHERE d.id = :id")
+    Optional<Donation> findDetailedById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"donor", "donor.user", "collectionCenter", "collectionCenter.user"})
     List<Donation> findByDonorId(Long donorId);
+
+    @EntityGraph(attributePaths = {"donor", "donor.user", "collectionCenter", "collectionCenter.user"})
     List<Donation> findByCollectionCenterIdAndStatus(Long centerId, DonationStatus status);
-    List<Donation> findByCollectionCenterId(Long centerId);
+
+    // Keyset pages ordered by (donationDate DESC, id DESC). The entity graph pulls the
+    // to-one associations in the same select; donationItems are batch-fetched per page.
+
+    @EntityGraph(attributePaths = {"donor", "donor.user", "collectionCenter", "collectionCenter.user"})
+    @Query("SELECT d FROM Donation d " +
+           "WHERE d.donationDate < :date OR (d.donationDate = :date AND d.id < :id) " +
+           "ORDER BY d.donationDate DESC, d.id DESC")
+    List<Donation> findPage(@Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
+
+    @EntityGraph(attributePaths = {"donor", "donor.user", "collectionCenter", "collectionCenter.user"})
+    @Query("SELECT d FROM Donation d WHERE d.status = :status " +
+           "AND (d.donationDate < :date OR (d.donationDate = :date AND d.id < :id)) " +
+           "ORDER BY d.donationDate DESC, d.id DESC")
+    List<Donation> findPageByStatus(@Param("status") DonationStatus status,
+                                    @Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
+
+    @EntityGraph(attributePaths = {"donor", "donor.user", "collectionCenter", "collectionCenter.user"})
+    @Query("SELECT d FROM Donation d WHERE d.collectionCenter.id = :centerId " +
+           "AND (d.donationDate < :date OR (d.donationDate = :date AND d.id < :id)) " +
+           "ORDER BY d.donationDate DESC, d.id DESC")
+    List<Donation> findPageByCollectionCenterId(@Param("centerId") Long centerId,
+                                                @Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
+
+    // Same lists and keyset order as above for view=summary, one select per page and no items
+
+    @Query(SUMMARY + "WHERE dn.id = :donorId ORDER BY d.donationDate DESC, d.id DESC")
+    List<DonationSummaryDTO> findSummariesByDonorId(@Param("donorId") Long donorId);
+
+    @Query(SUMMARY + "WHERE c.id = :centerId AND d.status = :status ORDER BY d.donationDate DESC, d.id DESC")
+    List<DonationSummaryDTO> findSummariesByCollectionCenterIdAndStatus(@Param("centerId") Long centerId,
+                                                                        @Param("status") DonationStatus status);
+
+    @Query(SUMMARY +
+           "WHERE d.donationDate < :date OR (d.donationDate = :date AND d.id < :id) " +
+           "ORDER BY d.donationDate DESC, d.id DESC")
+    List<DonationSummaryDTO> findSummaryPage(@Param("date") LocalDateTime date, @Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY + "WHERE d.status = :status " +
+           "AND (d.donationDate < :date OR (d.donationDate = :date AND d.id < :id)) " +
+           "ORDER BY d.donationDate DESC, d.id DESC")
+    List<DonationSummaryDTO> findSummaryPageByStatus(@Param("status") DonationStatus status,
+                                                     @Param("date") LocalDateTime date, @Param("id") Long id,
+                                                     Limit limit);
+
+    @Query(SUMMARY + "WHERE c.id = :centerId " +
+           "AND (d.donationDate < :date OR (d.donationDate = :date AND d.id < :id)) " +
+           "ORDER BY d.donationDate DESC, d.id DESC")
+    List<DonationSummaryDTO> findSummaryPageByCollectionCenterId(@Param("centerId") Long centerId,
+                                                                 @Param("date") LocalDateTime date,
+                                                                 @Param("id") Long id, Limit limit);
+
+    @Query("SELECT new donation.example.donation.system.service.ai.AiDonationDetails(d.name, u.id, c.name) " +
+           "FROM Donation d LEFT JOIN d.donor dn LEFT JOIN dn.user u LEFT JOIN d.collectionCenter c " +
+           "WHERE d.id = :id")
+    Optional<AiDonationDetails> findAiDetailsById(@Param("id") Long id);
+
+    @Query("SELECT new donation.example.donation.system.service.ai.ThankYouCandidate(" +
+           "d.id, d.name, dn.name, u.id, c.name, d.donationDate) " +
+           "FROM Donation d LEFT JOIN d.donor dn LEFT JOIN dn.user u LEFT JOIN d.collectionCenter c " +
+           "WHERE d.id IN :ids")
+    List<ThankYouCandidate> findThankYouCandidates(@Param("ids") Collection<Long> ids);
+
+    // Full export cursor; must be consumed inside a transaction so the JDBC fetch size applies
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT d FROM Donation d " +
+           "LEFT JOIN FETCH d.donor dn LEFT JOIN FETCH dn.user " +
+           "LEFT JOIN FETCH d.collectionCenter c LEFT JOIN FETCH c.user " +
+           "ORDER BY d.id")
+    Stream<Donation> streamAllForExport();
+
+    // Capacity reservation bookkeeping, see CapacityService
+
+    @Query("SELECT d.reservedUnits FROM Donation d WHERE d.id = :id")
+    Integer findReservedUnits(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Donation d SET d.reservedUnits = :units " +
+           "WHERE d.id = :id AND (d.reservedUnits IS NULL OR d.reservedUnits = 0)")
+    int markReserved(@Param("id") Long id, @Param("units") int units);
+
+    @Modifying
+    @Query("UPDATE Donation d SET d.reservedUnits = 0 WHERE d.id = :id AND d.reservedUnits = :units")
+    int clearReserved(@Param("id") Long id, @Param("units") int units);
+
+    // Takes the reservation from :fromId to :to; 0 rows means the donation is no longer held there
+    @Modifying
+    @Query("UPDATE Donation d SET d.collectionCenter = :to " +
+           "WHERE d.id = :id AND d.collectionCenter.id = :fromId AND d.reservedUnits = :units")
+    int moveReservation(@Param("id") Long id, @Param("fromId") Long fromId,
+                        @Param("to") CollectionCenter to, @Param("units") int units);
+
+    // Keep the copied delivery id/status in step with the delivery, see DeliveryLifecycleService
+
+    @Modifying
+    @Query("UPDATE Donation d SET d.status = :status, d.deliveryId = :deliveryId, " +
+           "d.deliveryStatus = :deliveryStatus WHERE d.id = :id")
+    int updateDelivery(@Param("id") Long id, @Param("status") DonationStatus status,
+                       @Param("deliveryId") Long deliveryId, @Param("deliveryStatus") DeliveryStatus deliveryStatus);
+
+    @Modifying
+    @Query("UPDATE Donation d SET d.status = :status, d.deliveryStatus = :deliveryStatus WHERE d.id = :id")
+    int updateDeliveryStatus(@Param("id") Long id, @Param("status") DonationStatus status,
+                             @Param("deliveryStatus") DeliveryStatus deliveryStatus);
+
+    // Moves a COLLECTED donation that has no delivery yet to ASSIGNED; 0 rows means it was
+    // not dispatchable or a concurrent dispatch took it
+    @Modifying
+    @Query("UPDATE Donation d SET d.status = :to WHERE d.id = :id AND d.status = :from " +
+           "AND NOT EXISTS (SELECT dl.id FROM Delivery dl WHERE dl.donation.id = :id)")
+    int claimForDelivery(@Param("id") Long id, @Param("from") DonationStatus from, @Param("to") DonationStatus to);
+
+    // Oldest first, so the dispatch backlog drains in arrival order
+
+    @Query("SELECT new donation.example.donation.system.service.dispatch.DispatchCandidate(d.id, d.collectionCenter.id) " +
+           "FROM Donation d WHERE d.status = :status AND d.collectionCenter IS NOT NULL " +
+           "AND NOT EXISTS (SELECT dl.id FROM Delivery dl WHERE dl.donation = d) " +
+           "ORDER BY d.donationDate, d.id")
+    List<DispatchCandidate> findUndispatched(@Param("status") DonationStatus status, Limit limit);
+
+    @Query("SELECT new donation.example.donation.system.service.dispatch.DispatchCandidate(d.id, d.collectionCenter.id) " +
+           "FROM Donation d WHERE d.status = :status AND d.collectionCenter.id = :centerId " +
+           "AND NOT EXISTS (SELECT dl.id FROM Delivery dl WHERE dl.donation = d) " +
+           "ORDER BY d.donationDate, d.id")
+    List<DispatchCandidate> findUndispatchedByCenterId(@Param("centerId") Long centerId,
+                                                      @Param("status") DonationStatus status, Limit limit);
 }
@@ -2,7 +2,11 @@ package donation.example.donation.system.repository;
 
 import donation.example.donation.system.model.entity.Recipient;
 import donation.example.donation.system.type.RecipientType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,5 +14,15 @@ import java.util.List;
 @Repository
 public interface RecipientRepository extends JpaRepository<Recipient, Long> {
     List<Recipient> findByType(RecipientType type);
+
+    // Query-cached; any write to recipient invalidates the results
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
     List<Recipient> findByIsActiveTrue();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")})
+    @Query("SELECT r.id FROM Recipient r WHERE r.isActive = true ORDER BY r.id")
+    List<Long> findActiveIds();
 }
@@ -1,11 +1,25 @@
 package donation.example.donation.system.repository;
 
 import donation.example.donation.system.model.entity.User;
+import donation.example.donation.system.security.ActorProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // All profile ids of a user in one round trip
+    @Query("SELECT new donation.example.donation.system.security.ActorProfile(d.id, c.id, p.id) " +
+           "FROM User u " +
+           "LEFT JOIN Donor d ON d.user = u " +
+           "LEFT JOIN CollectionCenter c ON c.user = u " +
+           "LEFT JOIN DeliveryPartner p ON p.user = u " +
+           "WHERE u.id = :userId")
+    List<ActorProfile> findActorProfiles(@Param("userId") Long userId);
+}
@@ -0,0 +1,15 @@
+package donation.example.donation.system.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Profile ids linked to a user account; any of them is null when the user has no such profile.
+ */
+@Data
+@AllArgsConstructor
+public class ActorProfile {
+    private Long donorId;
+    private Long centerId;
+    private Long driverId;
+}
@@ -0,0 +1,75 @@
+package donation.example.donation.system.security;
+
+import donation.example.donation.system.cache.BoundedTtlCache;
+import donation.example.donation.system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the donor/center/driver ids of each user so "/my" endpoints do not repeat the
+ * username join on every request. Callers that create, delete or reassign a profile must
+ * {@link #invalidate(Long)} the owning user.
+ *
+ * Inside a transaction the entry is dropped after commit, so a request that loads the profile
+ * in the meantime cannot cache the old ids past the change. A load that overlaps an
+ * invalidation is returned but not cached, since it may have read the profile before commit.
+ */
+@Component
+public class ActorProfileCache {
+
+    private final UserRepository userRepository;
+    private final BoundedTtlCache<Long, ActorProfile> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ActorProfileCache(UserRepository userRepository,
+                             @Value("${actor-cache.max-size:10000}") int maxSize,
+                             @Value("${actor-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = new BoundedTtlCache<>(maxSize, ttl);
+    }
+
+    public ActorProfile get(Long userId) {
+        ActorProfile cached = cache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long seen = invalidations.get();
+        ActorProfile loaded = load(userId);
+        if (invalidations.get() == seen) {
+            cache.put(userId, loaded);
+        }
+        return loaded;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    private void evict(Long userId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(userId);
+    }
+
+    private ActorProfile load(Long userId) {
+        return userRepository.findActorProfiles(userId).stream()
+                .findFirst()
+                .orElse(new ActorProfile(null, null, null));
+    }
+}
@@ -0,0 +1,75 @@
+package donation.example.donation.system.security;
+
+import donation.example.donation.system.repository.UserRepository;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Optional;
+
+/**
+ * The authenticated caller and their profile ids, resolved at most once per request.
+ * Profile ids come from {@link ActorProfileCache} rather than the token, so profiles created
+ * or reassigned after login are picked up as soon as the cache entry is invalidated.
+ */
+@Component
+@RequestScope
+public class CurrentActor {
+
+    private final ActorProfileCache profileCache;
+    private final UserRepository userRepository;
+
+    private Long userId;
+    private ActorProfile profile;
+
+    public CurrentActor(ActorProfileCache profileCache, UserRepository userRepository) {
+        this.profileCache = profileCache;
+        this.userRepository = userRepository;
+    }
+
+    public String getUsername() {
+        return authentication().getName();
+    }
+
+    public Long getUserId() {
+        if (userId == null) {
+            Object principal = authentication().getPrincipal();
+            if (principal instanceof UserDetailsImpl && ((UserDetailsImpl) principal).getId() != null) {
+                userId = ((UserDetailsImpl) principal).getId();
+            } else {
+                userId = userRepository.findByUsername(getUsername())
+                        .orElseThrow(() -> new RuntimeException("User not found"))
+                        .getId();
+            }
+        }
+        return userId;
+    }
+
+    public Optional<Long> donorId() {
+        return Optional.ofNullable(profile().getDonorId());
+    }
+
+    public Optional<Long> centerId() {
+        return Optional.ofNullable(profile().getCenterId());
+    }
+
+    public Optional<Long> driverId() {
+        return Optional.ofNullable(profile().getDriverId());
+    }
+
+    private ActorProfile profile() {
+        if (profile == null) {
+            profile = profileCache.get(getUserId());
+        }
+        return profile;
+    }
+
+    private Authentication authentication() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            throw new IllegalStateException("No authenticated user for this request");
+        }
+        return auth;
+    }
+}
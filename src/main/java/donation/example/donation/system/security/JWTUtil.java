@@ -1,8 +1,11 @@
 package donation.example.donation.system.security;
 
+import donation.example.donation.system.model.entity.User;
 import donation.example.donation.system.type.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
@@ -13,19 +16,39 @@ import java.util.stream.Collectors;
 @Component
 public class JWTUtil {
 
+    private static final Logger logger = LoggerFactory.getLogger(JWTUtil.class);
+
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_USER_ID = "uid";
+
     private final String jwtSecret = "MySuperSecretKeyForJWTsThatIsVeryLongAndSecure12345"; // must be long
     private final long jwtExpirationMs = 24 * 60 * 60 * 1000; // 24 hours
 
     private final Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
 
+    // Parsers are immutable and thread-safe, so one instance serves every request
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    /**
+     * Issues a token carrying everything the auth filter needs to build the principal
+     * (user id and roles) so requests can be authenticated without a DB lookup. Profile ids are
+     * left out: they can change while the token is valid, and come from {@link ActorProfileCache}.
+     */
+    public String generateToken(User user) {
+        return Jwts.builder()
+                .setSubject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLES, joinRoles(user.getRoles()))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
+                .signWith(key)
+                .compact();
+    }
+
     public String generateToken(String username, Set<Role> roles) {
-        String rolesString = roles.stream()
-                .map(Enum::name)
-                .collect(Collectors.joining(","));
-        
         return Jwts.builder()
                 .setSubject(username)
-                .claim("roles", rolesString)
+                .claim(CLAIM_ROLES, joinRoles(roles))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
                 .signWith(key)
@@ -36,29 +59,36 @@ public class JWTUtil {
     public String generateToken(String username) {
         return Jwts.builder()
                 .setSubject(username)
-                .claim("roles", "ROLE_DONOR")  // default to DONOR
+                .claim(CLAIM_ROLES, "ROLE_DONOR")  // default to DONOR
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
                 .signWith(key)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry once and returns the claims, or null if the token is invalid.
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+    }
+
     public String getUsernameFromJwt(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateJwtToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            e.printStackTrace();
-        }
-        return false;
+        return parseClaims(token) != null;
+    }
+
+    private String joinRoles(Set<Role> roles) {
+        return roles.stream()
+                .map(Enum::name)
+                .collect(Collectors.joining(","));
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package donation.example.donation.system.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,6 +20,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JWTUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     // No reference to SecurityConfig here
     public JwtAuthFilter(JWTUtil jwtUtil, UserDetailsService userDetailsService) {
@@ -33,24 +35,24 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String token = null;
+        Claims claims = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            if (jwtUtil.validateJwtToken(token)) {
-                username = jwtUtil.getUsernameFromJwt(token);
-            }
+            claims = jwtUtil.parseClaims(authHeader.substring(7));
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Tokens issued before the uid claim existed still need the database lookup
+            UserDetails userDetails = claims.get(JWTUtil.CLAIM_USER_ID) != null
+                    ? UserDetailsImpl.fromClaims(claims)
+                    : userDetailsService.loadUserByUsername(claims.getSubject());
 
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                     userDetails, null, userDetails.getAuthorities()
             );
 
-            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            authToken.setDetails(detailsSource.buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
@@ -1,10 +1,12 @@
 package donation.example.donation.system.security;
 
 import donation.example.donation.system.model.entity.User;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -40,6 +42,39 @@ public class UserDetailsImpl implements UserDetails {
                 authorities);
     }
 
+    /**
+     * Builds the principal from already-verified JWT claims, without touching the database.
+     */
+    public static UserDetailsImpl fromClaims(Claims claims) {
+        String roles = claims.get(JWTUtil.CLAIM_ROLES, String.class);
+        List<GrantedAuthority> authorities = roles == null || roles.isEmpty()
+                ? List.of()
+                : Arrays.stream(roles.split(","))
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toList());
+
+        return new UserDetailsImpl(
+                longClaim(claims, JWTUtil.CLAIM_USER_ID),
+                claims.getSubject(),
+                null,
+                null,
+                authorities);
+    }
+
+    // Numeric claims come back as Integer or Long depending on their size
+    private static Long longClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -60,4 +95,4 @@ public class UserDetailsImpl implements UserDetails {
     @Override public boolean isAccountNonLocked() { return true; }
     @Override public boolean isCredentialsNonExpired() { return true; }
     @Override public boolean isEnabled() { return true; }
-}
\ No newline at end of file
+}
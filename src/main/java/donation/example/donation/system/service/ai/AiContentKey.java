@@ -0,0 +1,10 @@
+package donation.example.donation.system.service.ai;
+
+import donation.example.donation.system.type.AiContentType;
+
+/**
+ * One generation slot: a donation and a content type. Also read straight from ai_generated_content
+ * when only existence matters and the content column can be skipped.
+ */
+public record AiContentKey(Long donationId, AiContentType contentType) {
+}
@@ -1,23 +1,38 @@
 package donation.example.donation.system.service.ai;
 
+import donation.example.donation.system.cache.SingleFlight;
 import donation.example.donation.system.dto.ai.*;
 import donation.example.donation.system.model.entity.AiGeneratedContent;
-import donation.example.donation.system.model.entity.Donation;
 import donation.example.donation.system.model.entity.User;
 import donation.example.donation.system.repository.AiGeneratedContentRepository;
+import donation.example.donation.system.repository.DonationItemRepository;
 import donation.example.donation.system.repository.DonationRepository;
 import donation.example.donation.system.repository.UserRepository;
 import donation.example.donation.system.type.AiContentType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,19 +40,35 @@ public class AiContentService {
 
     private static final Logger logger = LoggerFactory.getLogger(AiContentService.class);
 
+    // Shown as the author of content generated by background jobs
+    private static final String SYSTEM_USERNAME = "system";
+
     private final AiGeneratedContentRepository aiContentRepository;
     private final DonationRepository donationRepository;
+    private final DonationItemRepository donationItemRepository;
     private final UserRepository userRepository;
     private final GeminiService geminiService;
+    private final ContentBlobStore blobStore;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final SingleFlight<AiContentKey, AiResponse> inFlight = new SingleFlight<>();
 
     public AiContentService(AiGeneratedContentRepository aiContentRepository,
                            DonationRepository donationRepository,
+                           DonationItemRepository donationItemRepository,
                            UserRepository userRepository,
-                           GeminiService geminiService) {
+                           GeminiService geminiService,
+                           ContentBlobStore blobStore,
+                           PlatformTransactionManager transactionManager) {
         this.aiContentRepository = aiContentRepository;
         this.donationRepository = donationRepository;
+        this.donationItemRepository = donationItemRepository;
         this.userRepository = userRepository;
         this.geminiService = geminiService;
+        this.blobStore = blobStore;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
     
@@ -54,69 +85,98 @@ public class AiContentService {
     }
 
    
-    @Transactional
-    public AiResponse generateAndSaveThankYou(ThankYouGenerateRequest request) {
+    public CompletableFuture<AiResponse> generateAndSaveThankYou(ThankYouGenerateRequest request) {
         try {
             User currentUser = getCurrentUser();
 
-            // Get donation details
-            Donation donation = donationRepository.findById(request.getDonationId())
-                    .orElseThrow(() -> new RuntimeException("Donation not found"));
-
-            // Get donor user ID
-            Long donorUserId = donation.getDonor().getUser().getId();
-
             // Check if thank you already exists
             Optional<AiGeneratedContent> existing = aiContentRepository
                     .findByDonationIdAndContentType(request.getDonationId(), AiContentType.THANK_YOU);
 
             if (existing.isPresent()) {
                 // Return existing content
-                AiGeneratedContent content = existing.get();
-                return AiResponse.success(content.getContent());
+                return CompletableFuture.completedFuture(AiResponse.success(withBody(existing.get()).getContent()));
             }
 
-            // Generate new thank you message
-            AiResponse aiResponse = geminiService.generateThankYouMessage(
-                    request.getDonorName(),
-                    request.getItems(),
-                    request.getDate() != null ? request.getDate() : "today"
-            );
-
-            if (!aiResponse.isSuccess()) {
-                return aiResponse;
-            }
+            // Concurrent requests for the same donation share one Gemini call
+            return inFlight.execute(new AiContentKey(request.getDonationId(), AiContentType.THANK_YOU),
+                            () -> createThankYou(request, currentUser))
+                    .exceptionally(e -> {
+                        logger.error("Error generating thank you message: ", e);
+                        return AiResponse.error("Failed to generate thank you message: " + causeOf(e).getMessage());
+                    });
+        } catch (Exception e) {
+            logger.error("Error generating thank you message: ", e);
+            return CompletableFuture.completedFuture(
+                    AiResponse.error("Failed to generate thank you message: " + e.getMessage()));
+        }
+    }
 
-            // Save to database
-            AiGeneratedContent content = new AiGeneratedContent();
-            content.setDonationId(request.getDonationId());
-            content.setContentType(AiContentType.THANK_YOU);
-            content.setContent(aiResponse.getContent());
-            content.setRecipientUserId(donorUserId);
-            content.setGeneratedByUserId(currentUser.getId());
-            content.setGeneratedByUsername(currentUser.getUsername());
-            content.setDonationName(donation.getName());
-            content.setGeneratedAt(LocalDateTime.now());
-
-            // Get center name if available
-            if (donation.getCollectionCenter() != null) {
-                content.setCenterName(donation.getCollectionCenter().getName());
-            }
+    /**
+     * End-of-day bulk run: donations that already have a thank you message are returned as stored,
+     * the rest share batched Gemini calls and are saved with one batched insert.
+     */
+    public CompletableFuture<ThankYouBatchResponse> generateAndSaveThankYouBatch(List<Long> donationIds) {
+        User currentUser = getCurrentUser();
+        List<Long> ids = donationIds.stream().distinct().toList();
 
-            aiContentRepository.save(content);
+        BatchPrepared prepared = readTransaction.execute(status -> prepareBatch(ids, AiContentType.THANK_YOU));
+        CompletableFuture<Map<Long, AiResponse>> generation = prepared.candidates().isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : geminiService.generateThankYouMessages(prepared.candidates());
+        return generation.thenApply(generated -> saveBatch(ids, prepared, generated, currentUser));
+    }
 
-            logger.info("Thank you message generated and saved for donation: {}", request.getDonationId());
+    private ThankYouBatchResponse saveBatch(List<Long> ids, BatchPrepared prepared, Map<Long, AiResponse> generated,
+                                            User currentUser) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AiGeneratedContent> rows = new ArrayList<>();
+        for (ThankYouCandidate candidate : prepared.candidates()) {
+            AiResponse response = generated.get(candidate.getDonationId());
+            if (response != null && response.isSuccess() && !response.isFallback()) {
+                rows.add(thankYouContent(candidate, response.getContent(), currentUser, now));
+            }
+        }
+        Set<Long> inserted = insertBatch(rows);
+
+        // Rows skipped by the insert were saved by a concurrent request; report the stored copy
+        Map<Long, String> stored = new HashMap<>(prepared.existing());
+        List<Long> raced = rows.stream()
+                .map(AiGeneratedContent::getDonationId)
+                .filter(id -> !inserted.contains(id))
+                .toList();
+        if (!raced.isEmpty()) {
+            stored.putAll(findThankYous(raced));
+        }
 
-            return aiResponse;
-        } catch (Exception e) {
-            logger.error("Error generating thank you message: ", e);
-            return AiResponse.error("Failed to generate thank you message: " + e.getMessage());
+        List<ThankYouBatchResult> results = new ArrayList<>(ids.size());
+        int generatedCount = 0;
+        int fallbacks = 0;
+        int failed = 0;
+        for (Long id : ids) {
+            AiResponse response = generated.get(id);
+            if (inserted.contains(id)) {
+                results.add(new ThankYouBatchResult(id, true, response.getContent(), null, false));
+                generatedCount++;
+            } else if (stored.containsKey(id)) {
+                results.add(new ThankYouBatchResult(id, true, stored.get(id), null, false));
+            } else if (response != null && response.isFallback()) {
+                results.add(new ThankYouBatchResult(id, true, response.getContent(), null, true));
+                fallbacks++;
+            } else {
+                String error = response != null ? response.getError() : "Donation not found";
+                results.add(new ThankYouBatchResult(id, false, null, error, false));
+                failed++;
+            }
         }
+        int existing = ids.size() - generatedCount - fallbacks - failed;
+        logger.info("Thank you batch: {} generated, {} already saved, {} from template, {} failed",
+                generatedCount, existing, fallbacks, failed);
+        return new ThankYouBatchResponse(generatedCount, existing, fallbacks, failed, results);
     }
 
    
-    @Transactional
-    public AiResponse generateAndSaveFoodTips(FoodTipsGenerateRequest request) {
+    public CompletableFuture<AiResponse> generateAndSaveFoodTips(FoodTipsGenerateRequest request) {
         try {
             User currentUser = getCurrentUser();
 
@@ -126,38 +186,298 @@ public class AiContentService {
 
             if (existing.isPresent()) {
                 // Return existing content
-                return AiResponse.success(existing.get().getContent());
+                return CompletableFuture.completedFuture(AiResponse.success(withBody(existing.get()).getContent()));
             }
 
-            // Get donation details
-            Donation donation = donationRepository.findById(request.getDonationId())
-                    .orElseThrow(() -> new RuntimeException("Donation not found"));
+            return inFlight.execute(new AiContentKey(request.getDonationId(), AiContentType.FOOD_TIPS),
+                            () -> createFoodTips(request, currentUser))
+                    .exceptionally(e -> {
+                        logger.error("Error generating food tips: ", e);
+                        return AiResponse.error("Failed to generate food tips: " + causeOf(e).getMessage());
+                    });
+        } catch (Exception e) {
+            logger.error("Error generating food tips: ", e);
+            return CompletableFuture.completedFuture(AiResponse.error("Failed to generate food tips: " + e.getMessage()));
+        }
+    }
 
-            // Generate new tips
-            AiResponse aiResponse = geminiService.getFoodHandlingTips(request.getItems());
+    /**
+     * Streaming variant of {@link #generateAndSaveThankYou}: text goes to {@code onChunk} while it is
+     * generated and the future completes with the saved message, which is the stored copy if another
+     * request saved one first. Content that is already saved is sent as a single chunk.
+     */
+    public CompletableFuture<AiResponse> streamAndSaveThankYou(ThankYouGenerateRequest request, Consumer<String> onChunk) {
+        try {
+            User currentUser = getCurrentUser();
+            Prepared prepared = prepare(request.getDonationId(), AiContentType.THANK_YOU);
+            if (prepared.existingContent() != null) {
+                onChunk.accept(prepared.existingContent());
+                return CompletableFuture.completedFuture(AiResponse.success(prepared.existingContent()));
+            }
 
-            if (!aiResponse.isSuccess()) {
+            return geminiService.streamThankYouMessage(
+                            request.getDonorName(),
+                            request.getItems(),
+                            request.getDate() != null ? request.getDate() : "today",
+                            onChunk)
+                    .thenApply(aiResponse -> aiResponse.isSuccess() && !aiResponse.isFallback()
+                            ? saveOnce(thankYouContent(request.getDonationId(), aiResponse.getContent(),
+                                    prepared.details(), currentUser))
+                            : aiResponse)
+                    .exceptionally(e -> {
+                        logger.error("Error saving streamed thank you message: ", e);
+                        return AiResponse.error("Failed to generate thank you message: " + e.getMessage());
+                    });
+        } catch (Exception e) {
+            logger.error("Error generating thank you message: ", e);
+            return CompletableFuture.completedFuture(
+                    AiResponse.error("Failed to generate thank you message: " + e.getMessage()));
+        }
+    }
+
+    public CompletableFuture<AiResponse> streamAndSaveFoodTips(FoodTipsGenerateRequest request, Consumer<String> onChunk) {
+        try {
+            User currentUser = getCurrentUser();
+            Prepared prepared = prepare(request.getDonationId(), AiContentType.FOOD_TIPS);
+            if (prepared.existingContent() != null) {
+                onChunk.accept(prepared.existingContent());
+                return CompletableFuture.completedFuture(AiResponse.success(prepared.existingContent()));
+            }
+
+            return geminiService.streamFoodHandlingTips(request.getItems(), onChunk)
+                    .thenApply(aiResponse -> aiResponse.isSuccess()
+                            ? saveOnce(foodTipsContent(request.getDonationId(), aiResponse.getContent(),
+                                    prepared.details(), currentUser))
+                            : aiResponse)
+                    .exceptionally(e -> {
+                        logger.error("Error saving streamed food tips: ", e);
+                        return AiResponse.error("Failed to generate food tips: " + e.getMessage());
+                    });
+        } catch (Exception e) {
+            logger.error("Error generating food tips: ", e);
+            return CompletableFuture.completedFuture(AiResponse.error("Failed to generate food tips: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Background generation for the AI job queue, attributed to the system rather than a request
+     * user. Succeeds when the content is saved or already existed; a template fallback is returned
+     * unsaved so the job is retried once Gemini is back.
+     */
+    public AiResponse pregenerate(Long donationId, AiContentType contentType) {
+        // Runs on an AI job thread, which waits for its job anyway
+        return inFlight.execute(new AiContentKey(donationId, contentType),
+                () -> createInBackground(donationId, contentType)).join();
+    }
+
+    private CompletableFuture<AiResponse> createInBackground(Long donationId, AiContentType contentType) {
+        BatchPrepared prepared = readTransaction.execute(status -> prepareBatch(List.of(donationId), contentType));
+        if (prepared.existing().containsKey(donationId)) {
+            return CompletableFuture.completedFuture(AiResponse.success(prepared.existing().get(donationId)));
+        }
+        if (prepared.candidates().isEmpty()) {
+            throw new RuntimeException("Donation not found");
+        }
+        ThankYouCandidate donation = prepared.candidates().get(0);
+        AiDonationDetails details = new AiDonationDetails(
+                donation.getDonationName(), donation.getDonorUserId(), donation.getCenterName());
+
+        return switch (contentType) {
+            case THANK_YOU -> geminiService.generateThankYouMessage(
+                            donation.donorNameForPrompt(), donation.getItems(), donation.dateForPrompt())
+                    .thenApply(aiResponse -> !aiResponse.isSuccess() || aiResponse.isFallback()
+                            ? aiResponse
+                            : saveOnce(thankYouContent(donationId, aiResponse.getContent(), details, null)));
+            case FOOD_TIPS -> geminiService.getFoodHandlingTips(donation.getItems())
+                    .thenApply(aiResponse -> !aiResponse.isSuccess()
+                            ? aiResponse
+                            : saveOnce(foodTipsContent(donationId, aiResponse.getContent(), details, null)));
+            default -> throw new IllegalArgumentException("No background generation for " + contentType);
+        };
+    }
+
+    // Each generation runs in three steps so no connection is held while Gemini works:
+    // a short read transaction, the Gemini call, then a short idempotent insert.
+
+    private CompletableFuture<AiResponse> createThankYou(ThankYouGenerateRequest request, User currentUser) {
+        Prepared prepared = prepare(request.getDonationId(), AiContentType.THANK_YOU);
+        if (prepared.existingContent() != null) {
+            return CompletableFuture.completedFuture(AiResponse.success(prepared.existingContent()));
+        }
+        AiDonationDetails details = prepared.details();
+
+        // Generate new thank you message
+        return geminiService.generateThankYouMessage(
+                request.getDonorName(),
+                request.getItems(),
+                request.getDate() != null ? request.getDate() : "today"
+        ).thenApply(aiResponse -> {
+            // Template fallbacks are not saved, so the message is generated properly next time
+            if (!aiResponse.isSuccess() || aiResponse.isFallback()) {
                 return aiResponse;
             }
 
             // Save to database
-            AiGeneratedContent content = new AiGeneratedContent();
-            content.setDonationId(request.getDonationId());
-            content.setContentType(AiContentType.FOOD_TIPS);
-            content.setContent(aiResponse.getContent());
-            content.setGeneratedByUserId(currentUser.getId());
-            content.setGeneratedByUsername(currentUser.getUsername());
-            content.setDonationName(donation.getName());
-            content.setGeneratedAt(LocalDateTime.now());
+            AiResponse saved = saveOnce(thankYouContent(request.getDonationId(), aiResponse.getContent(),
+                    details, currentUser));
+            logger.info("Thank you message generated and saved for donation: {}", request.getDonationId());
+            return saved;
+        });
+    }
+
+    private CompletableFuture<AiResponse> createFoodTips(FoodTipsGenerateRequest request, User currentUser) {
+        Prepared prepared = prepare(request.getDonationId(), AiContentType.FOOD_TIPS);
+        if (prepared.existingContent() != null) {
+            return CompletableFuture.completedFuture(AiResponse.success(prepared.existingContent()));
+        }
 
-            aiContentRepository.save(content);
+        // Generate new tips
+        return geminiService.getFoodHandlingTips(request.getItems()).thenApply(aiResponse -> {
+            if (!aiResponse.isSuccess()) {
+                return aiResponse;
+            }
 
+            // Save to database
+            AiResponse saved = saveOnce(foodTipsContent(request.getDonationId(), aiResponse.getContent(),
+                    prepared.details(), currentUser));
             logger.info("Food tips generated and saved for donation: {}", request.getDonationId());
+            return saved;
+        });
+    }
 
-            return aiResponse;
-        } catch (Exception e) {
-            logger.error("Error generating food tips: ", e);
-            return AiResponse.error("Failed to generate food tips: " + e.getMessage());
+    /**
+     * Read step: returns the stored content if a flight that just finished saved it after the
+     * caller's first check, otherwise the donation details needed for the new row.
+     */
+    private Prepared prepare(Long donationId, AiContentType contentType) {
+        return readTransaction.execute(status -> {
+            Optional<AiGeneratedContent> existing = aiContentRepository
+                    .findByDonationIdAndContentType(donationId, contentType);
+            if (existing.isPresent()) {
+                return new Prepared(withBody(existing.get()).getContent(), null);
+            }
+            AiDonationDetails details = donationRepository.findAiDetailsById(donationId)
+                    .orElseThrow(() -> new RuntimeException("Donation not found"));
+            return new Prepared(null, details);
+        });
+    }
+
+    private BatchPrepared prepareBatch(List<Long> ids, AiContentType contentType) {
+        Map<Long, String> existing = new HashMap<>();
+        withBodies(aiContentRepository.findByDonationIdInAndContentType(ids, contentType))
+                .forEach(c -> existing.put(c.getDonationId(), c.getContent()));
+
+        List<Long> missing = ids.stream().filter(id -> !existing.containsKey(id)).toList();
+        if (missing.isEmpty()) {
+            return new BatchPrepared(existing, List.of());
+        }
+        List<ThankYouCandidate> candidates = donationRepository.findThankYouCandidates(missing);
+        Map<Long, ThankYouCandidate> byId = new HashMap<>();
+        candidates.forEach(candidate -> byId.put(candidate.getDonationId(), candidate));
+        donationItemRepository.findByDonationIdIn(byId.keySet())
+                .forEach(item -> byId.get(item.getDonation().getId()).getItems().add(item.getName()));
+        for (ThankYouCandidate candidate : candidates) {
+            if (candidate.getItems().isEmpty() && candidate.getDonationName() != null) {
+                candidate.getItems().add(candidate.getDonationName());
+            }
+        }
+        return new BatchPrepared(existing, candidates);
+    }
+
+    /**
+     * One batched insert for the whole run. If a concurrent insert trips the unique constraint the
+     * batch is rolled back and the rows are saved one by one instead.
+     */
+    private Set<Long> insertBatch(List<AiGeneratedContent> rows) {
+        if (rows.isEmpty()) {
+            return Set.of();
+        }
+        List<String> hashes = blobStore.saveAll(rows.stream().map(AiGeneratedContent::getContent).toList());
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setContentHash(hashes.get(i));
+        }
+        try {
+            return new HashSet<>(writeTransaction.execute(status -> aiContentRepository.insertMissing(rows)));
+        } catch (DataIntegrityViolationException e) {
+            logger.info("Thank you batch collided with a concurrent save, inserting rows individually");
+            Set<Long> inserted = new HashSet<>();
+            for (AiGeneratedContent row : rows) {
+                try {
+                    aiContentRepository.saveAndFlush(row);
+                    inserted.add(row.getDonationId());
+                } catch (DataIntegrityViolationException duplicate) {
+                    // Saved concurrently, the stored copy is reported instead
+                }
+            }
+            return inserted;
+        }
+    }
+
+    private Map<Long, String> findThankYous(List<Long> donationIds) {
+        Map<Long, String> contents = new HashMap<>();
+        withBodies(aiContentRepository.findByDonationIdInAndContentType(donationIds, AiContentType.THANK_YOU))
+                .forEach(c -> contents.put(c.getDonationId(), c.getContent()));
+        return contents;
+    }
+
+    private static AiGeneratedContent thankYouContent(Long donationId, String message,
+                                                      AiDonationDetails details, User generatedBy) {
+        AiGeneratedContent content = new AiGeneratedContent();
+        content.setDonationId(donationId);
+        content.setContentType(AiContentType.THANK_YOU);
+        content.setContent(message);
+        content.setRecipientUserId(details.getDonorUserId());
+        content.setGeneratedByUserId(generatedBy != null ? generatedBy.getId() : null);
+        content.setGeneratedByUsername(generatedBy != null ? generatedBy.getUsername() : SYSTEM_USERNAME);
+        content.setDonationName(details.getDonationName());
+        content.setCenterName(details.getCenterName());
+        content.setGeneratedAt(LocalDateTime.now());
+        return content;
+    }
+
+    private static AiGeneratedContent foodTipsContent(Long donationId, String tips,
+                                                      AiDonationDetails details, User generatedBy) {
+        AiGeneratedContent content = new AiGeneratedContent();
+        content.setDonationId(donationId);
+        content.setContentType(AiContentType.FOOD_TIPS);
+        content.setContent(tips);
+        content.setGeneratedByUserId(generatedBy != null ? generatedBy.getId() : null);
+        content.setGeneratedByUsername(generatedBy != null ? generatedBy.getUsername() : SYSTEM_USERNAME);
+        content.setDonationName(details.getDonationName());
+        content.setGeneratedAt(LocalDateTime.now());
+        return content;
+    }
+
+    private static AiGeneratedContent thankYouContent(ThankYouCandidate candidate, String message,
+                                                      User generatedBy, LocalDateTime generatedAt) {
+        AiGeneratedContent content = new AiGeneratedContent();
+        content.setDonationId(candidate.getDonationId());
+        content.setContentType(AiContentType.THANK_YOU);
+        content.setContent(message);
+        content.setRecipientUserId(candidate.getDonorUserId());
+        content.setGeneratedByUserId(generatedBy != null ? generatedBy.getId() : null);
+        content.setGeneratedByUsername(generatedBy != null ? generatedBy.getUsername() : SYSTEM_USERNAME);
+        content.setDonationName(candidate.getDonationName());
+        content.setCenterName(candidate.getCenterName());
+        content.setGeneratedAt(generatedAt);
+        return content;
+    }
+
+    /**
+     * Inserts the content unless another node saved the same donation and type first; the unique
+     * constraint rejects the duplicate and the stored row is returned instead.
+     */
+    private AiResponse saveOnce(AiGeneratedContent content) {
+        content.setContentHash(blobStore.save(content.getContent()));
+        try {
+            aiContentRepository.saveAndFlush(content);
+            return AiResponse.success(content.getContent());
+        } catch (DataIntegrityViolationException e) {
+            logger.info("{} for donation {} was saved concurrently, returning stored copy",
+                    content.getContentType(), content.getDonationId());
+            return aiContentRepository.findByDonationIdAndContentType(content.getDonationId(), content.getContentType())
+                    .map(stored -> AiResponse.success(withBody(stored).getContent()))
+                    .orElseThrow(() -> e);
         }
     }
 
@@ -167,41 +487,81 @@ public class AiContentService {
                 .findByDonationIdAndContentType(donationId, contentType);
 
         if (content.isPresent()) {
-            AiGeneratedContent c = content.get();
-            return SavedContentResponse.found(
-                    c.getId(),
-                    c.getDonationId(),
-                    c.getDonationName(),
-                    c.getContent(),
-                    c.getContentType().name(),
-                    c.getGeneratedByUsername(),
-                    c.getCenterName(),
-                    c.getGeneratedAt()
-            );
+            return toSavedContent(withBody(content.get()));
         }
 
         return SavedContentResponse.notFound();
     }
 
+    /**
+     * Saved content types for a list of donations in one query, in input order without duplicates.
+     * The content itself is only read when {@code includeContent} is set.
+     */
+    public List<AiContentStatus> getContentStatus(List<Long> donationIds, boolean includeContent) {
+        Map<Long, AiContentStatus> statuses = new LinkedHashMap<>();
+        for (Long donationId : donationIds) {
+            statuses.computeIfAbsent(donationId, id -> new AiContentStatus(id, EnumSet.noneOf(AiContentType.class),
+                    includeContent ? new EnumMap<>(AiContentType.class) : null));
+        }
+
+        if (includeContent) {
+            for (AiGeneratedContent c : withBodies(aiContentRepository.findByDonationIdIn(statuses.keySet()))) {
+                AiContentStatus status = statuses.get(c.getDonationId());
+                status.getContentTypes().add(c.getContentType());
+                status.getContent().put(c.getContentType(), toSavedContent(c));
+            }
+        } else {
+            for (AiContentKey key : aiContentRepository.findKeysByDonationIdIn(statuses.keySet())) {
+                statuses.get(key.donationId()).getContentTypes().add(key.contentType());
+            }
+        }
+        return new ArrayList<>(statuses.values());
+    }
+
+    private AiGeneratedContent withBody(AiGeneratedContent content) {
+        return withBodies(List.of(content)).get(0);
+    }
+
+    // Fills the transient body of each row from content_blob with at most one query; rows saved
+    // before content_blob existed carry their text inline
+    private List<AiGeneratedContent> withBodies(List<AiGeneratedContent> contents) {
+        Map<String, String> bodies = blobStore.getAll(contents.stream()
+                .map(AiGeneratedContent::getContentHash)
+                .filter(Objects::nonNull)
+                .toList());
+        for (AiGeneratedContent c : contents) {
+            c.setContent(c.getContentHash() != null ? bodies.get(c.getContentHash()) : c.getLegacyContent());
+        }
+        return contents;
+    }
+
+    private static Throwable causeOf(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static SavedContentResponse toSavedContent(AiGeneratedContent c) {
+        return SavedContentResponse.found(
+                c.getId(),
+                c.getDonationId(),
+                c.getDonationName(),
+                c.getContent(),
+                c.getContentType().name(),
+                c.getGeneratedByUsername(),
+                c.getCenterName(),
+                c.getGeneratedAt()
+        );
+    }
+
    
     public List<SavedContentResponse> getMyThankYouMessages() {
         User currentUser = getCurrentUser();
 
-        List<AiGeneratedContent> messages = aiContentRepository
+        List<AiGeneratedContent> messages = withBodies(aiContentRepository
                 .findTop5ByRecipientUserIdAndContentTypeOrderByGeneratedAtDesc(
-                        currentUser.getId(), AiContentType.THANK_YOU);
+                        currentUser.getId(), AiContentType.THANK_YOU));
 
         return messages.stream()
-                .map(c -> SavedContentResponse.found(
-                        c.getId(),
-                        c.getDonationId(),
-                        c.getDonationName(),
-                        c.getContent(),
-                        c.getContentType().name(),
-                        c.getGeneratedByUsername(),
-                        c.getCenterName(),
-                        c.getGeneratedAt()
-                ))
+                .map(AiContentService::toSavedContent)
                 .collect(Collectors.toList());
     }
 
@@ -209,4 +569,10 @@ public class AiContentService {
     public boolean contentExists(Long donationId, AiContentType contentType) {
         return aiContentRepository.existsByDonationIdAndContentType(donationId, contentType);
     }
+
+    private record Prepared(String existingContent, AiDonationDetails details) {
+    }
+
+    private record BatchPrepared(Map<Long, String> existing, List<ThankYouCandidate> candidates) {
+    }
 }
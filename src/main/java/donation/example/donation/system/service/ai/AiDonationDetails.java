@@ -0,0 +1,15 @@
+package donation.example.donation.system.service.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The donation fields stored alongside generated content, read in one query before calling Gemini.
+ */
+@Data
+@AllArgsConstructor
+public class AiDonationDetails {
+    private String donationName;
+    private Long donorUserId;
+    private String centerName;
+}
@@ -0,0 +1,234 @@
+package donation.example.donation.system.service.ai;
+
+import donation.example.donation.system.cache.BoundedTtlCache;
+import donation.example.donation.system.cache.MinHashIndex;
+import donation.example.donation.system.cache.SingleFlight;
+import donation.example.donation.system.dto.ai.AiCacheStats;
+import donation.example.donation.system.dto.ai.AiResponse;
+import donation.example.donation.system.model.entity.AiCacheEntry;
+import donation.example.donation.system.repository.AiCacheEntryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache for generations that depend only on the item list (descriptions, food tips).
+ *
+ * Keys are the SHA-256 of prompt name, the normalized and sorted items, and the Gemini model
+ * settings, so "Rice, dal" and "dal,  rice" share an entry. The first tier is an in-memory LRU;
+ * the second is the ai_cache_entry table, which survives restarts and is shared by instances.
+ * Only successful generations are stored.
+ *
+ * Prompts listed in {@code ai-cache.similar.prompts} also get a near-duplicate tier: when both
+ * exact tiers miss, an answer stored for an item list whose {@link ItemFeatures} are at least
+ * {@code ai-cache.similar.threshold} Jaccard-similar is served instead of calling Gemini.
+ *
+ * Concurrent misses for the same key share one generation. Its result is stored on a small pool of
+ * {@code ai-cache.write-threads} threads, so the database write never runs on a Gemini thread.
+ */
+@Component
+public class AiGenerationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiGenerationCache.class);
+
+    private static final int LATENCY_SAMPLES = 1024;
+
+    private final AiCacheEntryRepository entryRepository;
+    private final GeminiClient geminiClient;
+    private final BoundedTtlCache<String, String> memory;
+    private final Duration persistentTtl;
+    private final Set<String> similarPrompts;
+    private final int similarMaxSize;
+    private final Duration similarTtl;
+    private final double similarThreshold;
+    private final ConcurrentMap<String, MinHashIndex<String>> similarIndexes = new ConcurrentHashMap<>();
+    private final SingleFlight<String, AiResponse> misses = new SingleFlight<>();
+    private final ExecutorService writeExecutor;
+
+    private final LatencyRecorder memoryLatency = new LatencyRecorder(LATENCY_SAMPLES);
+    private final LatencyRecorder databaseLatency = new LatencyRecorder(LATENCY_SAMPLES);
+    private final LatencyRecorder similarLatency = new LatencyRecorder(LATENCY_SAMPLES);
+    private final LatencyRecorder geminiLatency = new LatencyRecorder(LATENCY_SAMPLES);
+    private final LatencyRecorder similarLookupLatency = new LatencyRecorder(LATENCY_SAMPLES);
+    private final LatencyRecorder overallLatency = new LatencyRecorder(LATENCY_SAMPLES);
+
+    public AiGenerationCache(AiCacheEntryRepository entryRepository,
+                             GeminiClient geminiClient,
+                             @Value("${ai-cache.max-size:1000}") int maxSize,
+                             @Value("${ai-cache.ttl:24h}") Duration ttl,
+                             @Value("${ai-cache.persistent-ttl:30d}") Duration persistentTtl,
+                             @Value("${ai-cache.similar.prompts:food-handling-tips}") Set<String> similarPrompts,
+                             @Value("${ai-cache.similar.threshold:0.8}") double similarThreshold,
+                             @Value("${ai-cache.write-threads:2}") int writeThreads) {
+        this.entryRepository = entryRepository;
+        this.geminiClient = geminiClient;
+        this.memory = new BoundedTtlCache<>(maxSize, ttl);
+        this.persistentTtl = persistentTtl;
+        this.similarPrompts = similarPrompts;
+        this.similarMaxSize = maxSize;
+        this.similarTtl = ttl;
+        this.similarThreshold = similarThreshold;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ai-cache-write-");
+        threadFactory.setDaemon(true);
+        this.writeExecutor = Executors.newFixedThreadPool(writeThreads, threadFactory);
+    }
+
+    /**
+     * Returns the cached generation for the prompt and items, or runs {@code generator} and
+     * stores its result if it succeeds.
+     */
+    public CompletableFuture<AiResponse> getOrGenerate(String promptName, List<String> items,
+                                                       Supplier<CompletableFuture<AiResponse>> generator) {
+        long start = System.nanoTime();
+        String fingerprint = geminiClient.configFingerprint();
+        String key = keyOf(promptName, items, fingerprint);
+        MinHashIndex<String> similar = similarPrompts.contains(promptName)
+                ? similarIndexes.computeIfAbsent(promptName + "\n" + fingerprint,
+                        k -> new MinHashIndex<>(similarMaxSize, similarTtl, similarThreshold))
+                : null;
+        Set<String> features = similar != null ? ItemFeatures.of(items) : Set.of();
+
+        String cached = memory.get(key);
+        if (cached != null) {
+            record(memoryLatency, start);
+            return CompletableFuture.completedFuture(AiResponse.success(cached));
+        }
+
+        Optional<String> stored = findStored(key);
+        if (stored.isPresent()) {
+            memory.put(key, stored.get());
+            if (similar != null) {
+                similar.put(features, stored.get());
+            }
+            record(databaseLatency, start);
+            return CompletableFuture.completedFuture(AiResponse.success(stored.get()));
+        }
+
+        if (similar != null) {
+            long lookupStart = System.nanoTime();
+            Optional<MinHashIndex.Match<String>> match = similar.findSimilar(features);
+            similarLookupLatency.record(System.nanoTime() - lookupStart);
+            if (match.isPresent()) {
+                record(similarLatency, start);
+                return CompletableFuture.completedFuture(AiResponse.success(match.get().value()));
+            }
+        }
+
+        return misses.execute(key, () -> generator.get().thenApplyAsync(response -> {
+            if (response.isSuccess()) {
+                memory.put(key, response.getContent());
+                store(key, promptName, response.getContent());
+                if (similar != null) {
+                    similar.put(features, response.getContent());
+                }
+            }
+            record(geminiLatency, start);
+            return response;
+        }, writeExecutor));
+    }
+
+    public AiCacheStats stats() {
+        long memoryHits = memoryLatency.count();
+        long databaseHits = databaseLatency.count();
+        long similarHits = similarLatency.count();
+        long geminiCalls = geminiLatency.count();
+        long total = memoryHits + databaseHits + similarHits + geminiCalls;
+        long similarLookups = 0;
+        long candidatesChecked = 0;
+        int similarEntries = 0;
+        for (MinHashIndex<String> index : similarIndexes.values()) {
+            similarLookups += index.lookupCount();
+            candidatesChecked += index.candidatesChecked();
+            similarEntries += index.size();
+        }
+        return new AiCacheStats(
+                memoryHits,
+                databaseHits,
+                similarHits,
+                geminiCalls,
+                total == 0 ? 0 : (double) (memoryHits + databaseHits + similarHits) / total,
+                similarLookups == 0 ? 0 : (double) similarHits / similarLookups,
+                memory.size(),
+                memory.evictionCount(),
+                similarEntries,
+                similarLookups == 0 ? 0 : (double) candidatesChecked / similarLookups,
+                memoryLatency.percentileMillis(50),
+                databaseLatency.percentileMillis(50),
+                similarLatency.percentileMillis(50),
+                similarLookupLatency.percentileMillis(50),
+                similarLookupLatency.percentileMillis(99),
+                geminiLatency.percentileMillis(50),
+                geminiLatency.percentileMillis(95),
+                overallLatency.percentileMillis(50));
+    }
+
+    static String keyOf(String promptName, List<String> items, String configFingerprint) {
+        List<String> normalized = items.stream()
+                .filter(Objects::nonNull)
+                .map(item -> item.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT))
+                .filter(item -> !item.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+        String material = promptName + "\n" + String.join("\n", normalized) + "\n" + configFingerprint;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(material.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // A database outage degrades to a cache miss instead of failing the request
+
+    private Optional<String> findStored(String key) {
+        try {
+            return entryRepository.findContent(key, LocalDateTime.now().minus(persistentTtl));
+        } catch (DataAccessException e) {
+            logger.warn("AI cache lookup failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void store(String key, String promptName, String content) {
+        try {
+            entryRepository.save(new AiCacheEntry(key, promptName, content, LocalDateTime.now()));
+        } catch (DataAccessException e) {
+            logger.warn("AI cache write failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writeExecutor.shutdownNow();
+    }
+
+    private void record(LatencyRecorder tier, long start) {
+        long elapsed = System.nanoTime() - start;
+        tier.record(elapsed);
+        overallLatency.record(elapsed);
+    }
+}
@@ -0,0 +1,170 @@
+package donation.example.donation.system.service.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Failure-rate circuit breaker over a rolling time window.
+ *
+ * Outcomes are counted in {@value #BUCKETS} buckets spanning {@code gemini.breaker.window}. Once the
+ * window holds at least {@code minimum-calls} outcomes and the failure share reaches
+ * {@code failure-rate} percent, the breaker opens and rejects calls for {@code open-duration}.
+ * It then lets a single trial call through: success closes it, failure opens it again.
+ *
+ * Every call that {@link #allowRequest()} admits must report exactly one outcome.
+ */
+@Component
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final int BUCKETS = 10;
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final long bucketNanos;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+    private final LongSupplier clock;
+
+    private final long[] bucketIndex = new long[BUCKETS];
+    private final int[] successes = new int[BUCKETS];
+    private final int[] failures = new int[BUCKETS];
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    @Autowired
+    public CircuitBreaker(@Value("${gemini.breaker.window:30s}") Duration window,
+                          @Value("${gemini.breaker.minimum-calls:10}") int minimumCalls,
+                          @Value("${gemini.breaker.failure-rate:50}") int failureRatePercent,
+                          @Value("${gemini.breaker.open-duration:15s}") Duration openDuration) {
+        this(window, minimumCalls, failureRatePercent, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(Duration window, int minimumCalls, int failureRatePercent, Duration openDuration,
+                   LongSupplier clock) {
+        this.bucketNanos = Math.max(1, window.toNanos() / BUCKETS);
+        this.minimumCalls = minimumCalls;
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = openDuration.toNanos();
+        this.clock = clock;
+    }
+
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    public void onSuccess() {
+        record(false);
+    }
+
+    public void onFailure() {
+        record(true);
+    }
+
+    /**
+     * The call ended without saying anything about upstream health, e.g. it was never sent or the
+     * request itself was invalid. Only frees the trial slot when half open.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Share of failed calls in the current window, 0-100.
+     */
+    public synchronized int failureRate() {
+        int[] totals = windowTotals(clock.getAsLong() / bucketNanos);
+        return totals[0] == 0 ? 0 : totals[1] * 100 / totals[0];
+    }
+
+    private synchronized void record(boolean failed) {
+        long now = clock.getAsLong();
+        switch (state) {
+            case HALF_OPEN -> {
+                trialInFlight = false;
+                if (failed) {
+                    open(now);
+                } else {
+                    logger.info("Gemini circuit breaker closed after a successful trial call");
+                    state = State.CLOSED;
+                    clearWindow();
+                }
+            }
+            case OPEN -> {
+                // Outcome of a call admitted before the breaker opened
+            }
+            case CLOSED -> {
+                long index = now / bucketNanos;
+                int slot = (int) Math.floorMod(index, (long) BUCKETS);
+                if (bucketIndex[slot] != index) {
+                    bucketIndex[slot] = index;
+                    successes[slot] = 0;
+                    failures[slot] = 0;
+                }
+                if (failed) {
+                    failures[slot]++;
+                } else {
+                    successes[slot]++;
+                }
+                int[] totals = windowTotals(index);
+                if (failed && totals[0] >= minimumCalls && totals[1] * 100 >= failureRatePercent * totals[0]) {
+                    open(now);
+                }
+            }
+        }
+    }
+
+    // {calls, failures} over the buckets that still fall inside the window
+    private int[] windowTotals(long currentIndex) {
+        int calls = 0;
+        int failed = 0;
+        for (int slot = 0; slot < BUCKETS; slot++) {
+            if (currentIndex - bucketIndex[slot] < BUCKETS) {
+                calls += successes[slot] + failures[slot];
+                failed += failures[slot];
+            }
+        }
+        return new int[]{calls, failed};
+    }
+
+    private void open(long now) {
+        logger.warn("Gemini circuit breaker opened, rejecting calls for {} ms", openNanos / 1_000_000);
+        state = State.OPEN;
+        openedAt = now;
+        clearWindow();
+    }
+
+    private void clearWindow() {
+        for (int slot = 0; slot < BUCKETS; slot++) {
+            successes[slot] = 0;
+            failures[slot] = 0;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package donation.example.donation.system.service.ai;
+
+/**
+ * The call was not attempted because the circuit breaker is open after repeated upstream failures.
+ */
+public class CircuitOpenException extends GeminiException {
+
+    public CircuitOpenException() {
+        super("AI service is temporarily unavailable, please try again shortly");
+    }
+}
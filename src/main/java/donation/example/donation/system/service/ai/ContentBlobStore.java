@@ -0,0 +1,161 @@
+package donation.example.donation.system.service.ai;
+
+import donation.example.donation.system.cache.BoundedTtlCache;
+import donation.example.donation.system.model.entity.ContentBlob;
+import donation.example.donation.system.repository.ContentBlobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Content-addressed storage for generated text.
+ *
+ * Bodies are stored once per distinct text in content_blob, keyed by SHA-256 and deflated, so
+ * the food tips shared by every donation with the same items take one row. Blobs never change,
+ * which makes the decompressed-body cache in front of the table safe to keep without invalidation.
+ *
+ * Writes must run outside a transaction: a concurrent write of the same body is retried, which
+ * Postgres refuses inside a transaction that has already failed a statement.
+ */
+@Component
+public class ContentBlobStore {
+
+    private final ContentBlobRepository blobRepository;
+    private final BoundedTtlCache<String, String> bodies;
+
+    public ContentBlobStore(ContentBlobRepository blobRepository,
+                            @Value("${ai-content.body-cache.max-size:2000}") int cacheSize,
+                            @Value("${ai-content.body-cache.ttl:1h}") Duration cacheTtl) {
+        this.blobRepository = blobRepository;
+        this.bodies = new BoundedTtlCache<>(cacheSize, cacheTtl);
+    }
+
+    /**
+     * Stores the text unless an identical body already exists and returns its hash.
+     */
+    public String save(String text) {
+        return saveAll(List.of(text)).get(0);
+    }
+
+    /**
+     * Stores all texts with one batched insert and returns their hashes in input order.
+     */
+    public List<String> saveAll(List<String> texts) {
+        List<String> hashes = new ArrayList<>(texts.size());
+        Map<String, String> pending = new LinkedHashMap<>();
+        for (String text : texts) {
+            String hash = hashOf(text);
+            hashes.add(hash);
+            pending.put(hash, text);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ContentBlob> blobs = new ArrayList<>(pending.size());
+        pending.forEach((hash, text) -> {
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            blobs.add(new ContentBlob(hash, compress(utf8), utf8.length, now));
+        });
+        try {
+            blobRepository.insertMissing(blobs);
+        } catch (DataIntegrityViolationException e) {
+            // Another writer stored one of these bodies between our check and insert; it is
+            // committed by the time the key conflict is reported, so the retry skips it
+            blobRepository.insertMissing(blobs);
+        }
+        pending.forEach(bodies::put);
+        return hashes;
+    }
+
+    /**
+     * Bodies by hash, reading only the cache misses from the table in one query. Unknown hashes
+     * are left out of the result.
+     */
+    public Map<String, String> getAll(Collection<String> hashes) {
+        Map<String, String> found = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (String hash : hashes) {
+            String body = bodies.get(hash);
+            if (body != null) {
+                found.put(hash, body);
+            } else {
+                missing.add(hash);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (ContentBlob blob : blobRepository.findAllById(missing)) {
+                String body = new String(decompress(blob.getBody(), blob.getOriginalSize()), StandardCharsets.UTF_8);
+                bodies.put(blob.getHash(), body);
+                found.put(blob.getHash(), body);
+            }
+        }
+        return found;
+    }
+
+    static String hashOf(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static byte[] compress(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] decompress(byte[] input, int originalSize) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[originalSize];
+            int length = 0;
+            while (length < originalSize && !inflater.finished()) {
+                int read = inflater.inflate(output, length, originalSize - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != originalSize) {
+                throw new IllegalStateException("Content blob is truncated");
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Content blob is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
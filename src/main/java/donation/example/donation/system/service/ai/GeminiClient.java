@@ -0,0 +1,453 @@
+package donation.example.donation.system.service.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import donation.example.donation.system.dto.ai.AiUpstreamStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking HTTP client for the Gemini generateContent API.
+ *
+ * One shared {@link HttpClient} keeps connections alive between calls, and every request has a
+ * connect timeout and a total timeout that covers the whole exchange, body included. At most {@code gemini.max-in-flight} calls are outstanding at once;
+ * further calls fail immediately instead of queueing, so a slow upstream cannot pile up work.
+ * Responses are handled on a small dedicated pool, never on servlet threads.
+ *
+ * A {@link CircuitBreaker} sits in front of every call, so an upstream that keeps timing out or
+ * returning 429/5xx is left alone for a while instead of being retried by every request.
+ */
+@Component
+public class GeminiClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiClient.class);
+
+    private static final double TEMPERATURE = 0.7;
+    private static final int MAX_OUTPUT_TOKENS = 500;
+
+    // Hedge after this percentile of recent successful call latencies, once enough have been seen
+    private static final double HEDGE_PERCENTILE = 95;
+    private static final int MIN_HEDGE_SAMPLES = 20;
+    private static final long MIN_HEDGE_DELAY_MILLIS = 50;
+
+    private final ObjectMapper objectMapper;
+    private final CircuitBreaker breaker;
+    private final String apiKey;
+    private final String apiUrl;
+    private final String streamUrl;
+    private final Duration requestTimeout;
+    private final long maxHedgeDelayMillis;
+    private final Semaphore inFlight;
+    private final LatencyRecorder latency = new LatencyRecorder(256);
+    private final LongAdder hedges = new LongAdder();
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+
+    public GeminiClient(ObjectMapper objectMapper,
+                        CircuitBreaker breaker,
+                        @Value("${gemini.api.key}") String apiKey,
+                        @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:generateContent}") String apiUrl,
+                        @Value("${gemini.connect-timeout:3s}") Duration connectTimeout,
+                        @Value("${gemini.request-timeout:20s}") Duration requestTimeout,
+                        @Value("${gemini.hedge.max-delay:2s}") Duration maxHedgeDelay,
+                        @Value("${gemini.max-in-flight:16}") int maxInFlight,
+                        @Value("${gemini.threads:4}") int threads) {
+        this.objectMapper = objectMapper;
+        this.breaker = breaker;
+        this.apiKey = apiKey;
+        this.apiUrl = apiUrl;
+        // Same model, server-sent events variant of the endpoint
+        this.streamUrl = apiUrl.replace(":generateContent", ":streamGenerateContent");
+        this.requestTimeout = requestTimeout;
+        this.maxHedgeDelayMillis = maxHedgeDelay.toMillis();
+        this.inFlight = new Semaphore(maxInFlight);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("gemini-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Sends the prompt and completes with the generated text, or exceptionally with a
+     * {@link GeminiException}.
+     */
+    public CompletableFuture<String> generate(String prompt) {
+        return generate(prompt, MAX_OUTPUT_TOKENS);
+    }
+
+    /**
+     * As {@link #generate(String)}, with a larger output budget for prompts that ask for several answers at once.
+     */
+    public CompletableFuture<String> generate(String prompt, int maxOutputTokens) {
+        GeminiException rejected = admit();
+        if (rejected != null) {
+            return CompletableFuture.failedFuture(rejected);
+        }
+        long start = System.nanoTime();
+        try {
+            logger.info("Calling Gemini API with prompt length: {}", prompt.length());
+            CompletableFuture<HttpResponse<String>> response =
+                    send(buildRequest(prompt, maxOutputTokens), HttpResponse.BodyHandlers.ofString());
+            CompletableFuture<String> call = response.thenApply(this::extractText)
+                    .whenComplete((text, error) -> {
+                        if (error == null) {
+                            latency.record(System.nanoTime() - start);
+                        }
+                        finish(error);
+                    });
+            // A copy, so cancelling it still runs finish() as the cancelled exchange unwinds
+            return cancelling(call.copy(), response);
+        } catch (RuntimeException e) {
+            release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * For prompts that are safe to send twice. If no answer has arrived after the recent p95 latency
+     * (at most {@code gemini.hedge.max-delay}), or the first attempt fails upstream, one identical
+     * request is sent alongside and the first success wins; the other attempt is cancelled, which
+     * aborts its exchange and frees its permit. The hedge needs its own in-flight permit and a closed
+     * breaker, so it never adds load to a struggling upstream.
+     */
+    public CompletableFuture<String> generateHedged(String prompt) {
+        return new Hedge(prompt).start();
+    }
+
+    /**
+     * Streams the generation: {@code onChunk} receives each piece of text as Gemini produces it, on a
+     * client thread, and the future completes with the whole text once the stream ends. Shares the
+     * in-flight limit with {@link #generate(String)}.
+     */
+    public CompletableFuture<String> stream(String prompt, Consumer<String> onChunk) {
+        GeminiException rejected = admit();
+        if (rejected != null) {
+            return CompletableFuture.failedFuture(rejected);
+        }
+        try {
+            logger.info("Streaming Gemini API with prompt length: {}", prompt.length());
+            SseTextSubscriber subscriber = new SseTextSubscriber(onChunk);
+            HttpRequest request = buildRequest(URI.create(streamUrl + "?alt=sse&key=" + apiKey), prompt, MAX_OUTPUT_TOKENS);
+            return send(request, info -> info.statusCode() == 200
+                            ? HttpResponse.BodySubscribers.fromLineSubscriber(subscriber)
+                            : HttpResponse.BodySubscribers.replacing(null))
+                    .thenApply(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new GeminiException("Gemini API returned status: " + response.statusCode(),
+                                    response.statusCode());
+                        }
+                        String text = subscriber.text().trim();
+                        if (text.isEmpty()) {
+                            throw new GeminiException("Unable to extract text from Gemini response");
+                        }
+                        return text;
+                    })
+                    .whenComplete((text, error) -> finish(error));
+        } catch (RuntimeException e) {
+            release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Identifies the model and generation settings, so cached output is not reused after they change.
+     */
+    public String configFingerprint() {
+        return apiUrl + "|temperature=" + TEMPERATURE + "|maxOutputTokens=" + MAX_OUTPUT_TOKENS;
+    }
+
+    public int availablePermits() {
+        return inFlight.availablePermits();
+    }
+
+    public AiUpstreamStats stats() {
+        return new AiUpstreamStats(
+                breaker.state().name(),
+                breaker.failureRate(),
+                latency.count(),
+                latency.percentileMillis(50),
+                latency.percentileMillis(99),
+                hedgeDelayMillis(),
+                hedges.sum());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sends the request and fails with an {@link HttpTimeoutException} if the response, body
+     * included, is not complete within the request timeout. {@link HttpRequest#timeout} only covers
+     * the wait for the headers, so an upstream that stalls mid-body would otherwise keep the call,
+     * its in-flight permit and any breaker trial slot forever. The stalled exchange is aborted, as it
+     * is when the returned future is cancelled.
+     */
+    private <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        CompletableFuture<HttpResponse<T>> exchange = httpClient.sendAsync(request, handler);
+        return cancelling(exchange.copy()
+                .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(error -> {
+                    if (error instanceof TimeoutException) {
+                        exchange.cancel(true);
+                        throw new CompletionException(
+                                new HttpTimeoutException("Gemini response not complete after " + requestTimeout));
+                    }
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                }), exchange);
+    }
+
+    // Cancelling a dependent stage does not reach the stage it was derived from; this passes it on
+    private static <T> CompletableFuture<T> cancelling(CompletableFuture<T> future, Future<?> upstream) {
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                upstream.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Takes an in-flight permit and asks the breaker; returns why the call may not go ahead, or null.
+     */
+    private GeminiException admit() {
+        if (!inFlight.tryAcquire()) {
+            return new GeminiException("AI service is busy, please try again shortly");
+        }
+        if (!breaker.allowRequest()) {
+            inFlight.release();
+            return new CircuitOpenException();
+        }
+        return null;
+    }
+
+    private void finish(Throwable error) {
+        inFlight.release();
+        if (error == null) {
+            breaker.onSuccess();
+        } else if (isUpstreamFailure(error)) {
+            breaker.onFailure();
+        } else {
+            breaker.onIgnored();
+        }
+    }
+
+    // The request was never sent
+    private void release() {
+        inFlight.release();
+        breaker.onIgnored();
+    }
+
+    // Timeouts, connection errors, throttling, server errors and garbled replies count against the
+    // upstream; a rejected request or a reply without text does not
+    private static boolean isUpstreamFailure(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof IOException) {
+            return true;
+        }
+        if (cause instanceof GeminiException gemini) {
+            return gemini.getStatus() == 429 || gemini.getStatus() >= 500
+                    || gemini.getCause() instanceof JsonProcessingException;
+        }
+        return false;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private long hedgeDelayMillis() {
+        if (latency.count() < MIN_HEDGE_SAMPLES) {
+            return maxHedgeDelayMillis;
+        }
+        long p95 = (long) latency.percentileMillis(HEDGE_PERCENTILE);
+        return Math.min(Math.max(p95, MIN_HEDGE_DELAY_MILLIS), maxHedgeDelayMillis);
+    }
+
+    private HttpRequest buildRequest(String prompt, int maxOutputTokens) {
+        return buildRequest(URI.create(apiUrl + "?key=" + apiKey), prompt, maxOutputTokens);
+    }
+
+    private HttpRequest buildRequest(URI uri, String prompt, int maxOutputTokens) {
+        Map<String, Object> requestBody = Map.of(
+                "contents", List.of(Map.of("parts", List.of(Map.of("text", prompt)))),
+                "generationConfig", Map.of("temperature", TEMPERATURE, "maxOutputTokens", maxOutputTokens));
+        try {
+            return HttpRequest.newBuilder(uri)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(requestBody)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new GeminiException("Could not encode Gemini request", e);
+        }
+    }
+
+    private String extractText(HttpResponse<String> response) {
+        if (response.statusCode() != 200 || response.body() == null) {
+            throw new GeminiException("Gemini API returned status: " + response.statusCode(), response.statusCode());
+        }
+        try {
+            JsonNode parts = objectMapper.readTree(response.body())
+                    .path("candidates").path(0).path("content").path("parts");
+            if (parts.isArray() && parts.size() > 0) {
+                return parts.get(0).path("text").asText().trim();
+            }
+        } catch (JsonProcessingException e) {
+            throw new GeminiException("Malformed Gemini response", e);
+        }
+        throw new GeminiException("Unable to extract text from Gemini response");
+    }
+
+    /**
+     * One hedged generation: the first attempt, at most one extra attempt, and the shared result.
+     */
+    private class Hedge {
+
+        private final String prompt;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private final AtomicBoolean hedged = new AtomicBoolean();
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+        private final List<CompletableFuture<String>> attempts = new CopyOnWriteArrayList<>();
+
+        Hedge(String prompt) {
+            this.prompt = prompt;
+        }
+
+        CompletableFuture<String> start() {
+            launch();
+            CompletableFuture.delayedExecutor(hedgeDelayMillis(), TimeUnit.MILLISECONDS, executor).execute(this::fire);
+            return result;
+        }
+
+        private void fire() {
+            if (result.isDone() || breaker.state() != CircuitBreaker.State.CLOSED || !hedged.compareAndSet(false, true)) {
+                return;
+            }
+            outstanding.incrementAndGet();
+            hedges.increment();
+            launch();
+        }
+
+        private void launch() {
+            CompletableFuture<String> attempt = generate(prompt);
+            attempts.add(attempt);
+            // The other attempt may have won while this one was being sent
+            if (result.isDone()) {
+                attempt.cancel(true);
+            }
+            attempt.whenComplete(this::settle);
+        }
+
+        private void settle(String text, Throwable error) {
+            if (error == null) {
+                // The loser is cancelled first, so its permit is back by the time the caller sees the answer
+                attempts.forEach(attempt -> attempt.cancel(true));
+                result.complete(text);
+                return;
+            }
+            if (isUpstreamFailure(error)) {
+                fire();
+            }
+            if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(unwrap(error));
+            }
+        }
+    }
+
+    /**
+     * Reads {@code data:} lines of the event stream as they arrive; each carries a partial
+     * generateContent response whose text parts are passed on and accumulated.
+     */
+    private class SseTextSubscriber implements Flow.Subscriber<String> {
+
+        private final Consumer<String> onChunk;
+        private final StringBuilder text = new StringBuilder();
+
+        SseTextSubscriber(Consumer<String> onChunk) {
+            this.onChunk = onChunk;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!line.startsWith("data:")) {
+                return;
+            }
+            JsonNode parts;
+            try {
+                parts = objectMapper.readTree(line.substring(5).trim())
+                        .path("candidates").path(0).path("content").path("parts");
+            } catch (JsonProcessingException e) {
+                logger.warn("Skipping malformed Gemini stream event: {}", e.getOriginalMessage());
+                return;
+            }
+            for (JsonNode part : parts) {
+                String chunk = part.path("text").asText("");
+                if (!chunk.isEmpty()) {
+                    synchronized (text) {
+                        text.append(chunk);
+                    }
+                    try {
+                        onChunk.accept(chunk);
+                    } catch (RuntimeException e) {
+                        // A listener that went away must not cut the generation short
+                        logger.debug("Stream listener failed: {}", e.toString());
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // Surfaces through the response future
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        String text() {
+            synchronized (text) {
+                return text.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package donation.example.donation.system.service.ai;
+
+/**
+ * Gemini could not produce a response: the call failed, timed out, or was turned away because
+ * too many calls were already in flight.
+ */
+public class GeminiException extends RuntimeException {
+
+    // HTTP status returned by Gemini, 0 when the call did not get that far
+    private final int status;
+
+    public GeminiException(String message) {
+        this(message, 0);
+    }
+
+    public GeminiException(String message, int status) {
+        super(message);
+        this.status = status;
+    }
+
+    public GeminiException(String message, Throwable cause) {
+        super(message, cause);
+        this.status = 0;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -1,149 +1,263 @@
 package donation.example.donation.system.service.ai;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import donation.example.donation.system.dto.ai.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class GeminiService {
 
     private static final Logger logger = LoggerFactory.getLogger(GeminiService.class);
 
-    @Value("${gemini.api.key}")
-    private String apiKey;
+    // Donations packed into one thank-you prompt, and the output budget reserved for each message
+    private static final int THANK_YOU_BATCH_SIZE = 10;
+    private static final int TOKENS_PER_THANK_YOU = 250;
 
-    @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:generateContent}")
-    private String apiUrl;
+    // Local template used for thank you messages while Gemini is unavailable
+    private static final String THANK_YOU_FALLBACK = "thank-you-fallback";
 
     private final PromptService promptService;
-    private final RestTemplate restTemplate;
+    private final GeminiClient geminiClient;
+    private final AiGenerationCache generationCache;
     private final ObjectMapper objectMapper;
 
-    public GeminiService(PromptService promptService) {
+    public GeminiService(PromptService promptService, GeminiClient geminiClient, AiGenerationCache generationCache,
+                         ObjectMapper objectMapper) {
         this.promptService = promptService;
-        this.restTemplate = new RestTemplate();
-        this.objectMapper = new ObjectMapper();
+        this.geminiClient = geminiClient;
+        this.generationCache = generationCache;
+        this.objectMapper = objectMapper;
     }
 
    
-    public AiResponse generateDescription(List<String> items) {
-        try {
-            String itemsStr = String.join(", ", items);
-            Map<String, String> variables = new HashMap<>();
-            variables.put("items", itemsStr);
-
-            String prompt = promptService.fillPrompt("donation-description", variables);
-            String response = callGeminiApi(prompt);
+    public CompletableFuture<AiResponse> generateDescription(List<String> items) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("items", String.join(", ", items));
 
-            return AiResponse.success(response);
-        } catch (Exception e) {
-            logger.error("Error generating description: ", e);
-            return AiResponse.error("Failed to generate description: " + e.getMessage());
-        }
+        return generationCache.getOrGenerate("donation-description", items,
+                () -> generate("donation-description", variables, "Failed to generate description: ",
+                        geminiClient::generateHedged, null));
     }
 
     
-    public AiResponse getFoodHandlingTips(List<String> items) {
-        try {
-            String itemsStr = String.join(", ", items);
-            Map<String, String> variables = new HashMap<>();
-            variables.put("items", itemsStr);
+    public CompletableFuture<AiResponse> getFoodHandlingTips(List<String> items) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("items", String.join(", ", items));
+
+        return generationCache.getOrGenerate("food-handling-tips", items,
+                () -> generate("food-handling-tips", variables, "Failed to get food handling tips: ",
+                        geminiClient::generateHedged, null));
+    }
+
+   
+    public CompletableFuture<AiResponse> generateThankYouMessage(String donorName, List<String> items, String date) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("donorName", donorName);
+        variables.put("items", String.join(", ", items));
+        variables.put("date", date);
+
+        return generate("thank-you-message", variables, "Failed to generate thank you message: ",
+                geminiClient::generate, THANK_YOU_FALLBACK);
+    }
 
-            String prompt = promptService.fillPrompt("food-handling-tips", variables);
-            String response = callGeminiApi(prompt);
+    /**
+     * Streaming variant of {@link #getFoodHandlingTips}: text is passed to {@code onChunk} as it is
+     * generated. A cached answer, or one generated for a concurrent request, is passed as one chunk.
+     */
+    public CompletableFuture<AiResponse> streamFoodHandlingTips(List<String> items, Consumer<String> onChunk) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("items", String.join(", ", items));
+
+        AtomicBoolean streamed = new AtomicBoolean();
+        Consumer<String> relay = chunk -> {
+            streamed.set(true);
+            onChunk.accept(chunk);
+        };
+        return generationCache.getOrGenerate("food-handling-tips", items,
+                        () -> generate("food-handling-tips", variables, "Failed to get food handling tips: ",
+                                prompt -> geminiClient.stream(prompt, relay), null))
+                .thenApply(response -> {
+                    if (response.isSuccess() && !streamed.get()) {
+                        onChunk.accept(response.getContent());
+                    }
+                    return response;
+                });
+    }
+
+    public CompletableFuture<AiResponse> streamThankYouMessage(String donorName, List<String> items, String date,
+                                                               Consumer<String> onChunk) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("donorName", donorName);
+        variables.put("items", String.join(", ", items));
+        variables.put("date", date);
 
-            return AiResponse.success(response);
-        } catch (Exception e) {
-            logger.error("Error getting food tips: ", e);
-            return AiResponse.error("Failed to get food handling tips: " + e.getMessage());
+        return generate("thank-you-message", variables, "Failed to generate thank you message: ",
+                        prompt -> geminiClient.stream(prompt, onChunk), THANK_YOU_FALLBACK)
+                .thenApply(response -> {
+                    if (response.isFallback()) {
+                        onChunk.accept(response.getContent());
+                    }
+                    return response;
+                });
+    }
+
+    /**
+     * Generates thank you messages for many donations with one Gemini call per
+     * {@value #THANK_YOU_BATCH_SIZE} donations. Donations missing from a reply, or from a reply
+     * that is not the expected JSON array, are generated one at a time instead.
+     * Completes with a response for every donation id, in input order.
+     */
+    public CompletableFuture<Map<Long, AiResponse>> generateThankYouMessages(List<ThankYouCandidate> donations) {
+        List<CompletableFuture<Map<Long, AiResponse>>> batches = new ArrayList<>();
+        for (int from = 0; from < donations.size(); from += THANK_YOU_BATCH_SIZE) {
+            batches.add(generateThankYouBatch(
+                    donations.subList(from, Math.min(from + THANK_YOU_BATCH_SIZE, donations.size()))));
         }
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<Long, AiResponse> results = new LinkedHashMap<>();
+            batches.forEach(batch -> results.putAll(batch.join()));
+            return results;
+        });
     }
 
-   
-    public AiResponse generateThankYouMessage(String donorName, List<String> items, String date) {
+    private CompletableFuture<Map<Long, AiResponse>> generateThankYouBatch(List<ThankYouCandidate> batch) {
+        CompletableFuture<String> call;
         try {
-            String itemsStr = String.join(", ", items);
-            Map<String, String> variables = new HashMap<>();
-            variables.put("donorName", donorName);
-            variables.put("items", itemsStr);
-            variables.put("date", date);
-
-            String prompt = promptService.fillPrompt("thank-you-message", variables);
-            String response = callGeminiApi(prompt);
-
-            return AiResponse.success(response);
-        } catch (Exception e) {
-            logger.error("Error generating thank you message: ", e);
-            return AiResponse.error("Failed to generate thank you message: " + e.getMessage());
+            String prompt = promptService.fillPrompt("thank-you-batch", Map.of("donations", toPromptJson(batch)));
+            call = geminiClient.generate(prompt, TOKENS_PER_THANK_YOU * batch.size());
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
         }
+        return call.handle((text, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof CircuitOpenException) {
+                    // Each message falls back to the local template
+                    return completeIndividually(batch, Map.<Long, String>of());
+                }
+                logger.error("Gemini batch call for {} thank you messages failed: {}", batch.size(), cause.toString());
+                AiResponse failed = AiResponse.error("Failed to generate thank you message: " + cause.getMessage());
+                Map<Long, AiResponse> results = new LinkedHashMap<>();
+                batch.forEach(donation -> results.put(donation.getDonationId(), failed));
+                return CompletableFuture.completedFuture(results);
+            }
+            return completeIndividually(batch, parseMessages(text));
+        }).thenCompose(results -> results);
     }
 
-    
-    private String callGeminiApi(String prompt) throws Exception {
-        String url = apiUrl + "?key=" + apiKey;
-
-        // Build request body for Gemini API
-        Map<String, Object> requestBody = new HashMap<>();
-        Map<String, Object> content = new HashMap<>();
-        Map<String, String> part = new HashMap<>();
-
-        part.put("text", prompt);
-        content.put("parts", List.of(part));
-        requestBody.put("contents", List.of(content));
-
-        // Add generation config
-        Map<String, Object> generationConfig = new HashMap<>();
-        generationConfig.put("temperature", 0.7);
-        generationConfig.put("maxOutputTokens", 500);
-        requestBody.put("generationConfig", generationConfig);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-        logger.info("Calling Gemini API with prompt length: {}", prompt.length());
-
-        ResponseEntity<String> response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                entity,
-                String.class
-        );
-
-        if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-            return extractTextFromResponse(response.getBody());
-        } else {
-            throw new RuntimeException("Gemini API returned status: " + response.getStatusCode());
+    /**
+     * Uses the batched messages where present and generates the rest one after another, so a bad
+     * batch reply adds at most one outstanding call per batch.
+     */
+    private CompletableFuture<Map<Long, AiResponse>> completeIndividually(List<ThankYouCandidate> batch,
+                                                                          Map<Long, String> messages) {
+        Map<Long, AiResponse> results = new HashMap<>();
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        int fallbacks = 0;
+        for (ThankYouCandidate donation : batch) {
+            String message = messages.get(donation.getDonationId());
+            if (message != null) {
+                results.put(donation.getDonationId(), AiResponse.success(message));
+                continue;
+            }
+            fallbacks++;
+            chain = chain.thenCompose(previous -> generateThankYouMessage(
+                            donation.donorNameForPrompt(), donation.getItems(), donation.dateForPrompt()))
+                    .thenAccept(response -> results.put(donation.getDonationId(), response));
+        }
+        if (fallbacks > 0) {
+            logger.warn("Batch reply covered {} of {} donations, generating the rest individually",
+                    batch.size() - fallbacks, batch.size());
+        }
+        return chain.thenApply(done -> {
+            Map<Long, AiResponse> ordered = new LinkedHashMap<>();
+            batch.forEach(donation -> ordered.put(donation.getDonationId(), results.get(donation.getDonationId())));
+            return ordered;
+        });
+    }
+
+    private String toPromptJson(List<ThankYouCandidate> batch) {
+        List<Map<String, Object>> entries = new ArrayList<>(batch.size());
+        for (ThankYouCandidate donation : batch) {
+            entries.add(Map.of(
+                    "id", donation.getDonationId(),
+                    "donorName", donation.donorNameForPrompt(),
+                    "items", donation.getItems(),
+                    "date", donation.dateForPrompt()));
+        }
+        try {
+            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(entries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode thank you batch", e);
         }
     }
 
     /**
-     * Extract the generated text from Gemini API response
+     * Reads the {@code [{"id": ..., "message": ...}]} reply, tolerating a markdown code fence
+     * around it. Returns an empty map when the reply is not usable at all.
      */
-    private String extractTextFromResponse(String responseBody) throws Exception {
-        JsonNode root = objectMapper.readTree(responseBody);
-
-        JsonNode candidates = root.path("candidates");
-        if (candidates.isArray() && candidates.size() > 0) {
-            JsonNode content = candidates.get(0).path("content");
-            JsonNode parts = content.path("parts");
-            if (parts.isArray() && parts.size() > 0) {
-                return parts.get(0).path("text").asText().trim();
+    private Map<Long, String> parseMessages(String text) {
+        Map<Long, String> messages = new HashMap<>();
+        int start = text.indexOf('[');
+        int end = text.lastIndexOf(']');
+        if (start < 0 || end <= start) {
+            logger.warn("Batch reply is not a JSON array");
+            return messages;
+        }
+        try {
+            for (JsonNode entry : objectMapper.readTree(text.substring(start, end + 1))) {
+                long id = entry.path("id").asLong(-1);
+                String message = entry.path("message").asText("").trim();
+                if (id >= 0 && !message.isEmpty()) {
+                    messages.put(id, message);
+                }
             }
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not parse batch reply: {}", e.getOriginalMessage());
         }
+        return messages;
+    }
 
-        throw new RuntimeException("Unable to extract text from Gemini response");
+    /**
+     * Fills the prompt and sends it; failures complete normally as an error response. While the
+     * circuit breaker is open, a {@code fallbackPrompt} (if any) is rendered locally with the same
+     * variables instead.
+     */
+    private CompletableFuture<AiResponse> generate(String promptName, Map<String, String> variables, String errorPrefix,
+                                                   Function<String, CompletableFuture<String>> send,
+                                                   String fallbackPrompt) {
+        CompletableFuture<String> call;
+        try {
+            call = send.apply(promptService.fillPrompt(promptName, variables));
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.handle((text, error) -> {
+            if (error == null) {
+                return AiResponse.success(text);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (fallbackPrompt != null && cause instanceof CircuitOpenException) {
+                logger.info("Gemini unavailable, rendering {} locally", fallbackPrompt);
+                return AiResponse.fallback(promptService.fillPrompt(fallbackPrompt, variables));
+            }
+            logger.error("Gemini call for {} failed: {}", promptName, cause.toString());
+            return AiResponse.error(errorPrefix + cause.getMessage());
+        });
     }
 }
@@ -0,0 +1,78 @@
+package donation.example.donation.system.service.ai;
+
+import donation.example.donation.system.type.Unit;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Turns a free-text item list into the feature set compared by the near-duplicate cache.
+ *
+ * Quantities and units are stripped, whatever spelling they use ("5kg", "2 litres", "bread
+ * loaves", "10 pcs"), because they don't change how food should be handled. The remaining words
+ * are lowercased and singularized, and each contributes itself plus its character trigrams, so
+ * "Rice 5kg, bread" and "bread loaves, rice" produce the same set and "chapati"/"chapatti"
+ * still overlap heavily.
+ */
+final class ItemFeatures {
+
+    // Every Unit constant (LITERS and PIECES are its own aliases) plus common spellings
+    private static final Set<String> UNIT_WORDS = Stream.concat(
+            Arrays.stream(Unit.values()).filter(unit -> unit != Unit.OTHER).map(unit -> unit.name().toLowerCase(Locale.ROOT)),
+            Stream.of("kgs", "kilo", "kilos", "kilogram", "kilograms", "g", "gm", "gms", "grams",
+                    "l", "ltr", "ltrs", "litres", "liter", "litre", "liters", "millilitre", "milliliter",
+                    "unit", "pc", "pcs", "piece", "box", "loaf", "dozen",
+                    "pack", "packs", "packet", "packets", "bag", "bags", "can", "cans", "tin", "tins", "bottle", "bottles"))
+            .collect(Collectors.toUnmodifiableSet());
+
+    private static final Set<String> STOP_WORDS = Set.of("of", "and", "with", "a", "an", "the", "x");
+
+    private ItemFeatures() {
+    }
+
+    static Set<String> of(List<String> items) {
+        Set<String> features = new HashSet<>();
+        for (String item : items) {
+            if (item == null) {
+                continue;
+            }
+            String text = item.toLowerCase(Locale.ROOT)
+                    .replaceAll("(\\d)(\\p{L})", "$1 $2")
+                    .replaceAll("[^\\p{L}\\p{Nd}]+", " ");
+            for (String word : text.trim().split(" ")) {
+                if (word.isEmpty() || Character.isDigit(word.charAt(0))
+                        || UNIT_WORDS.contains(word) || STOP_WORDS.contains(word)) {
+                    continue;
+                }
+                addWord(features, singular(word));
+            }
+        }
+        return features;
+    }
+
+    private static void addWord(Set<String> features, String word) {
+        features.add(word);
+        String padded = "^" + word + "$";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            features.add("#" + padded.substring(i, i + 3));
+        }
+    }
+
+    private static String singular(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 4 && (word.endsWith("oes") || word.endsWith("ches") || word.endsWith("shes"))) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+}
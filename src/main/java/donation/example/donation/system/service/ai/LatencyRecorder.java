@@ -0,0 +1,49 @@
+package donation.example.donation.system.service.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the most recent latency samples in a fixed ring and reports percentiles over them.
+ * Recording is O(1); percentiles sort a copy, so rings read on every request should stay small.
+ */
+public class LatencyRecorder {
+
+    private final long[] samples;
+    private final LongAdder count = new LongAdder();
+    private int next;
+    private int filled;
+
+    public LatencyRecorder(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public void record(long nanos) {
+        count.increment();
+        synchronized (samples) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            filled = Math.min(filled + 1, samples.length);
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the given percentile (0-100) of the retained samples in milliseconds, or 0 if empty.
+     */
+    public double percentileMillis(double percentile) {
+        long[] copy;
+        synchronized (samples) {
+            copy = Arrays.copyOf(samples, filled);
+        }
+        if (copy.length == 0) {
+            return 0;
+        }
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(percentile / 100.0 * copy.length) - 1;
+        return copy[Math.max(0, Math.min(index, copy.length - 1))] / 1_000_000.0;
+    }
+}
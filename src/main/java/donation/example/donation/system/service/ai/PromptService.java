@@ -1,43 +1,119 @@
 package donation.example.donation.system.service.ai;
 
-import org.springframework.core.io.ClassPathResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileCopyUtils;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
+/**
+ * Compiles every prompts/*.txt template once at startup into an immutable map.
+ *
+ * If {@code prompts.reload-dir} points at a directory, *.txt files there override the bundled
+ * templates and are re-read when they change (checked at most every
+ * {@code prompts.reload-interval}). A reload that fails to parse keeps the previous templates.
+ */
 @Service
 public class PromptService {
 
-    private final Map<String, String> promptCache = new HashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(PromptService.class);
+
+    private static final String SUFFIX = ".txt";
+
+    private final Map<String, PromptTemplate> bundled;
+    private final Path reloadDir;
+    private final long reloadIntervalNanos;
+
+    private volatile Map<String, PromptTemplate> templates;
+    private volatile long reloadSignature;
+    private volatile long nextCheck;
+
+    public PromptService(@Value("${prompts.reload-dir:}") String reloadDir,
+                         @Value("${prompts.reload-interval:5s}") Duration reloadInterval) {
+        this.bundled = loadBundled();
+        this.reloadDir = reloadDir.isBlank() ? null : Path.of(reloadDir);
+        this.reloadIntervalNanos = reloadInterval.toNanos();
+        this.templates = bundled;
+        if (this.reloadDir != null) {
+            reloadIfChanged();
+        }
+        logger.info("Loaded {} prompt templates", templates.size());
+    }
 
     public String getPrompt(String promptName) {
-        if (promptCache.containsKey(promptName)) {
-            return promptCache.get(promptName);
+        return getTemplate(promptName).getSource();
+    }
+
+    public String fillPrompt(String promptName, Map<String, String> variables) {
+        return getTemplate(promptName).render(variables);
+    }
+
+    public PromptTemplate getTemplate(String promptName) {
+        if (reloadDir != null && System.nanoTime() - nextCheck > 0) {
+            reloadIfChanged();
+        }
+        PromptTemplate template = templates.get(promptName);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown prompt: " + promptName);
         }
+        return template;
+    }
 
+    private static Map<String, PromptTemplate> loadBundled() {
+        Map<String, PromptTemplate> compiled = new HashMap<>();
         try {
-            ClassPathResource resource = new ClassPathResource("prompts/" + promptName + ".txt");
-            InputStreamReader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8);
-            String content = FileCopyUtils.copyToString(reader);
-            promptCache.put(promptName, content);
-            return content;
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath:prompts/*" + SUFFIX)) {
+                String name = stripSuffix(resource.getFilename());
+                try (InputStreamReader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+                    compiled.put(name, PromptTemplate.compile(name, FileCopyUtils.copyToString(reader)));
+                }
+            }
         } catch (IOException e) {
-            throw new RuntimeException("Failed to load prompt: " + promptName, e);
+            throw new UncheckedIOException("Failed to load prompts", e);
         }
+        return Map.copyOf(compiled);
     }
 
-    public String fillPrompt(String promptName, Map<String, String> variables) {
-        String prompt = getPrompt(promptName);
+    private synchronized void reloadIfChanged() {
+        nextCheck = System.nanoTime() + reloadIntervalNanos;
+        try (Stream<Path> files = Files.list(reloadDir)) {
+            Path[] prompts = files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).toArray(Path[]::new);
+            // Changes when any file is added, removed or modified
+            long signature = prompts.length;
+            for (Path file : prompts) {
+                signature += 31 * Files.getLastModifiedTime(file).toMillis() + file.getFileName().hashCode();
+            }
+            if (signature == reloadSignature) {
+                return;
+            }
 
-        for (Map.Entry<String, String> entry : variables.entrySet()) {
-            prompt = prompt.replace("{{" + entry.getKey() + "}}", entry.getValue());
+            Map<String, PromptTemplate> compiled = new HashMap<>(bundled);
+            for (Path file : prompts) {
+                String name = stripSuffix(file.getFileName().toString());
+                compiled.put(name, PromptTemplate.compile(name, Files.readString(file, StandardCharsets.UTF_8)));
+            }
+            templates = Map.copyOf(compiled);
+            reloadSignature = signature;
+            logger.info("Reloaded {} prompt templates from {}", prompts.length, reloadDir);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("Prompt reload from {} failed, keeping previous templates: {}", reloadDir, e.getMessage());
         }
+    }
 
-        return prompt;
+    private static String stripSuffix(String filename) {
+        return filename.substring(0, filename.length() - SUFFIX.length());
     }
 }
@@ -0,0 +1,104 @@
+package donation.example.donation.system.service.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A prompt parsed once into literal text and {{placeholder}} segments.
+ * Immutable and safe to share; rendering is a single pass into a presized builder.
+ */
+public final class PromptTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final String source;
+    // Even indexes are literals, odd indexes are placeholder names
+    private final String[] segments;
+    private final Set<String> variables;
+    private final int literalLength;
+
+    private PromptTemplate(String name, String source, String[] segments, Set<String> variables, int literalLength) {
+        this.name = name;
+        this.source = source;
+        this.segments = segments;
+        this.variables = variables;
+        this.literalLength = literalLength;
+    }
+
+    public static PromptTemplate compile(String name, String source) {
+        List<String> segments = new ArrayList<>();
+        Set<String> variables = new LinkedHashSet<>();
+        int literalLength = 0;
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, pos);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Prompt " + name + " has an unclosed placeholder at offset " + open);
+            }
+            String variable = source.substring(open + OPEN.length(), close).trim();
+            if (variable.isEmpty() || variable.contains(OPEN)) {
+                throw new IllegalArgumentException("Prompt " + name + " has an invalid placeholder at offset " + open);
+            }
+            segments.add(source.substring(pos, open));
+            segments.add(variable);
+            variables.add(variable);
+            literalLength += open - pos;
+            pos = close + CLOSE.length();
+        }
+        segments.add(source.substring(pos));
+        literalLength += source.length() - pos;
+
+        return new PromptTemplate(name, source, segments.toArray(new String[0]),
+                Collections.unmodifiableSet(variables), literalLength);
+    }
+
+    /**
+     * Renders the prompt. Every placeholder must have a value and every value a placeholder.
+     */
+    public String render(Map<String, String> values) {
+        for (String key : values.keySet()) {
+            if (!variables.contains(key)) {
+                throw new IllegalArgumentException("Prompt " + name + " has no placeholder {{" + key + "}}");
+            }
+        }
+
+        for (String variable : variables) {
+            if (values.get(variable) == null) {
+                throw new IllegalArgumentException("Prompt " + name + " is missing a value for {{" + variable + "}}");
+            }
+        }
+
+        int length = literalLength;
+        for (int i = 1; i < segments.length; i += 2) {
+            length += values.get(segments[i]).length();
+        }
+
+        StringBuilder prompt = new StringBuilder(length);
+        for (int i = 0; i < segments.length; i++) {
+            prompt.append(i % 2 == 0 ? segments[i] : values.get(segments[i]));
+        }
+        return prompt.toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public Set<String> getVariables() {
+        return variables;
+    }
+}
@@ -0,0 +1,32 @@
+package donation.example.donation.system.service.ai;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A donation that still needs a thank you message in a batch run, with everything the prompt
+ * and the stored row need. Item names are filled in from a second query.
+ */
+@Data
+public class ThankYouCandidate {
+    private final Long donationId;
+    private final String donationName;
+    private final String donorName;
+    private final Long donorUserId;
+    private final String centerName;
+    private final LocalDateTime donationDate;
+    private List<String> items = new ArrayList<>();
+
+    // Prompt values for donations recorded without a donor name or date
+
+    public String donorNameForPrompt() {
+        return donorName != null ? donorName : "Valued donor";
+    }
+
+    public String dateForPrompt() {
+        return donationDate != null ? donationDate.toLocalDate().toString() : "today";
+    }
+}
@@ -0,0 +1,120 @@
+package donation.example.donation.system.service.ai.job;
+
+import donation.example.donation.system.event.DonationStatusChangedEvent;
+import donation.example.donation.system.model.entity.AiJob;
+import donation.example.donation.system.repository.AiJobRepository;
+import donation.example.donation.system.type.AiContentType;
+import donation.example.donation.system.type.AiJobStatus;
+import donation.example.donation.system.type.DonationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable queue of background AI generations, stored in the {@code ai_job} table.
+ *
+ * Donations are queued for food tips when they are collected and for a thank you message when
+ * they are delivered, in the same transaction as the status change. Workers claim due jobs with
+ * FOR UPDATE SKIP LOCKED and keep them for a lease; a job whose worker died is claimed again
+ * once the lease passes.
+ */
+@Service
+public class AiJobQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiJobQueue.class);
+
+    // First retry delay, doubled per failed attempt up to MAX_BACKOFF
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final AiJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lease;
+    private final int maxAttempts;
+
+    public AiJobQueue(AiJobRepository jobRepository,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${ai-jobs.lease:2m}") Duration lease,
+                      @Value("${ai-jobs.max-attempts:5}") int maxAttempts) {
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+    }
+
+    // Joins the status change's transaction so the job exists exactly when the new status does
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDonationStatusChanged(DonationStatusChangedEvent event) {
+        if (event.getStatus() == DonationStatus.COLLECTED) {
+            enqueue(event.getDonationId(), AiContentType.FOOD_TIPS);
+        } else if (event.getStatus() == DonationStatus.DELIVERED) {
+            enqueue(event.getDonationId(), AiContentType.THANK_YOU);
+        }
+    }
+
+    /**
+     * Queues a generation unless one was queued before; returns whether a job was added.
+     */
+    public boolean enqueue(Long donationId, AiContentType contentType) {
+        Integer added = transactionTemplate.execute(status ->
+                jobRepository.enqueue(donationId, contentType.name(), LocalDateTime.now()));
+        if (added != null && added > 0) {
+            logger.debug("Queued {} generation for donation {}", contentType, donationId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Takes up to {@code limit} due jobs and marks them RUNNING until the lease ends.
+     */
+    public List<ClaimedJob> claim(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<ClaimedJob> claimed = new ArrayList<>();
+            for (AiJob job : jobRepository.lockDue(now, limit)) {
+                job.setStatus(AiJobStatus.RUNNING);
+                job.setLockedUntil(now.plus(lease));
+                job.setAttempts(job.getAttempts() + 1);
+                claimed.add(new ClaimedJob(job.getId(), job.getDonationId(), job.getContentType(), job.getAttempts()));
+            }
+            return claimed;
+        });
+    }
+
+    public void complete(ClaimedJob job) {
+        transactionTemplate.executeWithoutResult(status ->
+                jobRepository.finish(job.id(), job.attempt(), AiJobStatus.DONE, null, LocalDateTime.now()));
+    }
+
+    /**
+     * Puts the job back with exponential backoff, or marks it FAILED once it has used up its attempts.
+     */
+    public void fail(ClaimedJob job, String error) {
+        String message = error != null && error.length() > 255 ? error.substring(0, 255) : error;
+        if (job.attempt() >= maxAttempts) {
+            logger.warn("Giving up on {} generation for donation {} after {} attempts: {}",
+                    job.contentType(), job.donationId(), job.attempt(), message);
+            transactionTemplate.executeWithoutResult(status ->
+                    jobRepository.finish(job.id(), job.attempt(), AiJobStatus.FAILED, message, LocalDateTime.now()));
+            return;
+        }
+        Duration backoff = BASE_BACKOFF.multipliedBy(1L << Math.min(job.attempt() - 1, 16));
+        LocalDateTime runAfter = LocalDateTime.now().plus(backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff);
+        transactionTemplate.executeWithoutResult(status ->
+                jobRepository.reschedule(job.id(), job.attempt(), runAfter, message));
+    }
+}
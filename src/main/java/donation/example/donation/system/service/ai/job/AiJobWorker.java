@@ -0,0 +1,127 @@
+package donation.example.donation.system.service.ai.job;
+
+import donation.example.donation.system.dto.ai.AiResponse;
+import donation.example.donation.system.service.ai.AiContentService;
+import donation.example.donation.system.service.ai.CircuitBreaker;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs queued AI generations in the background so content is ready before anyone asks for it.
+ *
+ * At most {@code ai-jobs.concurrency} jobs run at once, and a token bucket holds starts to
+ * {@code ai-jobs.rate-per-minute} so background work leaves Gemini quota for interactive requests.
+ * Nothing is claimed while the circuit breaker is open.
+ */
+@Component
+@ConditionalOnProperty(name = "ai-jobs.enabled", havingValue = "true", matchIfMissing = true)
+public class AiJobWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiJobWorker.class);
+
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+    private final AiJobQueue queue;
+    private final AiContentService aiContentService;
+    private final CircuitBreaker breaker;
+    private final Semaphore slots;
+    private final ExecutorService executor;
+    private final double tokensPerNano;
+    private final double maxTokens;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    public AiJobWorker(AiJobQueue queue,
+                       AiContentService aiContentService,
+                       CircuitBreaker breaker,
+                       @Value("${ai-jobs.concurrency:2}") int concurrency,
+                       @Value("${ai-jobs.rate-per-minute:30}") int ratePerMinute) {
+        this.queue = queue;
+        this.aiContentService = aiContentService;
+        this.breaker = breaker;
+        this.slots = new Semaphore(concurrency);
+        this.tokensPerNano = (double) ratePerMinute / NANOS_PER_MINUTE;
+        // Bursts never exceed what can run at once anyway
+        this.maxTokens = concurrency;
+        this.tokens = concurrency;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ai-job-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(concurrency, threadFactory);
+    }
+
+    @Scheduled(fixedDelayString = "${ai-jobs.poll-interval:5s}", initialDelayString = "${ai-jobs.poll-interval:5s}")
+    public void poll() {
+        if (breaker.state() == CircuitBreaker.State.OPEN) {
+            return;
+        }
+        int granted = takeTokens(slots.availablePermits());
+        if (granted == 0) {
+            return;
+        }
+        List<ClaimedJob> jobs;
+        try {
+            jobs = queue.claim(granted);
+        } catch (RuntimeException e) {
+            returnTokens(granted);
+            logger.warn("Could not claim AI jobs", e);
+            return;
+        }
+        returnTokens(granted - jobs.size());
+
+        for (ClaimedJob job : jobs) {
+            slots.acquireUninterruptibly();
+            executor.execute(() -> {
+                try {
+                    run(job);
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+    }
+
+    private void run(ClaimedJob job) {
+        try {
+            AiResponse response = aiContentService.pregenerate(job.donationId(), job.contentType());
+            if (response.isSuccess() && !response.isFallback()) {
+                queue.complete(job);
+                logger.debug("Pre-generated {} for donation {}", job.contentType(), job.donationId());
+            } else {
+                queue.fail(job, response.isFallback() ? "Gemini unavailable" : response.getError());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("AI job {} for donation {} failed: {}", job.id(), job.donationId(), e.toString());
+            queue.fail(job, e.getMessage());
+        }
+    }
+
+    private synchronized int takeTokens(int wanted) {
+        long now = System.nanoTime();
+        tokens = Math.min(maxTokens, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        int granted = (int) Math.min(wanted, Math.floor(tokens));
+        tokens -= granted;
+        return granted;
+    }
+
+    private synchronized void returnTokens(int unused) {
+        tokens = Math.min(maxTokens, tokens + unused);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
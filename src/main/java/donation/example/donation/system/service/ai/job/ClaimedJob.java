@@ -0,0 +1,9 @@
+package donation.example.donation.system.service.ai.job;
+
+import donation.example.donation.system.type.AiContentType;
+
+/**
+ * A job a worker holds the lease on; {@code attempt} counts this run.
+ */
+public record ClaimedJob(Long id, Long donationId, AiContentType contentType, int attempt) {
+}
@@ -0,0 +1,164 @@
+package donation.example.donation.system.service.auth;
+
+import donation.example.donation.system.model.entity.CollectionCenter;
+import donation.example.donation.system.model.entity.DeliveryPartner;
+import donation.example.donation.system.model.entity.Donor;
+import donation.example.donation.system.model.entity.User;
+import donation.example.donation.system.repository.CollectionCenterRepository;
+import donation.example.donation.system.repository.DeliveryPartnerRepository;
+import donation.example.donation.system.repository.DonorRepository;
+import donation.example.donation.system.repository.UserRepository;
+import donation.example.donation.system.security.ActorProfileCache;
+import donation.example.donation.system.security.JWTUtil;
+import donation.example.donation.system.type.Role;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Account registration and token issuance.
+ *
+ * Signing up writes the user and its donor, center or driver profile in one transaction, so a
+ * failed profile insert no longer leaves a user behind that can log in without one.
+ */
+@Service
+public class AccountService {
+
+    private final UserRepository userRepository;
+    private final CollectionCenterRepository collectionCenterRepository;
+    private final DonorRepository donorRepository;
+    private final DeliveryPartnerRepository deliveryPartnerRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JWTUtil jwtUtil;
+    private final ActorProfileCache actorProfileCache;
+
+    public AccountService(UserRepository userRepository,
+                          CollectionCenterRepository collectionCenterRepository,
+                          DonorRepository donorRepository,
+                          DeliveryPartnerRepository deliveryPartnerRepository,
+                          PasswordEncoder passwordEncoder,
+                          JWTUtil jwtUtil,
+                          ActorProfileCache actorProfileCache) {
+        this.userRepository = userRepository;
+        this.collectionCenterRepository = collectionCenterRepository;
+        this.donorRepository = donorRepository;
+        this.deliveryPartnerRepository = deliveryPartnerRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtUtil = jwtUtil;
+        this.actorProfileCache = actorProfileCache;
+    }
+
+    /**
+     * Issues a token for an already authenticated user.
+     */
+    @Transactional(readOnly = true)
+    public String issueToken(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        return jwtUtil.generateToken(user);
+    }
+
+    /**
+     * Registers a user with the profile for their role and returns their token.
+     * For STAFF role, also creates a CollectionCenter linked to the user.
+     * For DONOR role, also creates a Donor record linked to the user.
+     *
+     * @throws IllegalArgumentException if the username or email is already taken
+     */
+    @Transactional
+    public String register(Map<String, Object> signUpRequest) {
+        String username = (String) signUpRequest.get("username");
+        String email = (String) signUpRequest.get("email");
+        String password = (String) signUpRequest.get("password");
+
+        if (userRepository.existsByUsername(username)) {
+            throw new IllegalArgumentException("Username is already taken!");
+        }
+        if (userRepository.existsByEmail(email)) {
+            throw new IllegalArgumentException("Email is already in use!");
+        }
+
+        // Create new user's account
+        User user = new User(username, email, passwordEncoder.encode(password));
+
+        // Assign roles based on the signup request
+        String roleStr = (String) signUpRequest.get("role");
+        Set<Role> roles;
+        if ("ADMIN".equalsIgnoreCase(roleStr)) {
+            roles = Set.of(Role.ROLE_ADMIN);
+        } else if ("STAFF".equalsIgnoreCase(roleStr)) {
+            roles = Set.of(Role.ROLE_STAFF);
+        } else if ("DRIVER".equalsIgnoreCase(roleStr)) {
+            roles = Set.of(Role.ROLE_DRIVER);
+        } else {
+            roles = Set.of(Role.ROLE_DONOR); // Default to DONOR
+        }
+        user.setRoles(roles);
+
+        userRepository.save(user);
+
+        // If STAFF role, create CollectionCenter linked to the user
+        if ("STAFF".equalsIgnoreCase(roleStr)) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> centerData = (Map<String, Object>) signUpRequest.get("collectionCenter");
+            if (centerData != null) {
+                CollectionCenter center = new CollectionCenter();
+                center.setName((String) centerData.get("name"));
+                center.setLocation((String) centerData.get("location"));
+
+                Object maxCapacityObj = centerData.get("maxCapacity");
+                if (maxCapacityObj != null) {
+                    if (maxCapacityObj instanceof Integer) {
+                        center.setMaxCapacity((Integer) maxCapacityObj);
+                    } else if (maxCapacityObj instanceof Number) {
+                        center.setMaxCapacity(((Number) maxCapacityObj).intValue());
+                    } else if (maxCapacityObj instanceof String) {
+                        center.setMaxCapacity(Integer.parseInt((String) maxCapacityObj));
+                    }
+                }
+
+                center.setCurrentLoad(0);
+                center.setUser(user);
+                collectionCenterRepository.save(center);
+            }
+        }
+
+        // If DRIVER role, create DeliveryPartner linked to the user
+        if ("DRIVER".equalsIgnoreCase(roleStr)) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> driverData = (Map<String, Object>) signUpRequest.get("driverInfo");
+            DeliveryPartner driver = new DeliveryPartner();
+            driver.setName(driverData != null ? (String) driverData.get("name") : username);
+            driver.setPhone(driverData != null ? (String) driverData.get("phone") : null);
+            driver.setVehicleNumber(driverData != null ? (String) driverData.get("vehicleNumber") : null);
+            driver.setVehicleType(driverData != null ? (String) driverData.get("vehicleType") : null);
+            driver.setIsAvailable(true);
+            driver.setUser(user);
+
+            // Optionally assign to a center
+            if (driverData != null && driverData.get("collectionCenterId") != null) {
+                Long assignedCenterId = ((Number) driverData.get("collectionCenterId")).longValue();
+                collectionCenterRepository.findById(assignedCenterId).ifPresent(driver::setCollectionCenter);
+            }
+
+            deliveryPartnerRepository.save(driver);
+        }
+
+        // If DONOR role, create Donor record linked to the user
+        if ("DONOR".equalsIgnoreCase(roleStr) || roleStr == null) {
+            Donor donor = new Donor();
+            donor.setName(username); // Use username as default name
+            donor.setUser(user);
+            donorRepository.save(donor);
+        }
+
+        // Profiles were just linked to this user
+        actorProfileCache.invalidate(user.getId());
+
+        return jwtUtil.generateToken(user);
+    }
+}
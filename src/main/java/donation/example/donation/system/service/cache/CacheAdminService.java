@@ -0,0 +1,57 @@
+package donation.example.donation.system.service.cache;
+
+import donation.example.donation.system.dto.CacheRegionStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hit rates of the second-level cache regions, and eviction of a region after its table was
+ * changed outside the application. Counters are Hibernate's and reset on restart.
+ */
+@Service
+public class CacheAdminService {
+
+    private final SessionFactory sessionFactory;
+
+    public CacheAdminService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public List<CacheRegionStatsDTO> regionStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toDTO(region, statistics.getCacheRegionStatistics(region)))
+                .toList();
+    }
+
+    /**
+     * @return false if there is no region of that name
+     */
+    public boolean evict(String region) {
+        if (!Arrays.asList(sessionFactory.getStatistics().getSecondLevelCacheRegionNames()).contains(region)) {
+            return false;
+        }
+        sessionFactory.getCache().evictRegion(region);
+        return true;
+    }
+
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private CacheRegionStatsDTO toDTO(String region, CacheRegionStatistics stats) {
+        long hits = stats.getHitCount();
+        long misses = stats.getMissCount();
+        double hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        long entries = stats.getElementCountInMemory();
+        return new CacheRegionStatsDTO(region, hits, misses, stats.getPutCount(),
+                entries == CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN ? -1 : entries, hitRatio);
+    }
+}
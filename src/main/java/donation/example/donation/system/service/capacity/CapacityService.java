@@ -0,0 +1,92 @@
+package donation.example.donation.system.service.capacity;
+
+import donation.example.donation.system.exception.ConflictException;
+import donation.example.donation.system.repository.CollectionCenterRepository;
+import donation.example.donation.system.repository.DonationItemRepository;
+import donation.example.donation.system.repository.DonationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reserves and releases collection center capacity for donations.
+ *
+ * Every change is a single conditional UPDATE, so the database row lock serializes concurrent
+ * drop-offs and a center can never be pushed past its maxCapacity. The units reserved for a
+ * donation are recorded on the donation itself so the exact amount is released later even if
+ * its items change in between.
+ */
+@Service
+public class CapacityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapacityService.class);
+
+    private final CollectionCenterRepository centerRepository;
+    private final DonationRepository donationRepository;
+    private final DonationItemRepository donationItemRepository;
+
+    public CapacityService(CollectionCenterRepository centerRepository,
+                           DonationRepository donationRepository,
+                           DonationItemRepository donationItemRepository) {
+        this.centerRepository = centerRepository;
+        this.donationRepository = donationRepository;
+        this.donationItemRepository = donationItemRepository;
+    }
+
+    /**
+     * Reserves space for the donation's items at the center. A donation that already holds a
+     * reservation is left alone; a full center raises a {@link ConflictException}.
+     */
+    @Transactional
+    public int reserve(Long centerId, Long donationId) {
+        int units = CapacityUnits.of(donationItemRepository.findByDonationId(donationId));
+        if (units == 0) {
+            return 0;
+        }
+        if (donationRepository.markReserved(donationId, units) == 0) {
+            return 0;
+        }
+        if (centerRepository.tryReserve(centerId, units) == 0) {
+            throw new ConflictException("Collection center capacity exceeded");
+        }
+        logger.debug("Reserved {} units at center {} for donation {}", units, centerId, donationId);
+        return units;
+    }
+
+    /**
+     * Returns the donation's reserved units to the center. Safe to call more than once.
+     */
+    @Transactional
+    public void release(Long centerId, Long donationId) {
+        Integer units = donationRepository.findReservedUnits(donationId);
+        if (units == null || units == 0) {
+            return;
+        }
+        // Only the caller that clears the marker gives the units back
+        if (donationRepository.clearReserved(donationId, units) == 1) {
+            centerRepository.release(centerId, units);
+            logger.debug("Released {} units at center {} for donation {}", units, centerId, donationId);
+        }
+    }
+
+    /**
+     * Moves an existing reservation, and the donation with it, to another center. Fails if the
+     * donation is no longer at {@code fromCenterId} (a concurrent move won) or the target is full.
+     */
+    @Transactional
+    public void move(Long fromCenterId, Long toCenterId, Long donationId) {
+        Integer units = donationRepository.findReservedUnits(donationId);
+        if (units == null || units == 0 || fromCenterId.equals(toCenterId)) {
+            return;
+        }
+        if (donationRepository.moveReservation(donationId, fromCenterId,
+                centerRepository.getReferenceById(toCenterId), units) == 0) {
+            throw new ConflictException("Donation is no longer at collection center " + fromCenterId);
+        }
+        if (centerRepository.tryReserve(toCenterId, units) == 0) {
+            throw new ConflictException("Collection center capacity exceeded");
+        }
+        centerRepository.release(fromCenterId, units);
+    }
+}
@@ -0,0 +1,41 @@
+package donation.example.donation.system.service.capacity;
+
+import donation.example.donation.system.model.entity.DonationItem;
+import donation.example.donation.system.type.Unit;
+
+import java.util.List;
+
+/**
+ * Converts donation item quantities into the capacity units a collection center is sized in:
+ * one unit per kilogram, litre or counted piece. Gram and millilitre quantities are summed
+ * before rounding up so many small items do not each cost a whole unit.
+ */
+public final class CapacityUnits {
+
+    private CapacityUnits() {
+    }
+
+    public static int of(List<DonationItem> items) {
+        long thousandths = 0;
+        for (DonationItem item : items) {
+            thousandths += thousandths(item.getQuantity(), item.getUnit());
+        }
+        return Math.toIntExact((thousandths + 999) / 1000);
+    }
+
+    static long thousandths(Integer quantity, Unit unit) {
+        if (quantity == null || quantity <= 0) {
+            return 0;
+        }
+        if (unit == null) {
+            return quantity * 1000L;
+        }
+        switch (unit) {
+            case GRAM:
+            case ML:
+                return quantity;
+            default:
+                return quantity * 1000L;
+        }
+    }
+}
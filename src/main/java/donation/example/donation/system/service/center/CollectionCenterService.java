@@ -0,0 +1,118 @@
+package donation.example.donation.system.service.center;
+
+import donation.example.donation.system.dto.CollectionCenterDTO;
+import donation.example.donation.system.mapper.CollectionMapper;
+import donation.example.donation.system.model.entity.CollectionCenter;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.User;
+import donation.example.donation.system.repository.CollectionCenterRepository;
+import donation.example.donation.system.repository.DonationRepository;
+import donation.example.donation.system.repository.UserRepository;
+import donation.example.donation.system.security.ActorProfileCache;
+import donation.example.donation.system.service.capacity.CapacityService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Collection center use cases, one transaction each.
+ */
+@Service
+public class CollectionCenterService {
+
+    private final CollectionCenterRepository centerRepository;
+    private final DonationRepository donationRepository;
+    private final UserRepository userRepository;
+    private final CollectionMapper collectionMapper;
+    private final ActorProfileCache actorProfileCache;
+    private final CapacityService capacityService;
+
+    public CollectionCenterService(CollectionCenterRepository centerRepository,
+                                   DonationRepository donationRepository,
+                                   UserRepository userRepository,
+                                   CollectionMapper collectionMapper,
+                                   ActorProfileCache actorProfileCache,
+                                   CapacityService capacityService) {
+        this.centerRepository = centerRepository;
+        this.donationRepository = donationRepository;
+        this.userRepository = userRepository;
+        this.collectionMapper = collectionMapper;
+        this.actorProfileCache = actorProfileCache;
+        this.capacityService = capacityService;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CollectionCenterDTO> findAll() {
+        return centerRepository.findAll().stream()
+                .map(collectionMapper::collectionCenterToCollectionCenterDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CollectionCenterDTO> findById(Long id) {
+        return centerRepository.findById(id).map(collectionMapper::collectionCenterToCollectionCenterDTO);
+    }
+
+    /**
+     * Creates the center together with its staff user.
+     */
+    @Transactional
+    public CollectionCenterDTO create(CollectionCenter center) {
+        User user = userRepository.save(center.getUser());
+        center.setUser(user);
+        CollectionCenter saved = centerRepository.save(center);
+        actorProfileCache.invalidate(user.getId());
+        return collectionMapper.collectionCenterToCollectionCenterDTO(saved);
+    }
+
+    @Transactional
+    public Optional<CollectionCenterDTO> update(Long id, CollectionCenter details) {
+        return centerRepository.findById(id).map(center -> {
+            center.setName(details.getName());
+            center.setLocation(details.getLocation());
+            center.setMaxCapacity(details.getMaxCapacity());
+            return collectionMapper.collectionCenterToCollectionCenterDTO(centerRepository.save(center));
+        });
+    }
+
+    /**
+     * Deletes the center. Returns false if it does not exist.
+     */
+    @Transactional
+    public boolean delete(Long id) {
+        return centerRepository.findById(id).map(center -> {
+            centerRepository.delete(center);
+            if (center.getUser() != null) {
+                actorProfileCache.invalidate(center.getUser().getId());
+            }
+            return true;
+        }).orElse(false);
+    }
+
+    /**
+     * Moves a donation to the center. A donation already stored elsewhere carries its capacity
+     * reservation over (409 if this center is full); pending donations reserve capacity when
+     * staff accept them.
+     */
+    @Transactional
+    public CollectionCenterDTO assignDonation(Long centerId, Long donationId) {
+        CollectionCenter center = centerRepository.findById(centerId)
+                .orElseThrow(() -> new RuntimeException("Center not found"));
+
+        Donation donation = donationRepository.findById(donationId)
+                .orElseThrow(() -> new RuntimeException("Donation not found"));
+
+        CollectionCenter previous = donation.getCollectionCenter();
+        if (previous != null) {
+            capacityService.move(previous.getId(), center.getId(), donation.getId());
+        }
+
+        // Donation owns the association; the center's donation list is not loaded just to add to it
+        donation.setCollectionCenter(center);
+        donationRepository.save(donation);
+        return collectionMapper.collectionCenterToCollectionCenterDTO(center);
+    }
+}
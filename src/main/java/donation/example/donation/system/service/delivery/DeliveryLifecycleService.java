@@ -0,0 +1,195 @@
+package donation.example.donation.system.service.delivery;
+
+import donation.example.donation.system.dto.CreateDeliveryRequest;
+import donation.example.donation.system.dto.DeliveryDTO;
+import donation.example.donation.system.event.DonationStatusChangedEvent;
+import donation.example.donation.system.event.DriverAvailableEvent;
+import donation.example.donation.system.exception.ConflictException;
+import donation.example.donation.system.mapper.DeliveryMapper;
+import donation.example.donation.system.model.entity.Delivery;
+import donation.example.donation.system.model.entity.DeliveryPartner;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.Recipient;
+import donation.example.donation.system.repository.*;
+import donation.example.donation.system.service.capacity.CapacityService;
+import donation.example.donation.system.type.DeliveryStatus;
+import donation.example.donation.system.type.DonationStatus;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Moves deliveries through their lifecycle.
+ *
+ * Each transition is one conditional UPDATE on the delivery guarded by the statuses allowed in
+ * {@link DeliveryTransition}, followed by the donation and driver updates in the same
+ * transaction. Two racing requests (e.g. complete vs cancel) cannot both win: the loser's guard
+ * matches no row and it gets a {@link ConflictException}. Creating a delivery takes the donation
+ * and the driver with the same kind of guarded UPDATE, so neither can be double-booked.
+ *
+ * Every change also copies the delivery's id and status onto its donation, which is how
+ * donation reads see the delivery without joining or loading it. Freed drivers go back to the
+ * {@link donation.example.donation.system.service.dispatch.DriverPool} only after commit.
+ */
+@Service
+public class DeliveryLifecycleService {
+
+    private final DeliveryRepository deliveryRepository;
+    private final DonationRepository donationRepository;
+    private final DeliveryPartnerRepository driverRepository;
+    private final CollectionCenterRepository centerRepository;
+    private final RecipientRepository recipientRepository;
+    private final CapacityService capacityService;
+    private final DeliveryMapper deliveryMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DeliveryLifecycleService(DeliveryRepository deliveryRepository,
+                                    DonationRepository donationRepository,
+                                    DeliveryPartnerRepository driverRepository,
+                                    CollectionCenterRepository centerRepository,
+                                    RecipientRepository recipientRepository,
+                                    CapacityService capacityService,
+                                    DeliveryMapper deliveryMapper,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.deliveryRepository = deliveryRepository;
+        this.donationRepository = donationRepository;
+        this.driverRepository = driverRepository;
+        this.centerRepository = centerRepository;
+        this.recipientRepository = recipientRepository;
+        this.capacityService = capacityService;
+        this.deliveryMapper = deliveryMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Creates a delivery for a driver and recipient chosen by staff.
+     */
+    @Transactional
+    public DeliveryDTO create(CreateDeliveryRequest request) {
+        Donation donation = donationRepository.findById(request.getDonationId())
+                .orElseThrow(() -> new RuntimeException("Donation not found"));
+        DeliveryPartner driver = driverRepository.findById(request.getDriverId())
+                .orElseThrow(() -> new RuntimeException("Driver not found"));
+        Recipient recipient = recipientRepository.findById(request.getRecipientId())
+                .orElseThrow(() -> new RuntimeException("Recipient not found"));
+        if (donation.getCollectionCenter() == null) {
+            throw new RuntimeException("Donation is not assigned to a collection center");
+        }
+
+        if (donationRepository.claimForDelivery(donation.getId(), DonationStatus.COLLECTED, DonationStatus.ASSIGNED) == 0) {
+            throw new ConflictException("Donation must be in COLLECTED status to create delivery");
+        }
+        if (driverRepository.claim(driver.getId()) == 0) {
+            throw new ConflictException("Driver is not available");
+        }
+
+        Delivery delivery = newDelivery(donation, donation.getCollectionCenter().getId(), driver, recipient);
+        delivery.setScheduledPickupTime(request.getScheduledPickupTime());
+        delivery.setNotes(request.getNotes());
+        Delivery saved = deliveryRepository.save(delivery);
+        donationRepository.updateDelivery(donation.getId(), DonationStatus.ASSIGNED, saved.getId(), saved.getStatus());
+
+        publish(donation.getId(), saved.getFromCenter().getId(), DonationStatus.ASSIGNED);
+        return deliveryMapper.toDTO(saved);
+    }
+
+    /**
+     * Creates a delivery for a donation and driver the caller has already claimed, see
+     * {@link donation.example.donation.system.service.dispatch.DispatchService}. Returns its id.
+     */
+    @Transactional
+    public Long createClaimed(Long donationId, Long centerId, Long driverId, Long recipientId, String notes) {
+        Delivery delivery = newDelivery(donationRepository.getReferenceById(donationId), centerId,
+                driverRepository.getReferenceById(driverId), recipientRepository.getReferenceById(recipientId));
+        delivery.setNotes(notes);
+        Long id = deliveryRepository.save(delivery).getId();
+        donationRepository.updateDelivery(donationId, DonationStatus.ASSIGNED, id, DeliveryStatus.ASSIGNED);
+
+        publish(donationId, centerId, DonationStatus.ASSIGNED);
+        return id;
+    }
+
+    /**
+     * Applies the transition and returns the updated delivery, or empty if it does not exist.
+     */
+    @Transactional
+    public Optional<DeliveryDTO> apply(Long deliveryId, DeliveryTransition transition) {
+        if (updateDelivery(deliveryId, transition) == 0) {
+            if (!deliveryRepository.existsById(deliveryId)) {
+                return Optional.empty();
+            }
+            throw new ConflictException("Delivery cannot move to " + transition.getTo()
+                    + " from its current status");
+        }
+
+        DeliveryRefs refs = deliveryRepository.findRefsById(deliveryId).orElseThrow();
+        donationRepository.updateDeliveryStatus(refs.getDonationId(), transition.getDonationStatus(), transition.getTo());
+
+        if (transition.releasesDriver() && refs.getDriverId() != null) {
+            driverRepository.updateAvailability(refs.getDriverId(), true);
+            eventPublisher.publishEvent(new DriverAvailableEvent(refs.getDriverCenterId(), refs.getDriverId()));
+        }
+        if (transition == DeliveryTransition.COMPLETE) {
+            // Goods have left the center
+            capacityService.release(refs.getFromCenterId(), refs.getDonationId());
+        }
+
+        // The cancelled delivery keeps its row, and delivery.donation_id is unique, so the donation
+        // cannot be dispatched again until staff delete the delivery; listeners have nothing to do
+        if (transition != DeliveryTransition.CANCEL) {
+            publish(refs.getDonationId(), refs.getFromCenterId(), transition.getDonationStatus());
+        }
+        return deliveryRepository.findDTOById(deliveryId);
+    }
+
+    private Delivery newDelivery(Donation donation, Long centerId, DeliveryPartner driver, Recipient recipient) {
+        Delivery delivery = new Delivery();
+        delivery.setDonation(donation);
+        delivery.setFromCenter(centerRepository.getReferenceById(centerId));
+        delivery.setDriver(driver);
+        delivery.setRecipient(recipient);
+        delivery.setStatus(DeliveryStatus.ASSIGNED);
+        delivery.setCreatedAt(LocalDateTime.now());
+        return delivery;
+    }
+
+    private void publish(Long donationId, Long centerId, DonationStatus status) {
+        eventPublisher.publishEvent(new DonationStatusChangedEvent(donationId, centerId, status));
+    }
+
+    /**
+     * Deletes a delivery, returning its donation to COLLECTED. Returns false if it does not exist.
+     */
+    @Transactional
+    public boolean delete(Long deliveryId) {
+        Optional<DeliveryRefs> refs = deliveryRepository.findRefsById(deliveryId);
+        if (refs.isEmpty()) {
+            return false;
+        }
+        // Read before the delete so an unfinished delivery can hand its driver back
+        DeliveryStatus status = deliveryRepository.findStatusById(deliveryId);
+        deliveryRepository.deleteById(deliveryId);
+        donationRepository.updateDelivery(refs.get().getDonationId(), DonationStatus.COLLECTED, null, null);
+
+        if (refs.get().getDriverId() != null && status != DeliveryStatus.DELIVERED && status != DeliveryStatus.CANCELLED) {
+            driverRepository.updateAvailability(refs.get().getDriverId(), true);
+            eventPublisher.publishEvent(new DriverAvailableEvent(refs.get().getDriverCenterId(), refs.get().getDriverId()));
+        }
+        return true;
+    }
+
+    private int updateDelivery(Long deliveryId, DeliveryTransition transition) {
+        LocalDateTime now = LocalDateTime.now();
+        switch (transition) {
+            case PICK_UP:
+                return deliveryRepository.transitionPickedUp(deliveryId, transition.getFrom(), transition.getTo(), now);
+            case COMPLETE:
+                return deliveryRepository.transitionDelivered(deliveryId, transition.getFrom(), transition.getTo(), now);
+            default:
+                return deliveryRepository.transition(deliveryId, transition.getFrom(), transition.getTo());
+        }
+    }
+}
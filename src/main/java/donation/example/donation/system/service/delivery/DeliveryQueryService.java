@@ -0,0 +1,63 @@
+package donation.example.donation.system.service.delivery;
+
+import donation.example.donation.system.dto.DeliveryDTO;
+import donation.example.donation.system.dto.DeliverySummaryDTO;
+import donation.example.donation.system.repository.DeliveryRepository;
+import donation.example.donation.system.type.DeliveryStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read side of deliveries. Each lookup is one read-only transaction running a single joined
+ * select that projects straight into {@link DeliveryDTO} or {@link DeliverySummaryDTO} rows, so
+ * the query count does not grow with the list; changes go through {@link DeliveryLifecycleService}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DeliveryQueryService {
+
+    private final DeliveryRepository deliveryRepository;
+
+    public DeliveryQueryService(DeliveryRepository deliveryRepository) {
+        this.deliveryRepository = deliveryRepository;
+    }
+
+    public List<DeliveryDTO> findAll() {
+        return deliveryRepository.findAllDTOs();
+    }
+
+    public Optional<DeliveryDTO> findById(Long id) {
+        return deliveryRepository.findDTOById(id);
+    }
+
+    public List<DeliveryDTO> findByDriver(Long driverId) {
+        return deliveryRepository.findDTOsByDriverId(driverId);
+    }
+
+    public List<DeliveryDTO> findByDriverAndStatus(Long driverId, DeliveryStatus status) {
+        return deliveryRepository.findDTOsByDriverIdAndStatus(driverId, status);
+    }
+
+    public List<DeliveryDTO> findByCenter(Long centerId) {
+        return deliveryRepository.findDTOsByFromCenterId(centerId);
+    }
+
+    public List<DeliverySummaryDTO> findAllSummaries() {
+        return deliveryRepository.findAllSummaries();
+    }
+
+    public List<DeliverySummaryDTO> findSummariesByDriver(Long driverId) {
+        return deliveryRepository.findSummariesByDriverId(driverId);
+    }
+
+    public List<DeliverySummaryDTO> findSummariesByDriverAndStatus(Long driverId, DeliveryStatus status) {
+        return deliveryRepository.findSummariesByDriverIdAndStatus(driverId, status);
+    }
+
+    public List<DeliverySummaryDTO> findSummariesByCenter(Long centerId) {
+        return deliveryRepository.findSummariesByFromCenterId(centerId);
+    }
+}
@@ -0,0 +1,16 @@
+package donation.example.donation.system.service.delivery;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Foreign keys of a delivery, read without loading any of the associated entities.
+ */
+@Data
+@AllArgsConstructor
+public class DeliveryRefs {
+    private Long donationId;
+    private Long fromCenterId;
+    private Long driverId;
+    private Long driverCenterId;  // The driver's home center, which owns their pool slot
+}
@@ -0,0 +1,55 @@
+package donation.example.donation.system.service.delivery;
+
+import donation.example.donation.system.type.DeliveryStatus;
+import donation.example.donation.system.type.DonationStatus;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Allowed delivery lifecycle moves: which delivery statuses each one may start from, the status
+ * it ends in, the matching donation status and whether the driver becomes free again.
+ */
+public enum DeliveryTransition {
+
+    PICK_UP(EnumSet.of(DeliveryStatus.ASSIGNED),
+            DeliveryStatus.PICKED_UP, DonationStatus.IN_TRANSIT, false),
+
+    START_TRANSIT(EnumSet.of(DeliveryStatus.PICKED_UP),
+            DeliveryStatus.IN_TRANSIT, DonationStatus.IN_TRANSIT, false),
+
+    COMPLETE(EnumSet.of(DeliveryStatus.PICKED_UP, DeliveryStatus.IN_TRANSIT),
+            DeliveryStatus.DELIVERED, DonationStatus.DELIVERED, true),
+
+    CANCEL(EnumSet.of(DeliveryStatus.ASSIGNED, DeliveryStatus.PICKED_UP, DeliveryStatus.IN_TRANSIT),
+            DeliveryStatus.CANCELLED, DonationStatus.COLLECTED, true);
+
+    private final Set<DeliveryStatus> from;
+    private final DeliveryStatus to;
+    private final DonationStatus donationStatus;
+    private final boolean releasesDriver;
+
+    DeliveryTransition(Set<DeliveryStatus> from, DeliveryStatus to,
+                       DonationStatus donationStatus, boolean releasesDriver) {
+        this.from = from;
+        this.to = to;
+        this.donationStatus = donationStatus;
+        this.releasesDriver = releasesDriver;
+    }
+
+    public Set<DeliveryStatus> getFrom() {
+        return from;
+    }
+
+    public DeliveryStatus getTo() {
+        return to;
+    }
+
+    public DonationStatus getDonationStatus() {
+        return donationStatus;
+    }
+
+    public boolean releasesDriver() {
+        return releasesDriver;
+    }
+}
@@ -0,0 +1,14 @@
+package donation.example.donation.system.service.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A collected donation still waiting for a driver, and the center it will be picked up from.
+ */
+@Data
+@AllArgsConstructor
+public class DispatchCandidate {
+    private Long donationId;
+    private Long centerId;
+}
@@ -0,0 +1,140 @@
+package donation.example.donation.system.service.dispatch;
+
+import donation.example.donation.system.dto.DispatchSummaryDTO;
+import donation.example.donation.system.event.DonationStatusChangedEvent;
+import donation.example.donation.system.repository.DonationRepository;
+import donation.example.donation.system.repository.RecipientRepository;
+import donation.example.donation.system.service.delivery.DeliveryLifecycleService;
+import donation.example.donation.system.type.DonationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns collected donations to an idle driver from their center and an active recipient.
+ *
+ * Each assignment is its own short transaction: the donation is taken with a guarded
+ * COLLECTED -> ASSIGNED update, then a driver is claimed from the {@link DriverPool}. If no
+ * driver is free the transaction rolls back and the donation stays COLLECTED for a later run.
+ * Recipients are handed out round-robin so deliveries spread across them.
+ */
+@Service
+public class DispatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchService.class);
+
+    private static final String AUTO_NOTES = "Auto-dispatched";
+
+    private final DonationRepository donationRepository;
+    private final RecipientRepository recipientRepository;
+    private final DriverPool driverPool;
+    private final DeliveryLifecycleService lifecycleService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean autoAssign;
+    private final AtomicInteger recipientCursor = new AtomicInteger();
+
+    public DispatchService(DonationRepository donationRepository,
+                           RecipientRepository recipientRepository,
+                           DriverPool driverPool,
+                           DeliveryLifecycleService lifecycleService,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${dispatch.auto-assign:true}") boolean autoAssign) {
+        this.donationRepository = donationRepository;
+        this.recipientRepository = recipientRepository;
+        this.driverPool = driverPool;
+        this.lifecycleService = lifecycleService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Event callbacks run after the publisher's commit, where joining its transaction would be a no-op
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.autoAssign = autoAssign;
+    }
+
+    // Runs once the status change has committed; without a surrounding transaction it runs at once
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDonationStatusChanged(DonationStatusChangedEvent event) {
+        if (!autoAssign || event.getStatus() != DonationStatus.COLLECTED || event.getCenterId() == null) {
+            return;
+        }
+        try {
+            dispatch(event.getDonationId(), event.getCenterId())
+                    .ifPresent(deliveryId -> logger.debug("Auto-dispatched donation {} as delivery {}",
+                            event.getDonationId(), deliveryId));
+        } catch (RuntimeException e) {
+            // The donation stays COLLECTED and is picked up by the next batch run
+            logger.warn("Auto-dispatch failed for donation {}", event.getDonationId(), e);
+        }
+    }
+
+    /**
+     * Dispatches a single donation and returns the new delivery id, or empty if it is no longer
+     * waiting or there is no idle driver or active recipient.
+     */
+    public Optional<Long> dispatch(Long donationId, Long centerId) {
+        List<Long> recipients = recipientRepository.findActiveIds();
+        if (recipients.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(tryDispatch(donationId, centerId, recipients).deliveryId());
+    }
+
+    /**
+     * Dispatches up to {@code limit} waiting donations, oldest first, optionally for one center.
+     * A center whose drivers run out is skipped for the rest of the run.
+     */
+    public DispatchSummaryDTO dispatchPending(Long centerId, int limit) {
+        List<DispatchCandidate> candidates = centerId != null
+                ? donationRepository.findUndispatchedByCenterId(centerId, DonationStatus.COLLECTED, Limit.of(limit))
+                : donationRepository.findUndispatched(DonationStatus.COLLECTED, Limit.of(limit));
+        List<Long> recipients = recipientRepository.findActiveIds();
+        if (recipients.isEmpty()) {
+            return new DispatchSummaryDTO(0, candidates.size(), List.of());
+        }
+
+        List<Long> deliveryIds = new ArrayList<>();
+        Set<Long> exhaustedCenters = new HashSet<>();
+        for (DispatchCandidate candidate : candidates) {
+            if (exhaustedCenters.contains(candidate.getCenterId())) {
+                continue;
+            }
+            Attempt attempt = tryDispatch(candidate.getDonationId(), candidate.getCenterId(), recipients);
+            if (attempt.deliveryId() != null) {
+                deliveryIds.add(attempt.deliveryId());
+            } else if (attempt.noDriver()) {
+                exhaustedCenters.add(candidate.getCenterId());
+            }
+        }
+        logger.info("Dispatched {} of {} waiting donations", deliveryIds.size(), candidates.size());
+        return new DispatchSummaryDTO(deliveryIds.size(), candidates.size() - deliveryIds.size(), deliveryIds);
+    }
+
+    private Attempt tryDispatch(Long donationId, Long centerId, List<Long> recipients) {
+        return transactionTemplate.execute(status -> {
+            if (donationRepository.claimForDelivery(donationId, DonationStatus.COLLECTED, DonationStatus.ASSIGNED) == 0) {
+                return new Attempt(null, false);
+            }
+            Optional<Long> driverId = driverPool.claim(centerId);
+            if (driverId.isEmpty()) {
+                status.setRollbackOnly();
+                return new Attempt(null, true);
+            }
+            Long recipientId = recipients.get(Math.floorMod(recipientCursor.getAndIncrement(), recipients.size()));
+            return new Attempt(lifecycleService.createClaimed(donationId, centerId, driverId.get(), recipientId, AUTO_NOTES), false);
+        });
+    }
+
+    private record Attempt(Long deliveryId, boolean noDriver) {
+    }
+}
@@ -0,0 +1,76 @@
+package donation.example.donation.system.service.dispatch;
+
+import donation.example.donation.system.event.DriverAvailableEvent;
+import donation.example.donation.system.repository.DeliveryPartnerRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory queues of idle driver ids, one per collection center.
+ *
+ * The queues only hand out candidates; a driver is actually taken by the conditional UPDATE in
+ * {@link DeliveryPartnerRepository#claimAtCenter}, so an id that went stale (driver went off
+ * duty, moved center, or was claimed by another instance) just fails the claim and is dropped.
+ * Claims must run inside a transaction.
+ */
+@Component
+public class DriverPool {
+
+    private final ConcurrentMap<Long, Queue<Long>> idleByCenter = new ConcurrentHashMap<>();
+    private final DeliveryPartnerRepository driverRepository;
+
+    public DriverPool(DeliveryPartnerRepository driverRepository) {
+        this.driverRepository = driverRepository;
+    }
+
+    /**
+     * Takes an idle driver at the center off duty, or returns empty if there is none.
+     */
+    public Optional<Long> claim(Long centerId) {
+        Queue<Long> idle = idleByCenter.computeIfAbsent(centerId, this::load);
+
+        Long driverId = idle.poll();
+        if (driverId == null) {
+            // Drivers may have come back on duty without passing through release()
+            idle.addAll(driverRepository.findAvailableIdsByCenterId(centerId));
+            driverId = idle.poll();
+        }
+        while (driverId != null) {
+            if (driverRepository.claimAtCenter(driverId, centerId) == 1) {
+                return Optional.of(driverId);
+            }
+            driverId = idle.poll();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Puts a driver who is available again back in their center's queue.
+     */
+    public void release(Long centerId, Long driverId) {
+        if (centerId == null || driverId == null) {
+            return;
+        }
+        // A center that was never loaded will pick the driver up from the database
+        Queue<Long> idle = idleByCenter.get(centerId);
+        if (idle != null && !idle.contains(driverId)) {
+            idle.offer(driverId);
+        }
+    }
+
+    // Only once the change that freed the driver has committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDriverAvailable(DriverAvailableEvent event) {
+        release(event.getCenterId(), event.getDriverId());
+    }
+
+    private Queue<Long> load(Long centerId) {
+        return new ConcurrentLinkedQueue<>(driverRepository.findAvailableIdsByCenterId(centerId));
+    }
+}
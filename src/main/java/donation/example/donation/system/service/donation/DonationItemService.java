@@ -0,0 +1,84 @@
+package donation.example.donation.system.service.donation;
+
+import donation.example.donation.system.dto.DonationItemDTO;
+import donation.example.donation.system.mapper.DonationItemMapper;
+import donation.example.donation.system.model.entity.CollectionCenter;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.DonationItem;
+import donation.example.donation.system.repository.CollectionCenterRepository;
+import donation.example.donation.system.repository.DonationItemRepository;
+import donation.example.donation.system.repository.DonationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Donation item use cases, one transaction each. Item DTOs carry only the donation and center
+ * ids, which Hibernate reads from the foreign keys without loading either entity.
+ */
+@Service
+public class DonationItemService {
+
+    private final DonationItemRepository donationItemRepository;
+    private final DonationRepository donationRepository;
+    private final CollectionCenterRepository centerRepository;
+    private final DonationItemMapper donationItemMapper;
+
+    public DonationItemService(DonationItemRepository donationItemRepository,
+                               DonationRepository donationRepository,
+                               CollectionCenterRepository centerRepository,
+                               DonationItemMapper donationItemMapper) {
+        this.donationItemRepository = donationItemRepository;
+        this.donationRepository = donationRepository;
+        this.centerRepository = centerRepository;
+        this.donationItemMapper = donationItemMapper;
+    }
+
+    @Transactional
+    public DonationItemDTO create(DonationItemDTO request) {
+        Donation donation = donationRepository.findById(request.getDonationId())
+                .orElseThrow(() -> new RuntimeException("Donation not found with id: " + request.getDonationId()));
+
+        CollectionCenter center = centerRepository.findById(request.getCollectionCenterId())
+                .orElseThrow(() -> new RuntimeException("Center not found with id: " + request.getCollectionCenterId()));
+
+        DonationItem donationItem = new DonationItem();
+        donationItem.setName(request.getItemName());
+        donationItem.setQuantity(request.getQuantity());
+        donationItem.setUnit(request.getUnit());
+        donationItem.setType(request.getType());
+        donationItem.setDonation(donation);
+        donationItem.setCollectionCenter(center);
+
+        return donationItemMapper.toDTO(donationItemRepository.save(donationItem));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonationItemDTO> findAll() {
+        return toDTOs(donationItemRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonationItemDTO> findByDonation(Long donationId) {
+        return toDTOs(donationItemRepository.findByDonationId(donationId));
+    }
+
+    /**
+     * Deletes the item. Returns false if it does not exist.
+     */
+    @Transactional
+    public boolean delete(Long id) {
+        return donationItemRepository.findById(id).map(item -> {
+            donationItemRepository.delete(item);
+            return true;
+        }).orElse(false);
+    }
+
+    private List<DonationItemDTO> toDTOs(List<DonationItem> items) {
+        return items.stream()
+                .map(donationItemMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+}
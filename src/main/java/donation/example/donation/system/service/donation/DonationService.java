@@ -0,0 +1,312 @@
+package donation.example.donation.system.service.donation;
+
+import donation.example.donation.system.dto.CursorPage;
+import donation.example.donation.system.dto.DonationCursor;
+import donation.example.donation.system.dto.DonationDTO;
+import donation.example.donation.system.dto.DonationRequestDTO;
+import donation.example.donation.system.dto.DonationSummaryDTO;
+import donation.example.donation.system.event.DonationStatusChangedEvent;
+import donation.example.donation.system.mapper.DonationMapper;
+import donation.example.donation.system.model.entity.CollectionCenter;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.Donor;
+import donation.example.donation.system.repository.CollectionCenterRepository;
+import donation.example.donation.system.repository.DeliveryRepository;
+import donation.example.donation.system.repository.DonationRepository;
+import donation.example.donation.system.repository.DonorRepository;
+import donation.example.donation.system.service.capacity.CapacityService;
+import donation.example.donation.system.service.delivery.DeliveryLifecycleService;
+import donation.example.donation.system.type.DonationStatus;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Donation use cases, one transaction each.
+ *
+ * Every method returns DTOs mapped before its transaction ends; entities never reach the web
+ * layer, which runs without open-session-in-view. Reads use repository methods with an entity
+ * graph for donor, center and their users, and items are batch-fetched per page. The summary
+ * variants select flat {@link DonationSummaryDTO} rows instead and touch no entities at all.
+ */
+@Service
+public class DonationService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final DonationRepository donationRepository;
+    private final DonorRepository donorRepository;
+    private final CollectionCenterRepository centerRepository;
+    private final DonationMapper donationMapper;
+    private final CapacityService capacityService;
+    private final DeliveryRepository deliveryRepository;
+    private final DeliveryLifecycleService lifecycleService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DonationService(DonationRepository donationRepository,
+                           DonorRepository donorRepository,
+                           CollectionCenterRepository centerRepository,
+                           DonationMapper donationMapper,
+                           CapacityService capacityService,
+                           DeliveryRepository deliveryRepository,
+                           DeliveryLifecycleService lifecycleService,
+                           ApplicationEventPublisher eventPublisher) {
+        this.donationRepository = donationRepository;
+        this.donorRepository = donorRepository;
+        this.centerRepository = centerRepository;
+        this.donationMapper = donationMapper;
+        this.capacityService = capacityService;
+        this.deliveryRepository = deliveryRepository;
+        this.lifecycleService = lifecycleService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<DonationDTO> findById(Long id) {
+        return donationRepository.findDetailedById(id).map(donationMapper::donationToDonationDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonationDTO> findByDonor(Long donorId) {
+        return toDTOs(donationRepository.findByDonorId(donorId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonationDTO> findByCenterAndStatus(Long centerId, DonationStatus status) {
+        return toDTOs(donationRepository.findByCollectionCenterIdAndStatus(centerId, status));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<DonationDTO> findPage(DonationStatus status, String cursor, int size) {
+        if (status != null) {
+            return loadPage((date, id, limit) -> donationRepository.findPageByStatus(status, date, id, limit),
+                    cursor, size);
+        }
+        return loadPage(donationRepository::findPage, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<DonationDTO> findPageForCenter(Long centerId, String cursor, int size) {
+        return loadPage((date, id, limit) ->
+                donationRepository.findPageByCollectionCenterId(centerId, date, id, limit), cursor, size);
+    }
+
+    // Unpaged lists walk all keyset pages on one connection
+
+    @Transactional(readOnly = true)
+    public List<DonationDTO> findAll() {
+        return loadAll(donationRepository::findPage);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonationDTO> findAllByStatus(DonationStatus status) {
+        return loadAll((date, id, limit) -> donationRepository.findPageByStatus(status, date, id, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonationDTO> findAllForCenter(Long centerId) {
+        return loadAll((date, id, limit) -> donationRepository.findPageByCollectionCenterId(centerId, date, id, limit));
+    }
+
+    // view=summary lists, same filters and order as the full ones
+
+    @Transactional(readOnly = true)
+    public List<DonationSummaryDTO> findSummariesByDonor(Long donorId) {
+        return donationRepository.findSummariesByDonorId(donorId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonationSummaryDTO> findSummariesByCenterAndStatus(Long centerId, DonationStatus status) {
+        return donationRepository.findSummariesByCollectionCenterIdAndStatus(centerId, status);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<DonationSummaryDTO> findSummaryPage(DonationStatus status, String cursor, int size) {
+        if (status != null) {
+            return loadSummaryPage((date, id, limit) ->
+                    donationRepository.findSummaryPageByStatus(status, date, id, limit), cursor, size);
+        }
+        return loadSummaryPage(donationRepository::findSummaryPage, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<DonationSummaryDTO> findSummaryPageForCenter(Long centerId, String cursor, int size) {
+        return loadSummaryPage((date, id, limit) ->
+                donationRepository.findSummaryPageByCollectionCenterId(centerId, date, id, limit), cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonationSummaryDTO> findAllSummaries() {
+        return loadAll(cursor -> loadSummaryPage(donationRepository::findSummaryPage, cursor, MAX_PAGE_SIZE));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonationSummaryDTO> findAllSummariesByStatus(DonationStatus status) {
+        return loadAll(cursor -> loadSummaryPage((date, id, limit) ->
+                donationRepository.findSummaryPageByStatus(status, date, id, limit), cursor, MAX_PAGE_SIZE));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonationSummaryDTO> findAllSummariesForCenter(Long centerId) {
+        return loadAll(cursor -> loadSummaryPage((date, id, limit) ->
+                donationRepository.findSummaryPageByCollectionCenterId(centerId, date, id, limit), cursor, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Creates a PENDING donation for the donor, or returns empty if the donor does not exist.
+     */
+    @Transactional
+    public Optional<DonationDTO> create(Long donorId, DonationRequestDTO request) {
+        return donorRepository.findById(donorId).map(donor -> create(donor, request));
+    }
+
+    /**
+     * Creates a PENDING donation for a donor id taken from the caller's token.
+     */
+    @Transactional
+    public DonationDTO createForDonor(Long donorId, DonationRequestDTO request) {
+        return create(donorRepository.getReferenceById(donorId), request);
+    }
+
+    @Transactional
+    public Optional<DonationDTO> updateStatus(Long id, DonationStatus status) {
+        return donationRepository.findDetailedById(id).map(donation -> {
+            donation.setStatus(status);
+            return donationMapper.donationToDonationDTO(donationRepository.save(donation));
+        });
+    }
+
+    /**
+     * Staff accepts a PENDING donation at their center: the capacity reservation and the status
+     * change commit together, so a full center (409) leaves the donation untouched.
+     */
+    @Transactional
+    public Optional<DonationDTO> accept(Long id, Long staffCenterId) {
+        return donationRepository.findDetailedById(id).map(donation -> {
+            checkPendingAtCenter(donation, staffCenterId, "accept");
+
+            // Goods are now stored at the center; fails with 409 if it is full
+            capacityService.reserve(staffCenterId, donation.getId());
+
+            donation.setStatus(DonationStatus.COLLECTED);
+            Donation saved = donationRepository.save(donation);
+
+            // Lets the dispatcher assign a driver and recipient once this commits
+            eventPublisher.publishEvent(new DonationStatusChangedEvent(saved.getId(), staffCenterId, DonationStatus.COLLECTED));
+            return donationMapper.donationToDonationDTO(saved);
+        });
+    }
+
+    @Transactional
+    public Optional<DonationDTO> reject(Long id, Long staffCenterId) {
+        return donationRepository.findDetailedById(id).map(donation -> {
+            checkPendingAtCenter(donation, staffCenterId, "reject");
+            donation.setStatus(DonationStatus.REJECTED);
+            return donationMapper.donationToDonationDTO(donationRepository.save(donation));
+        });
+    }
+
+    /**
+     * Deletes the donation with its delivery and gives back any capacity it holds. Returns false
+     * if it does not exist.
+     */
+    @Transactional
+    public boolean delete(Long id) {
+        return donationRepository.findById(id).map(donation -> {
+            // Through the lifecycle so an unfinished delivery hands its driver back
+            deliveryRepository.findIdByDonationId(id).ifPresent(lifecycleService::delete);
+            if (donation.getCollectionCenter() != null) {
+                capacityService.release(donation.getCollectionCenter().getId(), donation.getId());
+            }
+            donationRepository.delete(donation);
+            return true;
+        }).orElse(false);
+    }
+
+    private DonationDTO create(Donor donor, DonationRequestDTO request) {
+        CollectionCenter center = centerRepository.findById(request.getCollectionCenterId())
+                .orElseThrow(() -> new RuntimeException("Collection Center not found"));
+
+        Donation donation = new Donation();
+        donation.setName(request.getName());
+        donation.setDonor(donor);
+        donation.setCollectionCenter(center);
+        donation.setStatus(DonationStatus.PENDING);
+        return donationMapper.donationToDonationDTO(donationRepository.save(donation));
+    }
+
+    private static void checkPendingAtCenter(Donation donation, Long staffCenterId, String action) {
+        if (donation.getCollectionCenter() == null ||
+            !donation.getCollectionCenter().getId().equals(staffCenterId)) {
+            throw new RuntimeException("Donation does not belong to your collection center");
+        }
+        if (donation.getStatus() != DonationStatus.PENDING) {
+            throw new RuntimeException("Can only " + action + " donations with PENDING status");
+        }
+    }
+
+    private List<DonationDTO> toDTOs(List<Donation> donations) {
+        return donations.stream()
+                .map(donationMapper::donationToDonationDTO)
+                .collect(Collectors.toList());
+    }
+
+    // ==================== KEYSET PAGING ====================
+
+    @FunctionalInterface
+    private interface KeysetQuery<T> {
+        List<T> fetch(LocalDateTime date, Long id, Limit limit);
+    }
+
+    private CursorPage<DonationDTO> loadPage(KeysetQuery<Donation> query, String cursor, int size) {
+        return loadPage(query, cursor, size, d -> new DonationCursor(d.getDonationDate(), d.getId()),
+                donationMapper::donationToDonationDTO);
+    }
+
+    private CursorPage<DonationSummaryDTO> loadSummaryPage(KeysetQuery<DonationSummaryDTO> query, String cursor, int size) {
+        return loadPage(query, cursor, size, s -> new DonationCursor(s.getDonationDate(), s.getId()),
+                Function.identity());
+    }
+
+    // Fetches one extra row to learn whether another page follows without a count query
+    private <T, R> CursorPage<R> loadPage(KeysetQuery<T> query, String cursor, int size,
+                                          Function<T, DonationCursor> positionOf, Function<T, R> mapper) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        DonationCursor position = DonationCursor.decode(cursor);
+
+        List<T> rows = query.fetch(position.getDonationDate(), position.getId(), Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<R> items = rows.stream().map(mapper).collect(Collectors.toList());
+
+        String nextCursor = hasMore ? positionOf.apply(rows.get(rows.size() - 1)).encode() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private List<DonationDTO> loadAll(KeysetQuery<Donation> query) {
+        return loadAll(cursor -> loadPage(query, cursor, MAX_PAGE_SIZE));
+    }
+
+    // Walks the keyset pages rather than loading everything at once so every page keeps the same fetch plan
+    private static <R> List<R> loadAll(Function<String, CursorPage<R>> pages) {
+        List<R> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<R> page = pages.apply(cursor);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return all;
+    }
+}
@@ -0,0 +1,88 @@
+package donation.example.donation.system.service.donor;
+
+import donation.example.donation.system.dto.DonorDTO;
+import donation.example.donation.system.mapper.DonorMapper;
+import donation.example.donation.system.model.entity.Donor;
+import donation.example.donation.system.model.entity.User;
+import donation.example.donation.system.repository.DonorRepository;
+import donation.example.donation.system.repository.UserRepository;
+import donation.example.donation.system.security.ActorProfileCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Donor profile use cases, one transaction each.
+ */
+@Service
+public class DonorService {
+
+    private final DonorRepository donorRepository;
+    private final UserRepository userRepository;
+    private final DonorMapper donorMapper;
+    private final ActorProfileCache actorProfileCache;
+
+    public DonorService(DonorRepository donorRepository, UserRepository userRepository, DonorMapper donorMapper,
+                        ActorProfileCache actorProfileCache) {
+        this.donorRepository = donorRepository;
+        this.userRepository = userRepository;
+        this.donorMapper = donorMapper;
+        this.actorProfileCache = actorProfileCache;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DonorDTO> findAll() {
+        return donorRepository.findAll()
+                .stream()
+                .map(donorMapper::donorToDonorDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<DonorDTO> findById(Long id) {
+        return donorRepository.findById(id).map(donorMapper::donorToDonorDTO);
+    }
+
+    /**
+     * Creates a donor profile for an existing user account.
+     */
+    @Transactional
+    public DonorDTO createForUser(String username, Donor donor) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Link the existing user rather than creating a new one
+        donor.setUser(user);
+
+        Donor saved = donorRepository.save(donor);
+        actorProfileCache.invalidate(user.getId());
+        return donorMapper.donorToDonorDTO(saved);
+    }
+
+    @Transactional
+    public Optional<DonorDTO> update(Long id, Donor donorDetails) {
+        return donorRepository.findById(id).map(donor -> {
+            donor.setName(donorDetails.getName());
+            donor.setContact(donorDetails.getContact());
+            donor.setLocation(donorDetails.getLocation());
+            return donorMapper.donorToDonorDTO(donorRepository.save(donor));
+        });
+    }
+
+    /**
+     * Deletes the donor. Returns false if it does not exist.
+     */
+    @Transactional
+    public boolean delete(Long id) {
+        return donorRepository.findById(id).map(donor -> {
+            donorRepository.delete(donor);
+            if (donor.getUser() != null) {
+                actorProfileCache.invalidate(donor.getUser().getId());
+            }
+            return true;
+        }).orElse(false);
+    }
+}
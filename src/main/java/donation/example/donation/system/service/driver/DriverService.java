@@ -0,0 +1,113 @@
+package donation.example.donation.system.service.driver;
+
+import donation.example.donation.system.dto.DeliveryPartnerDTO;
+import donation.example.donation.system.event.DriverAvailableEvent;
+import donation.example.donation.system.mapper.DeliveryPartnerMapper;
+import donation.example.donation.system.model.entity.DeliveryPartner;
+import donation.example.donation.system.repository.CollectionCenterRepository;
+import donation.example.donation.system.repository.DeliveryPartnerRepository;
+import donation.example.donation.system.security.ActorProfileCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Driver profile and availability use cases, one transaction each. Drivers are loaded with
+ * their center and user so the DTO is complete when the transaction ends.
+ */
+@Service
+public class DriverService {
+
+    private final DeliveryPartnerRepository driverRepository;
+    private final CollectionCenterRepository centerRepository;
+    private final DeliveryPartnerMapper driverMapper;
+    private final ActorProfileCache actorProfileCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DriverService(DeliveryPartnerRepository driverRepository,
+                         CollectionCenterRepository centerRepository,
+                         DeliveryPartnerMapper driverMapper,
+                         ActorProfileCache actorProfileCache,
+                         ApplicationEventPublisher eventPublisher) {
+        this.driverRepository = driverRepository;
+        this.centerRepository = centerRepository;
+        this.driverMapper = driverMapper;
+        this.actorProfileCache = actorProfileCache;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DeliveryPartnerDTO> findAll() {
+        return toDTOs(driverRepository.findAllDetailed());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<DeliveryPartnerDTO> findById(Long id) {
+        return driverRepository.findDetailedById(id).map(driverMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DeliveryPartnerDTO> findByCenter(Long centerId) {
+        return toDTOs(driverRepository.findByCollectionCenterId(centerId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DeliveryPartnerDTO> findAvailableByCenter(Long centerId) {
+        return toDTOs(driverRepository.findByCollectionCenterIdAndIsAvailableTrue(centerId));
+    }
+
+    @Transactional
+    public Optional<DeliveryPartnerDTO> updateAvailability(Long id, Boolean isAvailable) {
+        return driverRepository.findDetailedById(id).map(driver -> {
+            driver.setIsAvailable(isAvailable);
+            DeliveryPartner saved = driverRepository.save(driver);
+            offerToDispatch(saved);
+            return driverMapper.toDTO(saved);
+        });
+    }
+
+    /**
+     * Assigns the driver to a center. Empty if either does not exist.
+     */
+    @Transactional
+    public Optional<DeliveryPartnerDTO> assignToCenter(Long driverId, Long centerId) {
+        return driverRepository.findDetailedById(driverId).flatMap(driver ->
+                centerRepository.findById(centerId).map(center -> {
+                    driver.setCollectionCenter(center);
+                    DeliveryPartner saved = driverRepository.save(driver);
+                    if (driver.getUser() != null) {
+                        actorProfileCache.invalidate(driver.getUser().getId());
+                    }
+                    offerToDispatch(saved);
+                    return driverMapper.toDTO(saved);
+                }));
+    }
+
+    @Transactional
+    public Optional<DeliveryPartnerDTO> update(Long id, DeliveryPartnerDTO dto) {
+        return driverRepository.findDetailedById(id).map(driver -> {
+            if (dto.getName() != null) driver.setName(dto.getName());
+            if (dto.getPhone() != null) driver.setPhone(dto.getPhone());
+            if (dto.getVehicleNumber() != null) driver.setVehicleNumber(dto.getVehicleNumber());
+            if (dto.getVehicleType() != null) driver.setVehicleType(dto.getVehicleType());
+            return driverMapper.toDTO(driverRepository.save(driver));
+        });
+    }
+
+    // Makes an on-duty driver visible to the dispatcher; stale entries elsewhere fail their claim
+    private void offerToDispatch(DeliveryPartner driver) {
+        if (Boolean.TRUE.equals(driver.getIsAvailable()) && driver.getCollectionCenter() != null) {
+            eventPublisher.publishEvent(new DriverAvailableEvent(driver.getCollectionCenter().getId(), driver.getId()));
+        }
+    }
+
+    private List<DeliveryPartnerDTO> toDTOs(List<DeliveryPartner> drivers) {
+        return drivers.stream()
+                .map(driverMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+}
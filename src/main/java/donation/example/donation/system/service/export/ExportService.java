@@ -0,0 +1,104 @@
+package donation.example.donation.system.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import donation.example.donation.system.mapper.DeliveryMapper;
+import donation.example.donation.system.mapper.DonationMapper;
+import donation.example.donation.system.repository.DeliveryRepository;
+import donation.example.donation.system.repository.DonationRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes full donation/delivery listings as newline-delimited JSON, one row at a time.
+ * Rows come from a server-side cursor and the persistence context is cleared every
+ * {@link #CHUNK_SIZE} rows, so heap use does not grow with the size of the export.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    // Rows written between output flushes and persistence context clears
+    private static final int CHUNK_SIZE = 500;
+
+    private final DonationRepository donationRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final DonationMapper donationMapper;
+    private final DeliveryMapper deliveryMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(DonationRepository donationRepository,
+                         DeliveryRepository deliveryRepository,
+                         DonationMapper donationMapper,
+                         DeliveryMapper deliveryMapper,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.donationRepository = donationRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.donationMapper = donationMapper;
+        this.deliveryMapper = deliveryMapper;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void writeDonations(OutputStream out) {
+        long rows = writeNdjson(donationRepository::streamAllForExport, donationMapper::donationToDonationDTO, out);
+        logger.info("Exported {} donations", rows);
+    }
+
+    public void writeDeliveries(OutputStream out) {
+        long rows = writeNdjson(deliveryRepository::streamAllForExport, deliveryMapper::toDTO, out);
+        logger.info("Exported {} deliveries", rows);
+    }
+
+    private <E, D> long writeNdjson(Supplier<Stream<E>> source, Function<E, D> mapper, OutputStream out) {
+        Long written = readOnlyTransaction.execute(status -> {
+            try (Stream<E> rows = source.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // The servlet container owns the response stream
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+                SequenceWriter writer = objectMapper.writer()
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                        .withRootValueSeparator("\n")
+                        .writeValues(generator);
+
+                long count = 0;
+                Iterator<E> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(mapper.apply(iterator.next()));
+                    if (++count % CHUNK_SIZE == 0) {
+                        writer.flush();
+                        entityManager.clear();
+                    }
+                }
+                generator.writeRaw('\n');
+                writer.flush();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return written != null ? written : 0;
+    }
+}
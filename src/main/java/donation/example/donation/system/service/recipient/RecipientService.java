@@ -0,0 +1,95 @@
+package donation.example.donation.system.service.recipient;
+
+import donation.example.donation.system.dto.RecipientDTO;
+import donation.example.donation.system.mapper.RecipientMapper;
+import donation.example.donation.system.model.entity.Recipient;
+import donation.example.donation.system.repository.RecipientRepository;
+import donation.example.donation.system.type.RecipientType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Recipient use cases, one transaction each.
+ */
+@Service
+public class RecipientService {
+
+    private final RecipientRepository recipientRepository;
+    private final RecipientMapper recipientMapper;
+
+    public RecipientService(RecipientRepository recipientRepository, RecipientMapper recipientMapper) {
+        this.recipientRepository = recipientRepository;
+        this.recipientMapper = recipientMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipientDTO> findAll() {
+        return toDTOs(recipientRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipientDTO> findActive() {
+        return toDTOs(recipientRepository.findByIsActiveTrue());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RecipientDTO> findById(Long id) {
+        return recipientRepository.findById(id).map(recipientMapper::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipientDTO> findByType(RecipientType type) {
+        return toDTOs(recipientRepository.findByType(type));
+    }
+
+    @Transactional
+    public RecipientDTO create(RecipientDTO dto) {
+        Recipient recipient = new Recipient();
+        recipient.setName(dto.getName());
+        recipient.setType(dto.getType());
+        recipient.setAddress(dto.getAddress());
+        recipient.setContactPerson(dto.getContactPerson());
+        recipient.setPhone(dto.getPhone());
+        recipient.setEmail(dto.getEmail());
+        recipient.setIsActive(true);
+
+        return recipientMapper.toDTO(recipientRepository.save(recipient));
+    }
+
+    @Transactional
+    public Optional<RecipientDTO> update(Long id, RecipientDTO dto) {
+        return recipientRepository.findById(id).map(recipient -> {
+            if (dto.getName() != null) recipient.setName(dto.getName());
+            if (dto.getType() != null) recipient.setType(dto.getType());
+            if (dto.getAddress() != null) recipient.setAddress(dto.getAddress());
+            if (dto.getContactPerson() != null) recipient.setContactPerson(dto.getContactPerson());
+            if (dto.getPhone() != null) recipient.setPhone(dto.getPhone());
+            if (dto.getEmail() != null) recipient.setEmail(dto.getEmail());
+            if (dto.getIsActive() != null) recipient.setIsActive(dto.getIsActive());
+
+            return recipientMapper.toDTO(recipientRepository.save(recipient));
+        });
+    }
+
+    /**
+     * Deactivates the recipient; deliveries keep pointing at it. Returns false if it does not exist.
+     */
+    @Transactional
+    public boolean deactivate(Long id) {
+        return recipientRepository.findById(id).map(recipient -> {
+            recipient.setIsActive(false);
+            recipientRepository.save(recipient);
+            return true;
+        }).orElse(false);
+    }
+
+    private List<RecipientDTO> toDTOs(List<Recipient> recipients) {
+        return recipients.stream()
+                .map(recipientMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,8 @@
+package donation.example.donation.system.type;
+
+public enum AiJobStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,11 @@
+-- Columns the entities gained after databases were first created by ddl-auto=update. V1 skips
+-- tables that already exist, and Flyway runs before Hibernate, so add them here for V2 to use.
+
+ALTER TABLE donation
+    ADD COLUMN IF NOT EXISTS reserved_units  integer,
+    ADD COLUMN IF NOT EXISTS delivery_id     bigint,
+    ADD COLUMN IF NOT EXISTS delivery_status varchar(255) CHECK (delivery_status IN ('ASSIGNED','PICKED_UP','IN_TRANSIT',
+                                                                                     'DELIVERED','CANCELLED'));
+
+ALTER TABLE ai_generated_content
+    ADD COLUMN IF NOT EXISTS content_hash varchar(64);
@@ -0,0 +1,164 @@
+-- Schema as ddl-auto=update left it. Builds a fresh database from scratch; on databases created
+-- before Flyway (baselined at version 0) existing tables are kept and only the newer ones are
+-- added, with V1_1 bringing the old tables up to date.
+
+CREATE TABLE IF NOT EXISTS users (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY,
+    username varchar(255) UNIQUE,
+    email    varchar(255) UNIQUE,
+    password varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id bigint NOT NULL,
+    roles   varchar(255) CHECK (roles IN ('ROLE_DONOR','ROLE_STAFF','ROLE_DRIVER','ROLE_ADMIN')),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS collection_center (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY,
+    name         varchar(255),
+    location     varchar(255),
+    max_capacity integer,
+    current_load integer,
+    user_id      bigint UNIQUE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_collection_center_user FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS donor (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY,
+    name     varchar(255),
+    contact  varchar(255),
+    location varchar(255),
+    user_id  bigint UNIQUE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_donor_user FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS delivery_partner (
+    id                   bigint GENERATED BY DEFAULT AS IDENTITY,
+    name                 varchar(255),
+    phone                varchar(255),
+    vehicle_number       varchar(255),
+    vehicle_type         varchar(255),
+    is_available         boolean,
+    user_id              bigint UNIQUE,
+    collection_center_id bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_delivery_partner_user FOREIGN KEY (user_id) REFERENCES users,
+    CONSTRAINT fk_delivery_partner_center FOREIGN KEY (collection_center_id) REFERENCES collection_center
+);
+
+CREATE TABLE IF NOT EXISTS recipient (
+    id             bigint GENERATED BY DEFAULT AS IDENTITY,
+    name           varchar(255),
+    type           varchar(255) CHECK (type IN ('SHELTER','FOOD_BANK','COMMUNITY_CENTER','NGO','ORPHANAGE',
+                                                'OLD_AGE_HOME','OTHER')),
+    address        varchar(255),
+    contact_person varchar(255),
+    phone          varchar(255),
+    email          varchar(255),
+    is_active      boolean,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS donation (
+    id                   bigint GENERATED BY DEFAULT AS IDENTITY,
+    name                 varchar(255),
+    donation_date        timestamp(6),
+    status               varchar(255) CHECK (status IN ('PENDING','REJECTED','COLLECTED','ASSIGNED','IN_TRANSIT',
+                                                        'DELIVERED','PROCESSED')),
+    donor_id             bigint,
+    collection_center_id bigint,
+    reserved_units       integer,
+    delivery_id          bigint,
+    delivery_status      varchar(255) CHECK (delivery_status IN ('ASSIGNED','PICKED_UP','IN_TRANSIT','DELIVERED',
+                                                                 'CANCELLED')),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_donation_donor FOREIGN KEY (donor_id) REFERENCES donor,
+    CONSTRAINT fk_donation_center FOREIGN KEY (collection_center_id) REFERENCES collection_center
+);
+
+CREATE TABLE IF NOT EXISTS donation_item (
+    id                   bigint GENERATED BY DEFAULT AS IDENTITY,
+    name                 varchar(255),
+    quantity             integer,
+    unit                 varchar(255) CHECK (unit IN ('KG','GRAM','LITRE','LITERS','ML','UNITS','PIECES','BOXES',
+                                                      'LOAVES','OTHER')),
+    type                 varchar(255) CHECK (type IN ('FOOD','GROCERY','HOUSEHOLD_SUPPLIES','OTHER')),
+    donation_id          bigint,
+    collection_center_id bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_donation_item_donation FOREIGN KEY (donation_id) REFERENCES donation,
+    CONSTRAINT fk_donation_item_center FOREIGN KEY (collection_center_id) REFERENCES collection_center
+);
+
+CREATE TABLE IF NOT EXISTS delivery (
+    id                    bigint GENERATED BY DEFAULT AS IDENTITY,
+    donation_id           bigint NOT NULL UNIQUE,
+    from_center_id        bigint NOT NULL,
+    driver_id             bigint,
+    recipient_id          bigint,
+    status                varchar(255) CHECK (status IN ('ASSIGNED','PICKED_UP','IN_TRANSIT','DELIVERED','CANCELLED')),
+    notes                 varchar(255),
+    created_at            timestamp(6),
+    scheduled_pickup_time timestamp(6),
+    actual_pickup_time    timestamp(6),
+    delivered_time        timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_delivery_donation FOREIGN KEY (donation_id) REFERENCES donation,
+    CONSTRAINT fk_delivery_center FOREIGN KEY (from_center_id) REFERENCES collection_center,
+    CONSTRAINT fk_delivery_driver FOREIGN KEY (driver_id) REFERENCES delivery_partner,
+    CONSTRAINT fk_delivery_recipient FOREIGN KEY (recipient_id) REFERENCES recipient
+);
+
+CREATE TABLE IF NOT EXISTS content_blob (
+    hash          varchar(64) NOT NULL,
+    body          bytea NOT NULL,
+    original_size integer NOT NULL,
+    created_at    timestamp(6),
+    PRIMARY KEY (hash)
+);
+
+-- The unique (donation_id, content_type) constraint is added in V2, after existing duplicates are removed
+CREATE TABLE IF NOT EXISTS ai_generated_content (
+    id                    bigint GENERATED BY DEFAULT AS IDENTITY,
+    donation_id           bigint NOT NULL,
+    content_type          varchar(255) NOT NULL CHECK (content_type IN ('THANK_YOU','FOOD_TIPS','DESCRIPTION')),
+    content_hash          varchar(64),
+    content               text,
+    recipient_user_id     bigint,
+    generated_by_user_id  bigint,
+    generated_by_username varchar(255),
+    center_name           varchar(255),
+    donation_name         varchar(255),
+    generated_at          timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS ai_cache_entry (
+    cache_key   varchar(64) NOT NULL,
+    prompt_name varchar(255) NOT NULL,
+    content     text NOT NULL,
+    created_at  timestamp(6),
+    PRIMARY KEY (cache_key)
+);
+
+CREATE TABLE IF NOT EXISTS ai_job (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY,
+    donation_id  bigint NOT NULL,
+    content_type varchar(255) NOT NULL CHECK (content_type IN ('THANK_YOU','FOOD_TIPS','DESCRIPTION')),
+    status       varchar(255) NOT NULL CHECK (status IN ('PENDING','RUNNING','DONE','FAILED')),
+    attempts     integer NOT NULL,
+    run_after    timestamp(6) NOT NULL,
+    locked_until timestamp(6),
+    last_error   varchar(255),
+    created_at   timestamp(6),
+    completed_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_ai_job_donation_type UNIQUE (donation_id, content_type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ai_job_status_run_after ON ai_job (status, run_after);
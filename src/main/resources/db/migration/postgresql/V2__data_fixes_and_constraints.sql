@@ -0,0 +1,30 @@
+-- Fix-ups ddl-auto=update could not apply to databases created by earlier versions
+
+-- Content text moved to content_blob; only rows written before that still fill this column
+ALTER TABLE ai_generated_content ALTER COLUMN content DROP NOT NULL;
+
+-- Rows saved before uk_ai_content_donation_type existed may repeat a (donation, type) pair.
+-- Keep the newest of each so the constraint can be added.
+DELETE FROM ai_generated_content older
+ USING ai_generated_content newer
+ WHERE older.donation_id = newer.donation_id
+   AND older.content_type = newer.content_type
+   AND older.id < newer.id;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                    WHERE conname = 'uk_ai_content_donation_type'
+                      AND conrelid = 'ai_generated_content'::regclass) THEN
+        ALTER TABLE ai_generated_content
+            ADD CONSTRAINT uk_ai_content_donation_type UNIQUE (donation_id, content_type);
+    END IF;
+END $$;
+
+-- Donations carry a copy of their delivery's id and status; fill it in for deliveries
+-- created before those columns existed
+UPDATE donation d
+   SET delivery_id = dl.id, delivery_status = dl.status
+  FROM delivery dl
+ WHERE dl.donation_id = d.id
+   AND (d.delivery_id IS DISTINCT FROM dl.id OR d.delivery_status IS DISTINCT FROM dl.status);
@@ -0,0 +1,65 @@
+-- Indexes for the filters and orderings the repositories run on every request.
+-- Postgres does not index foreign keys by itself, so before this every list below was a
+-- sequential scan. Plain CREATE INDEX blocks writes to the table while it builds; on a large
+-- database create them by hand with CONCURRENTLY first and these statements are skipped.
+
+-- donation: keyset pages are ordered by (donation_date DESC, id DESC) under each filter,
+-- so each index ends in that order and a page is a bounded index range scan
+
+CREATE INDEX IF NOT EXISTS idx_donation_date
+    ON donation (donation_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_donation_status_date
+    ON donation (status, donation_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_donation_center_date
+    ON donation (collection_center_id, donation_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_donation_center_status_date
+    ON donation (collection_center_id, status, donation_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_donation_donor_date
+    ON donation (donor_id, donation_date DESC, id DESC);
+
+-- Dispatch backlog, oldest first. Only the few COLLECTED rows are indexed.
+CREATE INDEX IF NOT EXISTS idx_donation_collected_backlog
+    ON donation (donation_date, id)
+    WHERE status = 'COLLECTED';
+
+-- donation_item: batch loads of a page's items by donation id
+
+CREATE INDEX IF NOT EXISTS idx_donation_item_donation
+    ON donation_item (donation_id);
+
+CREATE INDEX IF NOT EXISTS idx_donation_item_center
+    ON donation_item (collection_center_id);
+
+-- delivery: a driver's full history, their open work, and a center's outgoing deliveries.
+-- Open deliveries are a small slice of the table, so that index only covers them.
+
+CREATE INDEX IF NOT EXISTS idx_delivery_driver
+    ON delivery (driver_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_delivery_driver_open
+    ON delivery (driver_id, status)
+    WHERE status IN ('ASSIGNED', 'PICKED_UP', 'IN_TRANSIT');
+
+CREATE INDEX IF NOT EXISTS idx_delivery_from_center
+    ON delivery (from_center_id, id);
+
+-- delivery_partner: drivers of a center. Few enough that the idle ones are filtered, not indexed.
+
+CREATE INDEX IF NOT EXISTS idx_delivery_partner_center
+    ON delivery_partner (collection_center_id);
+
+-- user_roles: loaded eagerly with every user
+
+CREATE INDEX IF NOT EXISTS idx_user_roles_user
+    ON user_roles (user_id);
+
+-- ai_generated_content: lookups by donation use uk_ai_content_donation_type; a user's
+-- latest messages of one type are read newest first
+
+CREATE INDEX IF NOT EXISTS idx_ai_content_recipient_type_generated
+    ON ai_generated_content (recipient_user_id, content_type, generated_at DESC)
+    WHERE recipient_user_id IS NOT NULL;
@@ -0,0 +1,9 @@
+-- Donation listings page by (donation_date DESC, id DESC) with a keyset predicate that no NULL
+-- date can satisfy, so undated rows never appeared past the first page. New donations are
+-- always dated; older undated rows take the earliest known date so they list last.
+
+UPDATE donation
+   SET donation_date = COALESCE((SELECT min(donation_date) FROM donation), CURRENT_TIMESTAMP)
+ WHERE donation_date IS NULL;
+
+ALTER TABLE donation ALTER COLUMN donation_date SET NOT NULL;
@@ -0,0 +1,74 @@
+package donation.example.donation.system.security;
+
+import donation.example.donation.system.model.entity.Donor;
+import donation.example.donation.system.model.entity.User;
+import donation.example.donation.system.repository.DonorRepository;
+import donation.example.donation.system.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(ActorProfileCache.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ActorProfileCacheTest {
+
+    @Autowired
+    private ActorProfileCache profileCache;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DonorRepository donorRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        donorRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void profileLinkedInATransactionIsSeenOnceItCommits() {
+        User user = userRepository.save(new User("asha", "asha@example.org", "secret"));
+        assertNull(profileCache.get(user.getId()).getDonorId());
+
+        Long donorId = new TransactionTemplate(transactionManager).execute(status -> {
+            Donor donor = new Donor();
+            donor.setName("Asha");
+            donor.setUser(user);
+            Long id = donorRepository.save(donor).getId();
+            donorRepository.flush();
+            profileCache.invalidate(user.getId());
+
+            // Another request reads the profile before the donor is committed
+            assertNull(CompletableFuture.supplyAsync(() -> profileCache.get(user.getId())).join().getDonorId());
+            return id;
+        });
+
+        assertEquals(donorId, profileCache.get(user.getId()).getDonorId());
+    }
+
+    @Test
+    void rolledBackChangeKeepsTheCachedProfile() {
+        User user = userRepository.save(new User("ravi", "ravi@example.org", "secret"));
+        ActorProfile before = profileCache.get(user.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            profileCache.invalidate(user.getId());
+            status.setRollbackOnly();
+        });
+
+        assertSame(before, profileCache.get(user.getId()));
+    }
+}
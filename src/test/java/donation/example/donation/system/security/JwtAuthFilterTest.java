@@ -0,0 +1,103 @@
+package donation.example.donation.system.security;
+
+import donation.example.donation.system.model.entity.User;
+import donation.example.donation.system.type.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthFilterTest {
+
+    private final JWTUtil jwtUtil = new JWTUtil();
+    private UserDetailsService userDetailsService;
+    private JwtAuthFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = mock(UserDetailsService.class);
+        filter = new JwtAuthFilter(jwtUtil, userDetailsService);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesFromClaimsWithoutLoadingUser() throws Exception {
+        String token = jwtUtil.generateToken(user());
+
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        UserDetailsImpl principal = (UserDetailsImpl) auth.getPrincipal();
+        assertEquals(42L, principal.getId());
+        assertEquals("staff1", principal.getUsername());
+        assertTrue(auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_STAFF")));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void rejectsTamperedToken() throws Exception {
+        String token = jwtUtil.generateToken(user());
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        filter.doFilter(bearer(tampered), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void parsesEachTokenOnceAndNeverLoadsTheUser() throws Exception {
+        JWTUtil parser = spy(jwtUtil);
+        filter = new JwtAuthFilter(parser, userDetailsService);
+        User other = user();
+        other.setId(43L);
+        other.setUsername("staff2");
+        String first = jwtUtil.generateToken(user());
+        String second = jwtUtil.generateToken(other);
+        int requests = 100;
+
+        for (int i = 0; i < requests; i++) {
+            runOnce(i % 2 == 0 ? first : second);
+            UserDetailsImpl principal =
+                    (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            assertEquals(i % 2 == 0 ? 42L : 43L, principal.getId());
+        }
+
+        verify(parser, times(requests)).parseClaims(anyString());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private void runOnce(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    private MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/donations/center/all");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private User user() {
+        User user = new User("staff1", "staff1@example.com", "secret");
+        user.setId(42L);
+        user.setRoles(Set.of(Role.ROLE_STAFF));
+        return user;
+    }
+}
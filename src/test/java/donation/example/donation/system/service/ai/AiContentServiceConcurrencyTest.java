@@ -0,0 +1,145 @@
+package donation.example.donation.system.service.ai;
+
+import donation.example.donation.system.dto.ai.AiResponse;
+import donation.example.donation.system.dto.ai.FoodTipsGenerateRequest;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.User;
+import donation.example.donation.system.repository.AiGeneratedContentRepository;
+import donation.example.donation.system.repository.DonationItemRepository;
+import donation.example.donation.system.repository.DonationRepository;
+import donation.example.donation.system.repository.UserRepository;
+import donation.example.donation.system.type.AiContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import({AiContentService.class, ContentBlobStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AiContentServiceConcurrencyTest {
+
+    private static final int THREADS = 12;
+
+    @Autowired
+    private AiContentService aiContentService;
+    @Autowired
+    private AiGeneratedContentRepository aiContentRepository;
+    @Autowired
+    private DonationRepository donationRepository;
+    @Autowired
+    private DonationItemRepository donationItemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ContentBlobStore blobStore;
+
+    @MockitoBean
+    private GeminiService geminiService;
+
+    private final AtomicInteger geminiCalls = new AtomicInteger();
+    private Long donationId;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("staff", "staff@example.org", "secret"));
+        Donation donation = new Donation();
+        donation.setName("Rice and dal");
+        donationId = donationRepository.save(donation).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        aiContentRepository.deleteAll();
+        donationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRequestsShareOneGeneration() throws Exception {
+        when(geminiService.getFoodHandlingTips(anyList())).thenAnswer(invocation -> {
+            int call = geminiCalls.incrementAndGet();
+            Thread.sleep(300);
+            return CompletableFuture.completedFuture(AiResponse.success("tips #" + call));
+        });
+
+        List<AiResponse> responses = runConcurrently(THREADS, i -> aiContentService);
+
+        assertEquals(1, geminiCalls.get());
+        assertEquals(1, aiContentRepository.findByDonationId(donationId).size());
+        for (AiResponse response : responses) {
+            assertTrue(response.isSuccess(), response.getError());
+            assertEquals("tips #1", response.getContent());
+        }
+    }
+
+    @Test
+    void uniqueConstraintSettlesRaceBetweenNodes() throws Exception {
+        // Both "nodes" pass the existence check before either saves
+        CyclicBarrier bothGenerating = new CyclicBarrier(2);
+        when(geminiService.getFoodHandlingTips(anyList())).thenAnswer(invocation -> {
+            int call = geminiCalls.incrementAndGet();
+            bothGenerating.await(5, TimeUnit.SECONDS);
+            return CompletableFuture.completedFuture(AiResponse.success("tips #" + call));
+        });
+        AiContentService otherNode = new AiContentService(aiContentRepository, donationRepository, donationItemRepository,
+                userRepository, geminiService, blobStore, transactionManager);
+
+        List<AiResponse> responses = runConcurrently(2, i -> i == 0 ? aiContentService : otherNode);
+
+        assertEquals(2, geminiCalls.get());
+        assertEquals(1, aiContentRepository.findByDonationId(donationId).size());
+        String stored = aiContentService.getSavedContent(donationId, AiContentType.FOOD_TIPS).getContent();
+        Set<String> returned = new HashSet<>();
+        for (AiResponse response : responses) {
+            assertTrue(response.isSuccess(), response.getError());
+            returned.add(response.getContent());
+        }
+        assertEquals(Set.of(stored), returned);
+    }
+
+    private List<AiResponse> runConcurrently(int callers, IntFunction<AiContentService> node)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AiResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            AiContentService service = node.apply(i);
+            futures.add(pool.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken("staff", null, List.of()));
+                start.await();
+                return service.generateAndSaveFoodTips(new FoodTipsGenerateRequest(donationId, List.of("rice", "dal"))).join();
+            }));
+        }
+        start.countDown();
+        List<AiResponse> responses = new ArrayList<>();
+        for (Future<AiResponse> future : futures) {
+            responses.add(future.get(30, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        return responses;
+    }
+}
@@ -0,0 +1,104 @@
+package donation.example.donation.system.service.ai;
+
+import com.zaxxer.hikari.HikariDataSource;
+import donation.example.donation.system.dto.ai.AiResponse;
+import donation.example.donation.system.dto.ai.FoodTipsGenerateRequest;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.User;
+import donation.example.donation.system.repository.AiGeneratedContentRepository;
+import donation.example.donation.system.repository.DonationRepository;
+import donation.example.donation.system.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs more slow generations at once than the pool has connections, on a real Hikari pool.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ai-pool;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AiContentService.class, ContentBlobStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AiContentServicePoolTest {
+
+    private static final int GENERATIONS = 10;
+
+    @Autowired
+    private AiContentService aiContentService;
+    @Autowired
+    private AiGeneratedContentRepository aiContentRepository;
+    @Autowired
+    private DonationRepository donationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoBean
+    private GeminiService geminiService;
+
+    @Test
+    void slowGenerationsHoldNoConnections() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        userRepository.save(new User("staff", "staff@example.org", "secret"));
+        List<Long> donationIds = new ArrayList<>();
+        for (int i = 0; i < GENERATIONS; i++) {
+            Donation donation = new Donation();
+            donation.setName("Donation " + i);
+            donationIds.add(donationRepository.save(donation).getId());
+        }
+
+        CountDownLatch allInGemini = new CountDownLatch(GENERATIONS);
+        CountDownLatch releaseGemini = new CountDownLatch(1);
+        when(geminiService.getFoodHandlingTips(anyList())).thenAnswer(invocation -> {
+            allInGemini.countDown();
+            releaseGemini.await(10, TimeUnit.SECONDS);
+            return CompletableFuture.completedFuture(AiResponse.success("Keep refrigerated"));
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(GENERATIONS);
+        List<Future<AiResponse>> futures = new ArrayList<>();
+        for (Long donationId : donationIds) {
+            futures.add(pool.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken("staff", null, List.of()));
+                return aiContentService.generateAndSaveFoodTips(new FoodTipsGenerateRequest(donationId, List.of("milk"))).join();
+            }));
+        }
+
+        // Five times more generations in flight than connections, and none of them holds one
+        assertTrue(allInGemini.await(10, TimeUnit.SECONDS), "generations did not all reach Gemini");
+        assertEquals(0, hikari.getHikariPoolMXBean().getActiveConnections());
+        assertTrue(donationRepository.findById(donationIds.get(0)).isPresent(), "unrelated query could not get a connection");
+
+        releaseGemini.countDown();
+        for (Future<AiResponse> future : futures) {
+            assertTrue(future.get(10, TimeUnit.SECONDS).isSuccess());
+        }
+        pool.shutdown();
+        assertEquals(GENERATIONS, aiContentRepository.count());
+    }
+}
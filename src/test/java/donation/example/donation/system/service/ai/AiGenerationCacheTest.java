@@ -0,0 +1,146 @@
+package donation.example.donation.system.service.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import donation.example.donation.system.dto.ai.AiCacheStats;
+import donation.example.donation.system.dto.ai.AiResponse;
+import donation.example.donation.system.repository.AiCacheEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AiGenerationCacheTest {
+
+    @Autowired
+    private AiCacheEntryRepository entryRepository;
+
+    private GeminiClient geminiClient;
+    private final AtomicInteger geminiCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        CircuitBreaker breaker = new CircuitBreaker(Duration.ofSeconds(30), 10, 50, Duration.ofSeconds(15));
+        geminiClient = new GeminiClient(new ObjectMapper(), breaker, "key", "http://127.0.0.1:1/unused",
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1), 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        geminiClient.shutdown();
+        entryRepository.deleteAll();
+    }
+
+    @Test
+    void equivalentItemListsShareOneGeneration() {
+        AiGenerationCache cache = newCache();
+
+        assertEquals("tips #1", tips(cache, List.of("Rice", "dal", "bread")));
+        assertEquals("tips #1", tips(cache, List.of(" bread", "DAL ", "rice", "rice")));
+        assertEquals("tips #2", tips(cache, List.of("rice", "dal")));
+
+        AiCacheStats stats = cache.stats();
+        assertEquals(2, stats.getGeminiCalls());
+        assertEquals(1, stats.getMemoryHits());
+        assertEquals(1.0 / 3, stats.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    void persistentTierSurvivesRestart() {
+        tips(newCache(), List.of("milk", "eggs"));
+
+        AiGenerationCache restarted = newCache();
+        assertEquals("tips #1", tips(restarted, List.of("eggs", "milk")));
+        assertEquals("tips #1", tips(restarted, List.of("eggs", "milk")));
+
+        assertEquals(1, geminiCalls.get());
+        assertEquals(1, restarted.stats().getDatabaseHits());
+        assertEquals(1, restarted.stats().getMemoryHits());
+    }
+
+    @Test
+    void failedGenerationsAreNotCached() {
+        AiGenerationCache cache = newCache();
+
+        AiResponse failed = cache.getOrGenerate("food-handling-tips", List.of("fish"),
+                () -> CompletableFuture.completedFuture(AiResponse.error("upstream down"))).join();
+        assertFalse(failed.isSuccess());
+
+        assertEquals("tips #1", tips(cache, List.of("fish")));
+        assertEquals(1, entryRepository.count());
+    }
+
+    @Test
+    void concurrentMissesShareOneGeneration() {
+        AiGenerationCache cache = newCache();
+        CompletableFuture<AiResponse> upstream = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<AiResponse> first = cache.getOrGenerate("donation-description", List.of("rice"), () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<AiResponse> second = cache.getOrGenerate("donation-description", List.of("Rice "), () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        upstream.complete(AiResponse.success("description"));
+
+        assertEquals("description", first.join().getContent());
+        assertEquals("description", second.join().getContent());
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.stats().getGeminiCalls());
+        assertEquals(1, entryRepository.count());
+    }
+
+    @Test
+    void nearDuplicateItemListsReuseFoodTips() {
+        AiGenerationCache cache = newCache();
+
+        assertEquals("tips #1", tips(cache, List.of("Rice 5kg", "bread")));
+        assertEquals("tips #1", tips(cache, List.of("bread loaves", "rice")));
+        assertEquals("tips #1", tips(cache, List.of("BREAD", "rice (10 KG)")));
+        assertEquals("tips #2", tips(cache, List.of("raw chicken", "rice")));
+
+        // Descriptions are not in ai-cache.similar.prompts and keep exact-match keys
+        AiResponse description = cache.getOrGenerate("donation-description", List.of("bread loaves", "rice"),
+                () -> CompletableFuture.completedFuture(AiResponse.success("description"))).join();
+        assertEquals("description", description.getContent());
+
+        AiCacheStats stats = cache.stats();
+        assertEquals(2, stats.getSimilarHits());
+        assertEquals(3, stats.getGeminiCalls());
+        assertEquals(0.5, stats.getSimilarHitRatio(), 1e-9);
+        assertEquals(2, stats.getSimilarEntries());
+    }
+
+    @Test
+    void unitAliasesAndQuantitiesNormalizeAway() {
+        assertEquals(ItemFeatures.of(List.of("Rice 5kg", "milk 2 litres")),
+                ItemFeatures.of(List.of("rice", "MILK (1 LITRE)")));
+        assertEquals(ItemFeatures.of(List.of("10 pieces apples")), ItemFeatures.of(List.of("apple 3 units")));
+        assertEquals(Set.of(), ItemFeatures.of(List.of("5 kg", "2 boxes")));
+    }
+
+    private AiGenerationCache newCache() {
+        return new AiGenerationCache(entryRepository, geminiClient, 100, Duration.ofMinutes(5), Duration.ofDays(1),
+                Set.of("food-handling-tips"), 0.8, 1);
+    }
+
+    private String tips(AiGenerationCache cache, List<String> items) {
+        return cache.getOrGenerate("food-handling-tips", items, () -> CompletableFuture.completedFuture(
+                AiResponse.success("tips #" + geminiCalls.incrementAndGet()))).join().getContent();
+    }
+}
@@ -0,0 +1,203 @@
+package donation.example.donation.system.service.ai;
+
+import donation.example.donation.system.dto.ai.AiContentStatus;
+import donation.example.donation.system.dto.ai.AiResponse;
+import donation.example.donation.system.dto.ai.FoodTipsGenerateRequest;
+import donation.example.donation.system.dto.ai.ThankYouBatchResponse;
+import donation.example.donation.system.dto.ai.ThankYouBatchResult;
+import donation.example.donation.system.dto.ai.ThankYouGenerateRequest;
+import donation.example.donation.system.model.entity.AiGeneratedContent;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.DonationItem;
+import donation.example.donation.system.model.entity.Donor;
+import donation.example.donation.system.model.entity.User;
+import donation.example.donation.system.repository.AiGeneratedContentRepository;
+import donation.example.donation.system.repository.DonationItemRepository;
+import donation.example.donation.system.repository.DonationRepository;
+import donation.example.donation.system.repository.DonorRepository;
+import donation.example.donation.system.repository.UserRepository;
+import donation.example.donation.system.type.AiContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({AiContentService.class, ContentBlobStore.class, GeminiService.class, PromptService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AiThankYouBatchTest {
+
+    @Autowired
+    private AiContentService aiContentService;
+    @Autowired
+    private AiGeneratedContentRepository aiContentRepository;
+    @Autowired
+    private DonationRepository donationRepository;
+    @Autowired
+    private DonationItemRepository donationItemRepository;
+    @Autowired
+    private DonorRepository donorRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private GeminiClient geminiClient;
+    @MockitoBean
+    private AiGenerationCache generationCache;
+
+    private User donorUser;
+    private Long riceId;
+    private Long breadId;
+    private Long savedId;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("staff", "staff@example.org", "secret"));
+        donorUser = userRepository.save(new User("asha", "asha@example.org", "secret"));
+        Donor donor = new Donor();
+        donor.setName("Asha");
+        donor.setUser(donorUser);
+        donor = donorRepository.save(donor);
+
+        riceId = donation("Rice drive", donor, "rice", "dal");
+        breadId = donation("Bakery surplus", donor, "bread");
+        savedId = donation("Earlier donation", donor, "milk");
+
+        AiGeneratedContent earlier = new AiGeneratedContent();
+        earlier.setDonationId(savedId);
+        earlier.setContentType(AiContentType.THANK_YOU);
+        // Saved before content_blob existed
+        earlier.setLegacyContent("Thanks again, Asha!");
+        aiContentRepository.save(earlier);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("staff", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        aiContentRepository.deleteAllInBatch();
+        donationItemRepository.deleteAllInBatch();
+        donationRepository.deleteAllInBatch();
+        donorRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void oneGeminiCallCoversTheBatch() {
+        when(geminiClient.generate(anyString(), anyInt())).thenReturn(CompletableFuture.completedFuture(
+                "```json\n[{\"id\": " + riceId + ", \"message\": \"Thank you for the rice and dal!\"}, " +
+                "{\"id\": " + breadId + ", \"message\": \"Thank you for the bread!\"}]\n```"));
+
+        ThankYouBatchResponse response = aiContentService.generateAndSaveThankYouBatch(
+                List.of(riceId, breadId, savedId, riceId, -1L)).join();
+
+        verify(geminiClient, times(1)).generate(anyString(), anyInt());
+        verify(geminiClient, never()).generate(anyString());
+        assertEquals(2, response.getGenerated());
+        assertEquals(1, response.getExisting());
+        assertEquals(1, response.getFailed());
+
+        List<ThankYouBatchResult> results = response.getResults();
+        assertEquals(List.of(riceId, breadId, savedId, -1L),
+                results.stream().map(ThankYouBatchResult::getDonationId).toList());
+        assertEquals("Thanks again, Asha!", results.get(2).getContent());
+        assertFalse(results.get(3).isSuccess());
+
+        AiGeneratedContent rice = aiContentRepository
+                .findByDonationIdAndContentType(riceId, AiContentType.THANK_YOU).orElseThrow();
+        assertEquals("Thank you for the rice and dal!",
+                aiContentService.getSavedContent(riceId, AiContentType.THANK_YOU).getContent());
+        assertEquals(donorUser.getId(), rice.getRecipientUserId());
+        assertEquals("staff", rice.getGeneratedByUsername());
+        assertEquals("Rice drive", rice.getDonationName());
+        assertEquals(3, aiContentRepository.count());
+    }
+
+    @Test
+    void unparseableReplyFallsBackToSingleCalls() {
+        when(geminiClient.generate(anyString(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture("Here are your messages: 1. Thank you..."));
+        AtomicInteger singleCalls = new AtomicInteger();
+        when(geminiClient.generate(anyString())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture("Message " + singleCalls.incrementAndGet()));
+
+        ThankYouBatchResponse response = aiContentService.generateAndSaveThankYouBatch(List.of(riceId, breadId)).join();
+
+        assertEquals(2, singleCalls.get());
+        assertEquals(2, response.getGenerated());
+        assertEquals(0, response.getFailed());
+        assertTrue(response.getResults().stream().allMatch(ThankYouBatchResult::isSuccess));
+        assertEquals(3, aiContentRepository.count());
+    }
+
+    @Test
+    void streamsSendCachedAndSavedContentAsAChunk() {
+        when(generationCache.getOrGenerate(anyString(), anyList(), any()))
+                .thenReturn(CompletableFuture.completedFuture(AiResponse.success("Keep it cool.")));
+        List<String> chunks = new ArrayList<>();
+
+        AiResponse tips = aiContentService.streamAndSaveFoodTips(
+                new FoodTipsGenerateRequest(riceId, List.of("rice", "dal")), chunks::add).join();
+        AiResponse thanks = aiContentService.streamAndSaveThankYou(
+                new ThankYouGenerateRequest(savedId, "Asha", List.of("milk"), null), chunks::add).join();
+
+        assertEquals("Keep it cool.", tips.getContent());
+        assertEquals("Thanks again, Asha!", thanks.getContent());
+        assertEquals(List.of("Keep it cool.", "Thanks again, Asha!"), chunks);
+        verify(geminiClient, never()).stream(anyString(), any());
+    }
+
+    @Test
+    void contentStatusCoversTheWholeList() {
+        List<AiContentStatus> keysOnly = aiContentService.getContentStatus(List.of(riceId, savedId, riceId), false);
+
+        assertEquals(List.of(riceId, savedId), keysOnly.stream().map(AiContentStatus::getDonationId).toList());
+        assertEquals(Set.of(), keysOnly.get(0).getContentTypes());
+        assertEquals(Set.of(AiContentType.THANK_YOU), keysOnly.get(1).getContentTypes());
+        assertNull(keysOnly.get(1).getContent());
+
+        AiContentStatus withContent = aiContentService.getContentStatus(List.of(savedId), true).get(0);
+        assertEquals("Thanks again, Asha!", withContent.getContent().get(AiContentType.THANK_YOU).getContent());
+    }
+
+    private Long donation(String name, Donor donor, String... items) {
+        Donation donation = new Donation();
+        donation.setName(name);
+        donation.setDonor(donor);
+        donation.setDonationDate(LocalDateTime.of(2026, 10, 16, 18, 0));
+        donation = donationRepository.save(donation);
+        for (String itemName : items) {
+            DonationItem item = new DonationItem();
+            item.setName(itemName);
+            item.setDonation(donation);
+            donationItemRepository.save(item);
+        }
+        return donation.getId();
+    }
+}
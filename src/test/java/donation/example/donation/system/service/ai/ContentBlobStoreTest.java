@@ -0,0 +1,66 @@
+package donation.example.donation.system.service.ai;
+
+import donation.example.donation.system.model.entity.ContentBlob;
+import donation.example.donation.system.repository.ContentBlobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "ai-content.body-cache.max-size=1")
+@Import(ContentBlobStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ContentBlobStoreTest {
+
+    private static final String TIPS = """
+            1. Keep rice in a sealed container in a cool, dry place away from direct sunlight.
+            2. Store bread at room temperature and use it within two days, or freeze it.
+            3. Keep rice off the floor and check for moisture or pests before distribution.
+            4. Label every container with the donation date so the oldest food goes out first.
+            """;
+
+    @Autowired
+    private ContentBlobStore blobStore;
+    @Autowired
+    private ContentBlobRepository blobRepository;
+
+    @AfterEach
+    void tearDown() {
+        blobRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void identicalBodiesAreStoredOnceAndCompressed() {
+        List<String> hashes = blobStore.saveAll(List.of(TIPS, "Thank you, Asha!", TIPS));
+        String again = blobStore.save(TIPS);
+
+        assertEquals(hashes.get(0), hashes.get(2));
+        assertEquals(hashes.get(0), again);
+        assertEquals(2, blobRepository.count());
+
+        ContentBlob blob = blobRepository.findById(again).orElseThrow();
+        assertEquals(TIPS.getBytes(StandardCharsets.UTF_8).length, blob.getOriginalSize());
+        assertTrue(blob.getBody().length < blob.getOriginalSize() * 0.75, "body was not compressed");
+    }
+
+    @Test
+    void bodiesRoundTripThroughTableWhenNotCached() {
+        List<String> hashes = blobStore.saveAll(List.of(TIPS, "Merci, Élodie! 🙏"));
+
+        // The single-entry cache only holds the second body, so the first is read from the table
+        Map<String, String> bodies = blobStore.getAll(List.of(hashes.get(0), hashes.get(1), "unknown"));
+
+        assertEquals(TIPS, bodies.get(hashes.get(0)));
+        assertEquals("Merci, Élodie! 🙏", bodies.get(hashes.get(1)));
+        assertFalse(bodies.containsKey("unknown"));
+    }
+}
@@ -0,0 +1,153 @@
+package donation.example.donation.system.service.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the client against a local stub of the Gemini endpoint that answers after a configurable delay.
+ */
+class GeminiClientTest {
+
+    private static final String REPLY =
+            "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"  Fresh bread and rice  \"}]}}]}";
+
+    private HttpServer server;
+    private volatile long latencyMillis;
+    private GeminiClient client;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/generate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = REPLY.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/models/flash:streamGenerateContent", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (String piece : List.of("Fresh bread ", "and rice")) {
+                    String event = "data: {\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + piece + "\"}]}}]}\r\n\r\n";
+                    out.write(event.getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    Thread.sleep(latencyMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        client = newClient(Duration.ofMillis(500), 2);
+    }
+
+    @AfterEach
+    void stopStub() {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void returnsGeneratedTextWithoutBlockingCaller() throws Exception {
+        latencyMillis = 200;
+
+        long begin = System.nanoTime();
+        CompletableFuture<String> reply = client.generate("Describe: bread, rice");
+        long returnedAfter = System.nanoTime() - begin;
+
+        assertTrue(returnedAfter < TimeUnit.MILLISECONDS.toNanos(100), "caller thread was held for the call");
+        assertEquals("Fresh bread and rice", reply.get(2, TimeUnit.SECONDS));
+        assertEquals(2, client.availablePermits());
+    }
+
+    @Test
+    void slowUpstreamTimesOut() {
+        latencyMillis = 2000;
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> client.generate("slow").get(2, TimeUnit.SECONDS));
+
+        assertInstanceOf(HttpTimeoutException.class, failure.getCause());
+        assertEquals(2, client.availablePermits());
+    }
+
+    @Test
+    void rejectsCallsBeyondInFlightLimit() throws Exception {
+        latencyMillis = 300;
+
+        CompletableFuture<String> first = client.generate("one");
+        CompletableFuture<String> second = client.generate("two");
+        CompletableFuture<String> third = client.generate("three");
+
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> third.get(100, TimeUnit.MILLISECONDS));
+        assertInstanceOf(GeminiException.class, rejected.getCause());
+        assertEquals("Fresh bread and rice", first.get(2, TimeUnit.SECONDS));
+        assertEquals("Fresh bread and rice", second.get(2, TimeUnit.SECONDS));
+        assertEquals(2, client.availablePermits());
+    }
+
+    @Test
+    void streamsChunksBeforeGenerationEnds() throws Exception {
+        latencyMillis = 400;
+        GeminiClient streaming = new GeminiClient(new ObjectMapper(), newBreaker(), "test-key",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/models/flash:generateContent",
+                Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(2), 2, 2);
+        List<String> chunks = new CopyOnWriteArrayList<>();
+        CompletableFuture<String> firstChunk = new CompletableFuture<>();
+
+        try {
+            long begin = System.nanoTime();
+            CompletableFuture<String> reply = streaming.stream("Describe: bread, rice", chunk -> {
+                chunks.add(chunk);
+                firstChunk.complete(chunk);
+            });
+
+            assertEquals("Fresh bread ", firstChunk.get(2, TimeUnit.SECONDS));
+            long firstChunkAfter = System.nanoTime() - begin;
+            assertFalse(reply.isDone(), "first chunk only arrived with the whole reply");
+            assertEquals("Fresh bread and rice", reply.get(2, TimeUnit.SECONDS));
+            assertTrue(firstChunkAfter < TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+            assertEquals(List.of("Fresh bread ", "and rice"), chunks);
+            assertEquals(2, streaming.availablePermits());
+        } finally {
+            streaming.shutdown();
+        }
+    }
+
+    private GeminiClient newClient(Duration requestTimeout, int maxInFlight) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/generate";
+        return new GeminiClient(new ObjectMapper(), newBreaker(), "test-key", url,
+                Duration.ofSeconds(1), requestTimeout, Duration.ofSeconds(2), maxInFlight, 2);
+    }
+
+    private static CircuitBreaker newBreaker() {
+        return new CircuitBreaker(Duration.ofSeconds(30), 10, 50, Duration.ofSeconds(15));
+    }
+}
@@ -0,0 +1,197 @@
+package donation.example.donation.system.service.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import donation.example.donation.system.dto.ai.AiResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives the client through a local Gemini stub whose status code and latency can be changed
+ * between calls, including stalling only the first request it receives or stalling every
+ * response after its headers and first line.
+ */
+class GeminiResilienceTest {
+
+    private static final String REPLY =
+            "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"Keep rice dry\"}]}}]}";
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(15);
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long firstRequestStallMillis;
+    private volatile long bodyStallMillis;
+    // Drives the breaker's window and open duration; advanced by hand
+    private final AtomicLong clock = new AtomicLong();
+    private CircuitBreaker breaker;
+    private GeminiClient client;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/generate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            if (hits.incrementAndGet() == 1 && firstRequestStallMillis > 0) {
+                try {
+                    Thread.sleep(firstRequestStallMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (bodyStallMillis > 0) {
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(("data: " + REPLY + "\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    Thread.sleep(bodyStallMillis);
+                } catch (InterruptedException | IOException e) {
+                    // Client gave up on the exchange
+                }
+                return;
+            }
+            byte[] body = (status == 200 ? REPLY : "{\"error\":{}}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        breaker = new CircuitBreaker(Duration.ofSeconds(10), 4, 50, OPEN_DURATION, clock::get);
+        client = new GeminiClient(new ObjectMapper(), breaker, "test-key",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/generate",
+                Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofMillis(200), 4, 2);
+    }
+
+    @AfterEach
+    void stopStub() {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void breakerOpensOnServerErrorsAndRecoversAfterTrialCall() throws Exception {
+        status = 503;
+        for (int i = 0; i < 4; i++) {
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> client.generate("tips").get(2, TimeUnit.SECONDS));
+            assertEquals(503, ((GeminiException) failure.getCause()).getStatus());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        // While open, calls are refused locally and never reach the upstream
+        for (int i = 0; i < 100; i++) {
+            ExecutionException rejected = assertThrows(ExecutionException.class,
+                    () -> client.generate("tips").get(1, TimeUnit.SECONDS));
+            assertInstanceOf(CircuitOpenException.class, rejected.getCause());
+        }
+        assertEquals(4, hits.get());
+
+        status = 200;
+        clock.addAndGet(OPEN_DURATION.toNanos());
+        assertEquals("Keep rice dry", client.generate("tips").get(2, TimeUnit.SECONDS));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(4, client.availablePermits());
+    }
+
+    @Test
+    void clientErrorsDoNotOpenBreaker() {
+        status = 400;
+        for (int i = 0; i < 6; i++) {
+            assertThrows(ExecutionException.class, () -> client.generate("tips").get(2, TimeUnit.SECONDS));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void stallAfterHeadersTimesOutAndFreesThePermit() throws Exception {
+        bodyStallMillis = 5000;
+        GeminiClient impatient = new GeminiClient(new ObjectMapper(), breaker, "test-key",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/generate",
+                Duration.ofSeconds(1), Duration.ofMillis(500), Duration.ofMillis(200), 4, 2);
+        try {
+            // Both calls give up long before the stub's stall ends
+            List<String> chunks = new CopyOnWriteArrayList<>();
+            ExecutionException generate = assertThrows(ExecutionException.class,
+                    () -> impatient.generate("tips").get(3, TimeUnit.SECONDS));
+            ExecutionException stream = assertThrows(ExecutionException.class,
+                    () -> impatient.stream("tips", chunks::add).get(3, TimeUnit.SECONDS));
+
+            assertInstanceOf(HttpTimeoutException.class, generate.getCause());
+            assertInstanceOf(HttpTimeoutException.class, stream.getCause());
+            assertEquals(List.of("Keep rice dry"), chunks);
+            assertEquals(4, impatient.availablePermits());
+            assertEquals(100, breaker.failureRate());
+        } finally {
+            impatient.shutdown();
+        }
+    }
+
+    @Test
+    void hedgeAnswersWhenFirstAttemptStalls() throws Exception {
+        firstRequestStallMillis = 3000;
+
+        // Answered well before the stalled first attempt could reply
+        String text = client.generateHedged("tips").get(2, TimeUnit.SECONDS);
+
+        assertEquals("Keep rice dry", text);
+        assertEquals(2, hits.get());
+        assertEquals(1, client.stats().getHedgesSent());
+        // The stalled first attempt was cancelled and gave its permit back
+        assertEquals(4, client.availablePermits());
+    }
+
+    @Test
+    void hedgeRetriesOnceAfterUpstreamFailure() {
+        status = 503;
+
+        assertThrows(ExecutionException.class, () -> client.generateHedged("tips").get(2, TimeUnit.SECONDS));
+
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void thankYouUsesLocalTemplateWhileBreakerIsOpen() throws Exception {
+        GeminiService geminiService = new GeminiService(new PromptService("", Duration.ofSeconds(5)),
+                client, mock(AiGenerationCache.class), new ObjectMapper());
+        status = 503;
+        for (int i = 0; i < 4; i++) {
+            assertFalse(geminiService.generateThankYouMessage("Asha", List.of("rice"), "2026-10-16")
+                    .get(2, TimeUnit.SECONDS).isSuccess());
+        }
+
+        AiResponse first = geminiService.generateThankYouMessage("Asha", List.of("rice", "dal"), "2026-10-16")
+                .get(1, TimeUnit.SECONDS);
+        AiResponse second = geminiService.generateThankYouMessage("Asha", List.of("rice", "dal"), "2026-10-16")
+                .get(1, TimeUnit.SECONDS);
+
+        assertTrue(first.isSuccess());
+        assertTrue(first.isFallback());
+        assertTrue(first.getContent().startsWith("Dear Asha,"));
+        assertTrue(first.getContent().contains("rice, dal on 2026-10-16"));
+        assertEquals(first.getContent(), second.getContent());
+        assertEquals(4, hits.get());
+    }
+}
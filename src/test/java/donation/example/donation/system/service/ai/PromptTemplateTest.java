@@ -0,0 +1,102 @@
+package donation.example.donation.system.service.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptTemplateTest {
+
+    private static final Map<String, String> THANK_YOU_VALUES =
+            Map.of("donorName", "Asha", "items", "rice, dal", "date", "2024-05-01");
+
+    @Test
+    void rendersLikeTheReplaceLoopForBundledPrompts() {
+        PromptService prompts = new PromptService("", Duration.ofSeconds(5));
+
+        String expected = replaceLoop(prompts.getPrompt("thank-you-message"), THANK_YOU_VALUES);
+
+        assertEquals(expected, prompts.fillPrompt("thank-you-message", THANK_YOU_VALUES));
+        assertEquals(Set.of("donorName", "items", "date"), prompts.getTemplate("thank-you-message").getVariables());
+    }
+
+    @Test
+    void everyBundledPromptRendersLikeTheReplaceLoop() {
+        PromptService prompts = new PromptService("", Duration.ofSeconds(5));
+
+        for (String name : List.of("thank-you-message", "thank-you-batch", "thank-you-fallback",
+                "food-handling-tips", "donation-description")) {
+            PromptTemplate template = prompts.getTemplate(name);
+            Map<String, String> values = new HashMap<>();
+            for (String variable : template.getVariables()) {
+                values.put(variable, "sample " + variable + " for Asha: rice, dal, bread");
+            }
+            assertFalse(values.isEmpty(), name);
+            assertEquals(replaceLoop(template.getSource(), values), template.render(values), name);
+        }
+    }
+
+    @Test
+    void substitutedValuesAreNotExpandedAgain() {
+        PromptTemplate template = PromptTemplate.compile("t", "{{a}} / {{b}}");
+
+        assertEquals("{{b}} / y", template.render(Map.of("a", "{{b}}", "b", "y")));
+    }
+
+    @Test
+    void repeatedPlaceholdersAndJsonBracesRenderInOnePass() {
+        PromptTemplate template = PromptTemplate.compile("t", "{{a}} and {{ a }}: {\"k\": \"{{b}}\"}");
+
+        assertEquals("x and x: {\"k\": \"y\"}", template.render(Map.of("a", "x", "b", "y")));
+    }
+
+    @Test
+    void rejectsMissingAndUnknownVariables() {
+        PromptTemplate template = PromptTemplate.compile("t", "Items: {{items}}");
+
+        assertThrows(IllegalArgumentException.class, () -> template.render(Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> template.render(Map.of("items", "rice", "extra", "x")));
+    }
+
+    @Test
+    void rejectsMalformedPlaceholders() {
+        assertThrows(IllegalArgumentException.class, () -> PromptTemplate.compile("t", "Items: {{items"));
+        assertThrows(IllegalArgumentException.class, () -> PromptTemplate.compile("t", "Items: {{ }}"));
+    }
+
+    @Test
+    void reloadsOverridesFromDirectoryAndKeepsLastGoodVersion(@TempDir Path dir) throws Exception {
+        Path override = dir.resolve("donation-description.txt");
+        Files.writeString(override, "v1 {{items}}", StandardCharsets.UTF_8);
+        PromptService prompts = new PromptService(dir.toString(), Duration.ZERO);
+
+        assertEquals("v1 rice", prompts.fillPrompt("donation-description", Map.of("items", "rice")));
+        assertTrue(prompts.getPrompt("food-handling-tips").contains("{{items}}"));
+
+        Files.writeString(override, "v2 {{items}}", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(override, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        assertEquals("v2 rice", prompts.fillPrompt("donation-description", Map.of("items", "rice")));
+
+        Files.writeString(override, "broken {{items", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(override, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+        assertEquals("v2 rice", prompts.fillPrompt("donation-description", Map.of("items", "rice")));
+    }
+
+    // What PromptService.fillPrompt did before templates were compiled
+    private static String replaceLoop(String prompt, Map<String, String> values) {
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            prompt = prompt.replace("{{" + entry.getKey() + "}}", entry.getValue());
+        }
+        return prompt;
+    }
+}
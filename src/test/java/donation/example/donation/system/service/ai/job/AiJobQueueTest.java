@@ -0,0 +1,139 @@
+package donation.example.donation.system.service.ai.job;
+
+import donation.example.donation.system.event.DonationStatusChangedEvent;
+import donation.example.donation.system.model.entity.AiJob;
+import donation.example.donation.system.repository.AiJobRepository;
+import donation.example.donation.system.type.AiContentType;
+import donation.example.donation.system.type.AiJobStatus;
+import donation.example.donation.system.type.DonationStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "ai-jobs.max-attempts=2")
+@Import(AiJobQueue.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AiJobQueueTest {
+
+    private static final int JOBS = 200;
+    private static final int WORKERS = 6;
+
+    @Autowired
+    private AiJobQueue queue;
+    @Autowired
+    private AiJobRepository jobRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @AfterEach
+    void tearDown() {
+        jobRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void statusChangesQueueEachGenerationOnce() {
+        eventPublisher.publishEvent(new DonationStatusChangedEvent(7L, 1L, DonationStatus.COLLECTED));
+        eventPublisher.publishEvent(new DonationStatusChangedEvent(7L, 1L, DonationStatus.ASSIGNED));
+        eventPublisher.publishEvent(new DonationStatusChangedEvent(7L, 1L, DonationStatus.DELIVERED));
+        eventPublisher.publishEvent(new DonationStatusChangedEvent(7L, 1L, DonationStatus.DELIVERED));
+
+        assertFalse(queue.enqueue(7L, AiContentType.FOOD_TIPS));
+        List<AiJob> jobs = jobRepository.findAll();
+        assertEquals(2, jobs.size());
+        assertEquals(Set.of(AiContentType.FOOD_TIPS, AiContentType.THANK_YOU),
+                Set.of(jobs.get(0).getContentType(), jobs.get(1).getContentType()));
+        assertTrue(jobs.stream().allMatch(job -> job.getStatus() == AiJobStatus.PENDING));
+    }
+
+    @Test
+    void concurrentWorkersNeverClaimTheSameJob() throws Exception {
+        for (long donationId = 1; donationId <= JOBS; donationId++) {
+            queue.enqueue(donationId, AiContentType.FOOD_TIPS);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+        CyclicBarrier start = new CyclicBarrier(WORKERS);
+        List<Future<List<Long>>> workers = new ArrayList<>();
+        for (int w = 0; w < WORKERS; w++) {
+            workers.add(pool.submit(() -> {
+                start.await(5, TimeUnit.SECONDS);
+                List<Long> mine = new ArrayList<>();
+                List<ClaimedJob> batch;
+                while (!(batch = queue.claim(7)).isEmpty()) {
+                    for (ClaimedJob job : batch) {
+                        mine.add(job.id());
+                        queue.complete(job);
+                    }
+                }
+                return mine;
+            }));
+        }
+
+        Set<Long> seen = new HashSet<>();
+        int total = 0;
+        for (Future<List<Long>> worker : workers) {
+            List<Long> claimed = worker.get(30, TimeUnit.SECONDS);
+            total += claimed.size();
+            seen.addAll(claimed);
+        }
+        pool.shutdown();
+
+        assertEquals(JOBS, total, "a job was claimed twice");
+        assertEquals(JOBS, seen.size());
+        assertTrue(jobRepository.findAll().stream().allMatch(job -> job.getStatus() == AiJobStatus.DONE));
+    }
+
+    @Test
+    void failedJobsBackOffThenFail() {
+        queue.enqueue(1L, AiContentType.THANK_YOU);
+
+        ClaimedJob first = queue.claim(10).get(0);
+        queue.fail(first, "Gemini API returned status: 503");
+        assertTrue(queue.claim(10).isEmpty(), "job was retried before its backoff");
+        AiJob waiting = jobRepository.findById(first.id()).orElseThrow();
+        assertEquals(AiJobStatus.PENDING, waiting.getStatus());
+        assertTrue(waiting.getRunAfter().isAfter(LocalDateTime.now().plusSeconds(20)));
+
+        waiting.setRunAfter(LocalDateTime.now().minusSeconds(1));
+        jobRepository.save(waiting);
+        ClaimedJob second = queue.claim(10).get(0);
+        assertEquals(2, second.attempt());
+        queue.fail(second, "Gemini API returned status: 503");
+
+        AiJob failed = jobRepository.findById(first.id()).orElseThrow();
+        assertEquals(AiJobStatus.FAILED, failed.getStatus());
+        assertEquals("Gemini API returned status: 503", failed.getLastError());
+    }
+
+    @Test
+    void expiredLeaseIsClaimedAgainAndStaleOutcomeIgnored() {
+        queue.enqueue(1L, AiContentType.FOOD_TIPS);
+        ClaimedJob abandoned = queue.claim(1).get(0);
+
+        AiJob job = jobRepository.findById(abandoned.id()).orElseThrow();
+        job.setLockedUntil(LocalDateTime.now().minusSeconds(1));
+        jobRepository.save(job);
+
+        ClaimedJob takenOver = queue.claim(1).get(0);
+        assertEquals(abandoned.id(), takenOver.id());
+        queue.fail(abandoned, "late outcome");
+        assertEquals(AiJobStatus.RUNNING, jobRepository.findById(abandoned.id()).orElseThrow().getStatus());
+
+        queue.complete(takenOver);
+        assertEquals(AiJobStatus.DONE, jobRepository.findById(abandoned.id()).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,187 @@
+package donation.example.donation.system.service.cache;
+
+import donation.example.donation.system.dto.CacheRegionStatsDTO;
+import donation.example.donation.system.model.entity.CollectionCenter;
+import donation.example.donation.system.model.entity.DeliveryPartner;
+import donation.example.donation.system.model.entity.Recipient;
+import donation.example.donation.system.model.entity.User;
+import donation.example.donation.system.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CacheAdminService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceCacheTest {
+
+    private static final int RECIPIENTS = 50;
+    private static final int DRIVERS = 20;
+
+    @Autowired
+    private RecipientRepository recipientRepository;
+    @Autowired
+    private DeliveryPartnerRepository driverRepository;
+    @Autowired
+    private CollectionCenterRepository centerRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AiJobRepository aiJobRepository;
+    @Autowired
+    private CacheAdminService cacheAdminService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CollectionCenter center;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < RECIPIENTS; i++) {
+            Recipient recipient = new Recipient();
+            recipient.setName("Shelter " + i);
+            recipient.setIsActive(true);
+            recipientRepository.save(recipient);
+        }
+
+        center = new CollectionCenter();
+        center.setName("North");
+        center = centerRepository.save(center);
+        for (int i = 0; i < DRIVERS; i++) {
+            User user = userRepository.save(new User("driver" + i, "driver" + i + "@example.com", "x"));
+            DeliveryPartner driver = new DeliveryPartner();
+            driver.setName("Driver " + i);
+            driver.setIsAvailable(true);
+            driver.setCollectionCenter(center);
+            driver.setUser(user);
+            driverRepository.save(driver);
+        }
+        cacheAdminService.evictAll();
+        statistics().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        aiJobRepository.deleteAllInBatch();
+        driverRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        recipientRepository.deleteAllInBatch();
+        centerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void activeRecipientsComeFromTheCacheUntilOneChanges() {
+        recipientRepository.findByIsActiveTrue();
+
+        assertEquals(0, statementsFor(() -> assertEquals(RECIPIENTS, recipientRepository.findByIsActiveTrue().size())));
+
+        Recipient closed = recipientRepository.findByIsActiveTrue().get(0);
+        closed.setIsActive(false);
+        recipientRepository.save(closed);
+
+        assertTrue(statementsFor(() -> assertEquals(RECIPIENTS - 1, recipientRepository.findByIsActiveTrue().size())) > 0);
+        assertEquals(0, statementsFor(() -> recipientRepository.findByIsActiveTrue()));
+    }
+
+    @Test
+    void availableDriversComeFromTheCacheUntilOneIsClaimed() {
+        driverRepository.findByCollectionCenterIdAndIsAvailableTrue(center.getId());
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        List<DeliveryPartner> cached = driverRepository.findByCollectionCenterIdAndIsAvailableTrue(center.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(DRIVERS, cached.size());
+        assertEquals("North", cached.get(0).getCollectionCenter().getName());
+        assertTrue(cached.get(0).getUser().getUsername().startsWith("driver"));
+
+        Long claimed = cached.get(0).getId();
+        assertEquals(1, inTransaction(() -> driverRepository.claim(claimed)));
+
+        List<DeliveryPartner> after = driverRepository.findByCollectionCenterIdAndIsAvailableTrue(center.getId());
+        assertEquals(DRIVERS - 1, after.size());
+        assertTrue(after.stream().noneMatch(driver -> driver.getId().equals(claimed)));
+    }
+
+    @Test
+    void queuingAiJobsLeavesReferenceRegionsAlone() {
+        recipientRepository.findByIsActiveTrue();
+
+        assertEquals(1, inTransaction(() -> aiJobRepository.enqueue(1L, "FOOD_TIPS", LocalDateTime.now())));
+
+        assertEquals(0, statementsFor(() -> recipientRepository.findByIsActiveTrue()));
+    }
+
+    @Test
+    void statsCountHitsAndEvictionEmptiesARegion() {
+        Long id = recipientRepository.findByIsActiveTrue().get(0).getId();
+        recipientRepository.findByIsActiveTrue();
+        recipientRepository.findById(id);
+
+        CacheRegionStatsDTO recipients = region("recipient");
+        CacheRegionStatsDTO queries = region("reference-queries");
+        assertEquals(RECIPIENTS, recipients.getPuts());
+        assertEquals(1, recipients.getHits());
+        assertEquals(1, queries.getHits());
+        assertEquals(0.5, queries.getHitRatio());
+
+        assertTrue(cacheAdminService.evict("recipient"));
+        assertFalse(cacheAdminService.evict("no-such-region"));
+        assertEquals(1, statementsFor(() -> recipientRepository.findById(id)));
+    }
+
+    @Test
+    void repeatedReadsStayOffTheDatabaseUntilEvicted() {
+        recipientRepository.findByIsActiveTrue();
+
+        assertEquals(0, statementsFor(() -> {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(RECIPIENTS, recipientRepository.findByIsActiveTrue().size());
+            }
+        }));
+
+        cacheAdminService.evictAll();
+        assertTrue(statementsFor(() -> recipientRepository.findByIsActiveTrue()) > 0);
+        assertEquals(0, statementsFor(() -> recipientRepository.findByIsActiveTrue()));
+    }
+
+    private CacheRegionStatsDTO region(String name) {
+        return cacheAdminService.regionStats().stream()
+                .filter(stats -> stats.getRegion().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private long statementsFor(Runnable query) {
+        Statistics statistics = statistics();
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private int inTransaction(IntSupplier write) {
+        return new TransactionTemplate(transactionManager).execute(status -> write.getAsInt());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
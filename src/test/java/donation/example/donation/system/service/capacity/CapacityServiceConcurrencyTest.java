@@ -0,0 +1,163 @@
+package donation.example.donation.system.service.capacity;
+
+import donation.example.donation.system.exception.ConflictException;
+import donation.example.donation.system.model.entity.CollectionCenter;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.DonationItem;
+import donation.example.donation.system.repository.CollectionCenterRepository;
+import donation.example.donation.system.repository.DonationItemRepository;
+import donation.example.donation.system.repository.DonationRepository;
+import donation.example.donation.system.type.Unit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(CapacityService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CapacityServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int DONATIONS = 200;
+    private static final int UNITS_PER_DONATION = 3;   // 2 kg + 1000 g
+    private static final int MAX_CAPACITY = 100;
+
+    @Autowired
+    private CapacityService capacityService;
+    @Autowired
+    private CollectionCenterRepository centerRepository;
+    @Autowired
+    private DonationRepository donationRepository;
+    @Autowired
+    private DonationItemRepository donationItemRepository;
+
+    @Test
+    void concurrentReservationsNeverOversubscribeCenter() throws Exception {
+        CollectionCenter center = new CollectionCenter();
+        center.setName("Hammered Center");
+        center.setMaxCapacity(MAX_CAPACITY);
+        center.setCurrentLoad(0);
+        Long centerId = centerRepository.save(center).getId();
+
+        List<Long> donationIds = new ArrayList<>();
+        for (int i = 0; i < DONATIONS; i++) {
+            donationIds.add(createDonation(center));
+        }
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (Long donationId : donationIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    capacityService.reserve(centerId, donationId);
+                    accepted.incrementAndGet();
+                } catch (ConflictException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        int load = centerRepository.findById(centerId).orElseThrow().getCurrentLoad();
+        assertEquals(MAX_CAPACITY / UNITS_PER_DONATION, accepted.get());
+        assertEquals(DONATIONS - accepted.get(), rejected.get());
+        assertEquals(accepted.get() * UNITS_PER_DONATION, load);
+        assertTrue(load <= MAX_CAPACITY);
+        // Each accepted donation holds exactly its own units, so the load is fully accounted for
+        List<Donation> reserved = donationRepository.findAllById(donationIds).stream()
+                .filter(d -> d.getReservedUnits() != null && d.getReservedUnits() > 0)
+                .toList();
+        assertEquals(accepted.get(), reserved.size());
+        assertTrue(reserved.stream().allMatch(d -> d.getReservedUnits() == UNITS_PER_DONATION));
+    }
+
+    @Test
+    void releaseIsIdempotent() {
+        CollectionCenter center = new CollectionCenter();
+        center.setName("Release Center");
+        center.setMaxCapacity(10);
+        center.setCurrentLoad(0);
+        Long centerId = centerRepository.save(center).getId();
+        Long donationId = createDonation(center);
+
+        capacityService.reserve(centerId, donationId);
+        capacityService.release(centerId, donationId);
+        capacityService.release(centerId, donationId);
+
+        assertEquals(0, centerRepository.findById(centerId).orElseThrow().getCurrentLoad());
+        assertEquals(0, donationRepository.findReservedUnits(donationId));
+    }
+
+    @Test
+    void moveOnlyTakesTheReservationFromItsOwnCenter() {
+        Long northId = center("North", 10);
+        Long southId = center("South", 10);
+        Long eastId = center("East", 10);
+        Long donationId = createDonation(centerRepository.findById(northId).orElseThrow());
+        capacityService.reserve(northId, donationId);
+
+        // A stale caller that thinks the donation is still at South
+        assertThrows(ConflictException.class, () -> capacityService.move(southId, eastId, donationId));
+        assertEquals(UNITS_PER_DONATION, load(northId));
+        assertEquals(0, load(southId));
+        assertEquals(0, load(eastId));
+
+        capacityService.move(northId, eastId, donationId);
+        assertEquals(0, load(northId));
+        assertEquals(UNITS_PER_DONATION, load(eastId));
+        assertEquals(eastId, donationRepository.findById(donationId).orElseThrow().getCollectionCenter().getId());
+        assertThrows(ConflictException.class, () -> capacityService.move(northId, southId, donationId));
+    }
+
+    private Long center(String name, int maxCapacity) {
+        CollectionCenter center = new CollectionCenter();
+        center.setName(name);
+        center.setMaxCapacity(maxCapacity);
+        center.setCurrentLoad(0);
+        return centerRepository.save(center).getId();
+    }
+
+    private int load(Long centerId) {
+        return centerRepository.findById(centerId).orElseThrow().getCurrentLoad();
+    }
+
+    private Long createDonation(CollectionCenter center) {
+        Donation donation = new Donation();
+        donation.setName("Rice and dal");
+        donation.setCollectionCenter(center);
+        donation = donationRepository.save(donation);
+
+        donationItemRepository.save(item(donation, 2, Unit.KG));
+        donationItemRepository.save(item(donation, 1000, Unit.GRAM));
+        return donation.getId();
+    }
+
+    private DonationItem item(Donation donation, int quantity, Unit unit) {
+        DonationItem item = new DonationItem();
+        item.setName("item");
+        item.setQuantity(quantity);
+        item.setUnit(unit);
+        item.setDonation(donation);
+        return item;
+    }
+}
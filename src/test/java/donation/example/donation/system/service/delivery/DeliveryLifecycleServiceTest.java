@@ -0,0 +1,297 @@
+package donation.example.donation.system.service.delivery;
+
+import donation.example.donation.system.dto.DeliveryDTO;
+import donation.example.donation.system.exception.ConflictException;
+import donation.example.donation.system.mapper.DeliveryMapperImpl;
+import donation.example.donation.system.model.entity.CollectionCenter;
+import donation.example.donation.system.model.entity.Delivery;
+import donation.example.donation.system.model.entity.DeliveryPartner;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.DonationItem;
+import donation.example.donation.system.model.entity.Recipient;
+import donation.example.donation.system.repository.*;
+import donation.example.donation.system.service.capacity.CapacityService;
+import donation.example.donation.system.service.dispatch.DriverPool;
+import donation.example.donation.system.type.DeliveryStatus;
+import donation.example.donation.system.type.DonationStatus;
+import donation.example.donation.system.type.Unit;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"})
+@Import({DeliveryLifecycleService.class, CapacityService.class, DriverPool.class, DeliveryMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeliveryLifecycleServiceTest {
+
+    private static final int UNITS = 3;
+    private static final int RACES = 50;
+    private static final int DELIVERIES = 20;
+
+    @Autowired
+    private DeliveryLifecycleService lifecycleService;
+    @Autowired
+    private CapacityService capacityService;
+    @Autowired
+    private CollectionCenterRepository centerRepository;
+    @Autowired
+    private DonationRepository donationRepository;
+    @Autowired
+    private DonationItemRepository donationItemRepository;
+    @Autowired
+    private DeliveryPartnerRepository driverRepository;
+    @Autowired
+    private RecipientRepository recipientRepository;
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private CollectionCenter center;
+    private Recipient recipient;
+
+    @BeforeEach
+    void setUp() {
+        center = new CollectionCenter();
+        center.setName("North");
+        center.setMaxCapacity(10_000);
+        center.setCurrentLoad(0);
+        center = centerRepository.save(center);
+
+        recipient = new Recipient();
+        recipient.setName("Shelter");
+        recipient = recipientRepository.save(recipient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryRepository.deleteAllInBatch();
+        donationItemRepository.deleteAllInBatch();
+        donationRepository.deleteAllInBatch();
+        driverRepository.deleteAllInBatch();
+        recipientRepository.deleteAllInBatch();
+        centerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void pickUpAndTransitKeepTheDriverBusy() {
+        Long deliveryId = createDelivery();
+
+        DeliveryDTO pickedUp = lifecycleService.apply(deliveryId, DeliveryTransition.PICK_UP).orElseThrow();
+        assertEquals(DeliveryStatus.PICKED_UP, pickedUp.getStatus());
+        assertNotNull(pickedUp.getActualPickupTime());
+        assertDonation(pickedUp.getDonationId(), DonationStatus.IN_TRANSIT, DeliveryStatus.PICKED_UP);
+
+        DeliveryDTO inTransit = lifecycleService.apply(deliveryId, DeliveryTransition.START_TRANSIT).orElseThrow();
+        assertEquals(DeliveryStatus.IN_TRANSIT, inTransit.getStatus());
+        assertDonation(inTransit.getDonationId(), DonationStatus.IN_TRANSIT, DeliveryStatus.IN_TRANSIT);
+
+        assertFalse(driverAvailable(inTransit.getDriverId()));
+        assertEquals(UNITS, centerLoad());
+    }
+
+    @Test
+    void completeFreesTheDriverAndReleasesCapacity() {
+        Long deliveryId = createDelivery();
+        lifecycleService.apply(deliveryId, DeliveryTransition.PICK_UP);
+
+        DeliveryDTO delivered = lifecycleService.apply(deliveryId, DeliveryTransition.COMPLETE).orElseThrow();
+
+        assertEquals(DeliveryStatus.DELIVERED, delivered.getStatus());
+        assertNotNull(delivered.getDeliveredTime());
+        assertDonation(delivered.getDonationId(), DonationStatus.DELIVERED, DeliveryStatus.DELIVERED);
+        assertTrue(driverAvailable(delivered.getDriverId()));
+        assertEquals(0, centerLoad());
+        assertEquals(0, donationRepository.findReservedUnits(delivered.getDonationId()));
+    }
+
+    @Test
+    void cancelReturnsTheDonationAndKeepsItsCapacity() {
+        Long deliveryId = createDelivery();
+
+        DeliveryDTO cancelled = lifecycleService.apply(deliveryId, DeliveryTransition.CANCEL).orElseThrow();
+
+        assertEquals(DeliveryStatus.CANCELLED, cancelled.getStatus());
+        assertDonation(cancelled.getDonationId(), DonationStatus.COLLECTED, DeliveryStatus.CANCELLED);
+        assertTrue(driverAvailable(cancelled.getDriverId()));
+        assertEquals(UNITS, centerLoad());
+    }
+
+    @Test
+    void disallowedTransitionConflictsAndMissingDeliveryIsEmpty() {
+        Long deliveryId = createDelivery();
+
+        // Not picked up yet
+        assertThrows(ConflictException.class, () -> lifecycleService.apply(deliveryId, DeliveryTransition.COMPLETE));
+        assertEquals(DeliveryStatus.ASSIGNED, deliveryRepository.findStatusById(deliveryId));
+        assertEquals(UNITS, centerLoad());
+
+        lifecycleService.apply(deliveryId, DeliveryTransition.CANCEL);
+        assertThrows(ConflictException.class, () -> lifecycleService.apply(deliveryId, DeliveryTransition.PICK_UP));
+        assertThrows(ConflictException.class, () -> lifecycleService.apply(deliveryId, DeliveryTransition.CANCEL));
+
+        assertEquals(Optional.empty(), lifecycleService.apply(-1L, DeliveryTransition.PICK_UP));
+    }
+
+    @Test
+    void completeAndCancelRaceHasOneWinner() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        int completed = 0;
+        try {
+            for (int i = 0; i < RACES; i++) {
+                Long deliveryId = createDelivery();
+                lifecycleService.apply(deliveryId, DeliveryTransition.PICK_UP);
+
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Boolean> complete = pool.submit(() -> race(start, deliveryId, DeliveryTransition.COMPLETE));
+                Future<Boolean> cancel = pool.submit(() -> race(start, deliveryId, DeliveryTransition.CANCEL));
+                start.countDown();
+                boolean completeWon = complete.get(10, TimeUnit.SECONDS);
+                boolean cancelWon = cancel.get(10, TimeUnit.SECONDS);
+
+                assertTrue(completeWon ^ cancelWon, "exactly one of complete and cancel must win");
+                DeliveryDTO after = deliveryRepository.findDTOById(deliveryId).orElseThrow();
+                if (completeWon) {
+                    completed++;
+                    assertEquals(DeliveryStatus.DELIVERED, after.getStatus());
+                    assertDonation(after.getDonationId(), DonationStatus.DELIVERED, DeliveryStatus.DELIVERED);
+                } else {
+                    assertEquals(DeliveryStatus.CANCELLED, after.getStatus());
+                    assertDonation(after.getDonationId(), DonationStatus.COLLECTED, DeliveryStatus.CANCELLED);
+                }
+                assertTrue(driverAvailable(after.getDriverId()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // Only completed deliveries gave their units back
+        assertEquals((RACES - completed) * UNITS, centerLoad());
+    }
+
+    @Test
+    void guardedCompleteLoadsNoEntities() {
+        List<Long> guarded = new ArrayList<>();
+        List<Long> loaded = new ArrayList<>();
+        for (int i = 0; i < DELIVERIES; i++) {
+            guarded.add(createPickedUpDelivery());
+            loaded.add(createPickedUpDelivery());
+        }
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        for (Long deliveryId : guarded) {
+            lifecycleService.apply(deliveryId, DeliveryTransition.COMPLETE);
+        }
+        long guardedLoads = statistics.getEntityLoadCount();
+
+        // The controller's sequence before DeliveryLifecycleService: load, mutate and save each row
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        statistics.clear();
+        for (Long deliveryId : loaded) {
+            transaction.executeWithoutResult(status -> {
+                Delivery delivery = deliveryRepository.findById(deliveryId).orElseThrow();
+                delivery.setStatus(DeliveryStatus.DELIVERED);
+                delivery.setDeliveredTime(LocalDateTime.now());
+                deliveryRepository.save(delivery);
+
+                Donation donation = delivery.getDonation();
+                donation.setStatus(DonationStatus.DELIVERED);
+                donationRepository.save(donation);
+
+                DeliveryPartner driver = delivery.getDriver();
+                driver.setIsAvailable(true);
+                driverRepository.save(driver);
+            });
+        }
+
+        assertEquals(0, guardedLoads);
+        // Delivery, donation and driver for every row
+        assertEquals(3L * DELIVERIES, statistics.getEntityLoadCount());
+
+        assertTrue(guarded.stream().allMatch(id -> deliveryRepository.findStatusById(id) == DeliveryStatus.DELIVERED));
+        assertTrue(loaded.stream().allMatch(id -> deliveryRepository.findStatusById(id) == DeliveryStatus.DELIVERED));
+        // The old sequence never gave the capacity back
+        assertEquals(DELIVERIES * UNITS, centerLoad());
+    }
+
+    private boolean race(CountDownLatch start, Long deliveryId, DeliveryTransition transition) throws InterruptedException {
+        start.await();
+        try {
+            lifecycleService.apply(deliveryId, transition);
+            return true;
+        } catch (ConflictException e) {
+            return false;
+        }
+    }
+
+    private Long createPickedUpDelivery() {
+        Long deliveryId = createDelivery();
+        lifecycleService.apply(deliveryId, DeliveryTransition.PICK_UP);
+        return deliveryId;
+    }
+
+    // A collected donation holding UNITS of capacity, handed to a driver the caller already claimed
+    private Long createDelivery() {
+        DeliveryPartner driver = new DeliveryPartner();
+        driver.setName("Ravi");
+        driver.setCollectionCenter(center);
+        driver.setIsAvailable(false);
+        driver = driverRepository.save(driver);
+
+        Donation donation = new Donation();
+        donation.setName("Rice");
+        donation.setCollectionCenter(center);
+        donation.setStatus(DonationStatus.ASSIGNED);
+        donation = donationRepository.save(donation);
+
+        DonationItem item = new DonationItem();
+        item.setName("Rice");
+        item.setQuantity(UNITS);
+        item.setUnit(Unit.KG);
+        item.setDonation(donation);
+        donationItemRepository.save(item);
+        capacityService.reserve(center.getId(), donation.getId());
+
+        return lifecycleService.createClaimed(donation.getId(), center.getId(), driver.getId(), recipient.getId(), null);
+    }
+
+    private void assertDonation(Long donationId, DonationStatus status, DeliveryStatus deliveryStatus) {
+        Donation donation = donationRepository.findById(donationId).orElseThrow();
+        assertEquals(status, donation.getStatus());
+        assertEquals(deliveryStatus, donation.getDeliveryStatus());
+    }
+
+    private boolean driverAvailable(Long driverId) {
+        return driverRepository.findById(driverId).orElseThrow().getIsAvailable();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private int centerLoad() {
+        return centerRepository.findById(center.getId()).orElseThrow().getCurrentLoad();
+    }
+}
@@ -0,0 +1,137 @@
+package donation.example.donation.system.service.delivery;
+
+import donation.example.donation.system.dto.DeliveryDTO;
+import donation.example.donation.system.model.entity.CollectionCenter;
+import donation.example.donation.system.model.entity.Delivery;
+import donation.example.donation.system.model.entity.DeliveryPartner;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.Recipient;
+import donation.example.donation.system.repository.*;
+import donation.example.donation.system.type.DeliveryStatus;
+import donation.example.donation.system.type.DonationStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"})
+@Import(DeliveryQueryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeliveryQueryServiceTest {
+
+    @Autowired
+    private DeliveryQueryService deliveryQueryService;
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+    @Autowired
+    private DonationRepository donationRepository;
+    @Autowired
+    private DeliveryPartnerRepository driverRepository;
+    @Autowired
+    private RecipientRepository recipientRepository;
+    @Autowired
+    private CollectionCenterRepository centerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private CollectionCenter center;
+    private DeliveryPartner driver;
+    private Recipient recipient;
+
+    @BeforeEach
+    void setUp() {
+        center = new CollectionCenter();
+        center.setName("North");
+        center = centerRepository.save(center);
+
+        driver = new DeliveryPartner();
+        driver.setName("Ravi");
+        driver.setPhone("555-0100");
+        driver.setCollectionCenter(center);
+        driver.setIsAvailable(false);
+        driver = driverRepository.save(driver);
+
+        recipient = new Recipient();
+        recipient.setName("Shelter");
+        recipient.setAddress("1 Main St");
+        recipient = recipientRepository.save(recipient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryRepository.deleteAllInBatch();
+        donationRepository.deleteAllInBatch();
+        driverRepository.deleteAllInBatch();
+        recipientRepository.deleteAllInBatch();
+        centerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void listsAreOneSelectWhateverTheirSize() {
+        createDeliveries(5);
+        long small = statementsFor(() -> deliveryQueryService.findByDriver(driver.getId()));
+
+        createDeliveries(195);
+        Statistics statistics = statistics();
+        statistics.clear();
+        List<DeliveryDTO> mine = deliveryQueryService.findByDriver(driver.getId());
+        List<DeliveryDTO> pending = deliveryQueryService.findByDriverAndStatus(driver.getId(), DeliveryStatus.ASSIGNED);
+        List<DeliveryDTO> atCenter = deliveryQueryService.findByCenter(center.getId());
+
+        assertEquals(1, small);
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(200, mine.size());
+        assertEquals(200, pending.size());
+        assertEquals(200, atCenter.size());
+
+        DeliveryDTO row = mine.get(0);
+        assertEquals("Bread 0", row.getDonationName());
+        assertEquals("North", row.getFromCenterName());
+        assertEquals("555-0100", row.getDriverPhone());
+        assertEquals("1 Main St", row.getRecipientAddress());
+        assertEquals(DeliveryStatus.ASSIGNED, row.getStatus());
+    }
+
+    private long statementsFor(Supplier<List<DeliveryDTO>> query) {
+        Statistics statistics = statistics();
+        statistics.clear();
+        query.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void createDeliveries(int count) {
+        for (int i = 0; i < count; i++) {
+            Donation donation = new Donation();
+            donation.setName("Bread " + i);
+            donation.setCollectionCenter(center);
+            donation.setStatus(DonationStatus.ASSIGNED);
+            donation = donationRepository.save(donation);
+
+            Delivery delivery = new Delivery();
+            delivery.setDonation(donation);
+            delivery.setFromCenter(center);
+            delivery.setDriver(driver);
+            delivery.setRecipient(recipient);
+            delivery.setStatus(DeliveryStatus.ASSIGNED);
+            deliveryRepository.save(delivery);
+        }
+    }
+}
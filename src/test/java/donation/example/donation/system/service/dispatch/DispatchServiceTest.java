@@ -0,0 +1,187 @@
+package donation.example.donation.system.service.dispatch;
+
+import donation.example.donation.system.dto.DispatchSummaryDTO;
+import donation.example.donation.system.mapper.DeliveryMapperImpl;
+import donation.example.donation.system.model.entity.CollectionCenter;
+import donation.example.donation.system.model.entity.Delivery;
+import donation.example.donation.system.model.entity.DeliveryPartner;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.Recipient;
+import donation.example.donation.system.repository.*;
+import donation.example.donation.system.service.capacity.CapacityService;
+import donation.example.donation.system.service.delivery.DeliveryLifecycleService;
+import donation.example.donation.system.service.delivery.DeliveryTransition;
+import donation.example.donation.system.type.DeliveryStatus;
+import donation.example.donation.system.type.DonationStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "dispatch.auto-assign=false")
+@Import({DispatchService.class, DriverPool.class, DeliveryLifecycleService.class,
+        CapacityService.class, DeliveryMapperImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DispatchServiceTest {
+
+    private static final int THREADS = 8;
+    private static final int CENTERS = 4;
+    private static final int DRIVERS_PER_CENTER = 100;
+    private static final int DONATIONS_PER_CENTER = 750;
+    private static final int RECIPIENTS = 5;
+
+    @Autowired
+    private DispatchService dispatchService;
+    @Autowired
+    private DeliveryLifecycleService lifecycleService;
+    @Autowired
+    private CollectionCenterRepository centerRepository;
+    @Autowired
+    private DonationRepository donationRepository;
+    @Autowired
+    private DeliveryPartnerRepository driverRepository;
+    @Autowired
+    private RecipientRepository recipientRepository;
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @AfterEach
+    void cleanUp() {
+        deliveryRepository.deleteAllInBatch();
+        donationRepository.deleteAllInBatch();
+        driverRepository.deleteAllInBatch();
+        recipientRepository.deleteAllInBatch();
+        centerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentBatchesNeverDoubleBookDrivers() throws Exception {
+        for (int i = 0; i < RECIPIENTS; i++) {
+            Recipient recipient = new Recipient();
+            recipient.setName("Shelter " + i);
+            recipientRepository.save(recipient);
+        }
+        for (int c = 0; c < CENTERS; c++) {
+            CollectionCenter center = new CollectionCenter();
+            center.setName("Center " + c);
+            centerRepository.save(center);
+            for (int i = 0; i < DRIVERS_PER_CENTER; i++) {
+                createDriver(center);
+            }
+            List<Donation> donations = new ArrayList<>();
+            for (int i = 0; i < DONATIONS_PER_CENTER; i++) {
+                donations.add(collectedDonation(center));
+            }
+            donationRepository.saveAll(donations);
+        }
+
+        // Several staff members pressing "dispatch" over the same backlog at once
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<DispatchSummaryDTO>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return dispatchService.dispatchPending(null, CENTERS * DONATIONS_PER_CENTER);
+            }));
+        }
+        start.countDown();
+        int assigned = 0;
+        for (Future<DispatchSummaryDTO> future : futures) {
+            assigned += future.get(120, TimeUnit.SECONDS).getAssigned();
+        }
+        pool.shutdown();
+
+        List<Delivery> deliveries = deliveryRepository.findAll();
+        Set<Long> drivers = new HashSet<>();
+        Set<Long> donations = new HashSet<>();
+        for (Delivery delivery : deliveries) {
+            assertTrue(drivers.add(delivery.getDriver().getId()), "driver booked twice");
+            assertTrue(donations.add(delivery.getDonation().getId()), "donation dispatched twice");
+        }
+        assertEquals(CENTERS * DRIVERS_PER_CENTER, assigned);
+        assertEquals(assigned, deliveries.size());
+        assertTrue(driverRepository.findByIsAvailableTrue().isEmpty());
+        assertEquals(CENTERS * (DONATIONS_PER_CENTER - DRIVERS_PER_CENTER),
+                donationRepository.findAll().stream().filter(d -> d.getStatus() == DonationStatus.COLLECTED).count());
+    }
+
+    @Test
+    void releasedDriverIsDispatchedAgain() {
+        recipientRepository.save(new Recipient());
+        CollectionCenter center = new CollectionCenter();
+        center.setName("Small Center");
+        centerRepository.save(center);
+        Long driverId = createDriver(center);
+        Donation first = donationRepository.save(collectedDonation(center));
+        Donation second = donationRepository.save(collectedDonation(center));
+
+        Long deliveryId = dispatchService.dispatch(first.getId(), center.getId()).orElseThrow();
+        assertTrue(dispatchService.dispatch(second.getId(), center.getId()).isEmpty());
+
+        assertEquals(deliveryId, donationRepository.findById(first.getId()).orElseThrow().getDeliveryId());
+
+        lifecycleService.apply(deliveryId, DeliveryTransition.PICK_UP);
+        lifecycleService.apply(deliveryId, DeliveryTransition.COMPLETE);
+        Donation delivered = donationRepository.findById(first.getId()).orElseThrow();
+        assertEquals(DonationStatus.DELIVERED, delivered.getStatus());
+        assertEquals(DeliveryStatus.DELIVERED, delivered.getDeliveryStatus());
+
+        Long next = dispatchService.dispatch(second.getId(), center.getId()).orElseThrow();
+        assertEquals(driverId, deliveryRepository.findById(next).orElseThrow().getDriver().getId());
+
+        lifecycleService.delete(next);
+        Donation returned = donationRepository.findById(second.getId()).orElseThrow();
+        assertEquals(DonationStatus.COLLECTED, returned.getStatus());
+        assertNull(returned.getDeliveryId());
+        assertNull(returned.getDeliveryStatus());
+    }
+
+    @Test
+    void cancelledDeliveryFreesTheDriverButIsNotDispatchedAgain() {
+        recipientRepository.save(new Recipient());
+        CollectionCenter center = new CollectionCenter();
+        center.setName("Small Center");
+        centerRepository.save(center);
+        Long driverId = createDriver(center);
+        Donation first = donationRepository.save(collectedDonation(center));
+        Donation second = donationRepository.save(collectedDonation(center));
+
+        Long deliveryId = dispatchService.dispatch(first.getId(), center.getId()).orElseThrow();
+        lifecycleService.apply(deliveryId, DeliveryTransition.CANCEL);
+
+        // The cancelled delivery still holds the donation until staff delete it
+        assertTrue(dispatchService.dispatch(first.getId(), center.getId()).isEmpty());
+        Long next = dispatchService.dispatch(second.getId(), center.getId()).orElseThrow();
+        assertEquals(driverId, deliveryRepository.findById(next).orElseThrow().getDriver().getId());
+    }
+
+    private Long createDriver(CollectionCenter center) {
+        DeliveryPartner driver = new DeliveryPartner();
+        driver.setName("Driver");
+        driver.setCollectionCenter(center);
+        driver.setIsAvailable(true);
+        return driverRepository.save(driver).getId();
+    }
+
+    private Donation collectedDonation(CollectionCenter center) {
+        Donation donation = new Donation();
+        donation.setName("Bread");
+        donation.setCollectionCenter(center);
+        donation.setStatus(DonationStatus.COLLECTED);
+        donation.setDonationDate(LocalDateTime.now());
+        return donation;
+    }
+}
@@ -0,0 +1,307 @@
+package donation.example.donation.system.service.donation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import donation.example.donation.system.dto.DonationDTO;
+import donation.example.donation.system.dto.DonationSummaryDTO;
+import donation.example.donation.system.exception.ConflictException;
+import donation.example.donation.system.mapper.CollectionMapperImpl;
+import donation.example.donation.system.mapper.DeliveryMapperImpl;
+import donation.example.donation.system.mapper.DonationItemMapperImpl;
+import donation.example.donation.system.mapper.DonationMapperImpl;
+import donation.example.donation.system.mapper.DonorMapperImpl;
+import donation.example.donation.system.mapper.UserMapperImpl;
+import donation.example.donation.system.model.entity.CollectionCenter;
+import donation.example.donation.system.model.entity.Donation;
+import donation.example.donation.system.model.entity.DonationItem;
+import donation.example.donation.system.model.entity.Donor;
+import donation.example.donation.system.model.entity.User;
+import donation.example.donation.system.repository.*;
+import donation.example.donation.system.service.capacity.CapacityService;
+import donation.example.donation.system.service.delivery.DeliveryLifecycleService;
+import donation.example.donation.system.service.dispatch.DriverPool;
+import donation.example.donation.system.type.DonationStatus;
+import donation.example.donation.system.type.Unit;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"})
+@Import({DonationService.class, CapacityService.class, DeliveryLifecycleService.class, DriverPool.class,
+        DonationMapperImpl.class, DonorMapperImpl.class, CollectionMapperImpl.class, DonationItemMapperImpl.class,
+        UserMapperImpl.class, DeliveryMapperImpl.class, DonationServiceTest.TrackingConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DonationServiceTest {
+
+    private static final int DONATIONS = 300;
+    private static final int LARGE_LIST = 10_000;
+
+    @Autowired
+    private DonationService donationService;
+    @Autowired
+    private DonationRepository donationRepository;
+    @Autowired
+    private DonationItemRepository itemRepository;
+    @Autowired
+    private DonorRepository donorRepository;
+    @Autowired
+    private CollectionCenterRepository centerRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ConnectionTracker connections;
+    private Donor donor;
+    private CollectionCenter center;
+
+    @BeforeEach
+    void setUp() {
+        connections = (ConnectionTracker) dataSource;
+        donor = new Donor();
+        donor.setName("Asha");
+        donor.setUser(userRepository.save(new User("asha", "asha@example.org", "x")));
+        donor = donorRepository.save(donor);
+
+        center = new CollectionCenter();
+        center.setName("North");
+        center.setMaxCapacity(10);
+        center.setUser(userRepository.save(new User("north", "north@example.org", "x")));
+        center = centerRepository.save(center);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAllInBatch();
+        donationRepository.deleteAllInBatch();
+        donorRepository.deleteAllInBatch();
+        centerRepository.deleteAllInBatch();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void lazyAssociationsFailFastOutsideATransaction() {
+        Long id = createDonation(4);
+
+        Donation detached = donationRepository.findById(id).orElseThrow();
+        assertThrows(LazyInitializationException.class, () -> detached.getDonor().getName());
+        assertThrows(LazyInitializationException.class, () -> detached.getDonationItems().size());
+
+        DonationDTO dto = donationService.findById(id).orElseThrow();
+        assertEquals("asha", dto.getDonor().getUser().getUsername());
+        assertEquals("north", dto.getCollectionCenter().getUser().getUsername());
+        assertEquals(1, dto.getDonationItems().size());
+    }
+
+    @Test
+    void acceptReservesCapacityAndChangesStatusTogether() {
+        Long fits = createDonation(6);
+        Long tooBig = createDonation(6);
+
+        assertEquals("COLLECTED", donationService.accept(fits, center.getId()).orElseThrow().getStatus());
+        assertThrows(ConflictException.class, () -> donationService.accept(tooBig, center.getId()));
+
+        Donation rejected = donationRepository.findById(tooBig).orElseThrow();
+        assertEquals(DonationStatus.PENDING, rejected.getStatus());
+        assertEquals(0, rejected.getReservedUnits(), "reservation outlived the failed accept");
+        assertEquals(6, centerRepository.findById(center.getId()).orElseThrow().getCurrentLoad());
+    }
+
+    // Compares the old open-session-in-view request (one EntityManager bound for the whole
+    // request, as OpenEntityManagerInViewInterceptor does) with the service transaction alone
+    @Test
+    void connectionIsReturnedBeforeTheResponseIsSerialized() throws Exception {
+        for (int i = 0; i < DONATIONS; i++) {
+            createDonation(0);
+        }
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        connections.reset();
+        EntityManagerHolder holder = new EntityManagerHolder(entityManagerFactory.createEntityManager());
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, holder);
+        int heldWhileSerializingWithOsiv;
+        try {
+            List<DonationDTO> page = donationService.findAllForCenter(center.getId());
+            heldWhileSerializingWithOsiv = connections.open();
+            objectMapper.writeValueAsBytes(page);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            holder.getEntityManager().close();
+        }
+        int osivCheckouts = connections.checkouts();
+
+        connections.reset();
+        List<DonationDTO> page = donationService.findAllForCenter(center.getId());
+        int heldWhileSerializing = connections.open();
+        objectMapper.writeValueAsBytes(page);
+
+        assertEquals(DONATIONS, page.size());
+        assertEquals(1, osivCheckouts);
+        assertEquals(1, heldWhileSerializingWithOsiv);
+        assertEquals(1, connections.checkouts(), "use case should run on a single connection");
+        assertEquals(0, heldWhileSerializing, "connection still checked out after the service returned");
+    }
+
+    @Test
+    void donationListsIssueNoPerRowDeliveryLookups() {
+        insertDonations(LARGE_LIST);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<DonationDTO> donations = donationService.findAllForCenter(center.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        int pages = (LARGE_LIST + DonationService.MAX_PAGE_SIZE - 1) / DonationService.MAX_PAGE_SIZE;
+        assertEquals(LARGE_LIST, donations.size());
+        // One keyset query and one batched item load per page, nothing per row
+        assertTrue(statements <= 2L * (pages + 1), statements + " statements");
+    }
+
+    @Test
+    void summaryViewIsSmallerAndSkipsEntityLoading() throws Exception {
+        insertDonations(LARGE_LIST);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        byte[] full = objectMapper.writeValueAsBytes(donationService.findAllForCenter(center.getId()));
+
+        statistics.clear();
+        List<DonationSummaryDTO> summaries = donationService.findAllSummariesForCenter(center.getId());
+        byte[] summary = objectMapper.writeValueAsBytes(summaries);
+
+        int pages = (LARGE_LIST + DonationService.MAX_PAGE_SIZE - 1) / DonationService.MAX_PAGE_SIZE;
+        assertEquals(LARGE_LIST, summaries.size());
+        assertEquals("Asha", summaries.get(0).getDonorName());
+        assertEquals("North", summaries.get(0).getCollectionCenterName());
+        assertEquals(0, statistics.getEntityLoadCount(), "summary rows should not load entities");
+        assertTrue(statistics.getPrepareStatementCount() <= pages + 1, statistics.getPrepareStatementCount() + " statements");
+        assertTrue(summary.length * 3 < full.length * 2, "summary " + summary.length + " bytes, full " + full.length);
+    }
+
+    private void insertDonations(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("INSERT INTO donation (name, donation_date, status, donor_id, collection_center_id, " +
+                        "reserved_units) VALUES ('Rice', ?, 'COLLECTED', ?, ?, 0)",
+                IntStream.range(0, count).mapToObj(i -> new Object[]{
+                        Timestamp.valueOf(now.minusSeconds(i)), donor.getId(), center.getId()}).toList());
+    }
+
+    private Long createDonation(int kilograms) {
+        Donation donation = new Donation();
+        donation.setName("Rice");
+        donation.setDonor(donor);
+        donation.setCollectionCenter(center);
+        Donation saved = donationRepository.save(donation);
+
+        DonationItem item = new DonationItem();
+        item.setName("Rice");
+        item.setQuantity(kilograms);
+        item.setUnit(Unit.KG);
+        item.setDonation(saved);
+        item.setCollectionCenter(center);
+        itemRepository.save(item);
+        return saved.getId();
+    }
+
+    /**
+     * Counts connection checkouts and how many are still out of the pool.
+     */
+    static class ConnectionTracker extends DelegatingDataSource {
+
+        private final AtomicInteger checkouts = new AtomicInteger();
+        private final AtomicInteger open = new AtomicInteger();
+
+        ConnectionTracker(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return track(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return track(super.getConnection(username, password));
+        }
+
+        void reset() {
+            checkouts.set(0);
+        }
+
+        int checkouts() {
+            return checkouts.get();
+        }
+
+        int open() {
+            return open.get();
+        }
+
+        private Connection track(Connection connection) {
+            checkouts.incrementAndGet();
+            open.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                            open.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    @TestConfiguration
+    static class TrackingConfig {
+
+        @Bean
+        static BeanPostProcessor connectionTracking() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource
+                            ? new ConnectionTracker(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+}